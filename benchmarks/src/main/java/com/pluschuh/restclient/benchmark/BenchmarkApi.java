@@ -0,0 +1,29 @@
+package com.pluschuh.restclient.benchmark;
+
+import com.pluschuh.restclient.annotation.RequestField;
+import com.pluschuh.restclient.annotation.RestClient;
+import com.pluschuh.restclient.annotation.RestClientRequest;
+import com.pluschuh.restclient.enums.RequestFieldType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+/**
+ * 基准测试使用的REST客户端，覆盖路径参数、查询参数、请求头、JSON请求体与表单请求体
+ *
+ * @author pluschuh
+ */
+@RestClient(host = "http://127.0.0.1:8080", restTemplateBeanName = BenchmarkConfig.STUB_REST_TEMPLATE)
+public interface BenchmarkApi {
+
+    @RestClientRequest(path = "/api/v1/product/{productId}")
+    Product getProduct(@RequestField(name = "productId", type = RequestFieldType.PATH_VARIABLE) String productId,
+                       @RequestField(name = "keyword") String keyword,
+                       @RequestField(name = "page") Integer page,
+                       @RequestField(name = "X-Token", type = RequestFieldType.HEADER) String token);
+
+    @RestClientRequest(path = "/api/v1/product", method = HttpMethod.POST)
+    Product createProduct(@RequestField(name = "") Product product);
+
+    @RestClientRequest(path = "/api/v1/product/form", method = HttpMethod.POST, contentType = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    Product submitForm(@RequestField(name = "name") String name, @RequestField(name = "price") Long price);
+}
@@ -0,0 +1,45 @@
+package com.pluschuh.restclient.benchmark;
+
+import com.pluschuh.restclient.config.EnableRestClients;
+import com.pluschuh.restclient.support.SimpleRestClient;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基准测试的spring配置，REST客户端使用进程内的替身传输层
+ *
+ * @author pluschuh
+ */
+@Configuration
+@EnableRestClients(scannedPackages = "com.pluschuh.restclient.benchmark")
+public class BenchmarkConfig {
+
+    public static final String STUB_REST_TEMPLATE = "stubRestTemplate";
+
+    static final String PRODUCT_JSON = "{\"id\":10086,\"name\":\"benchmark product\","
+            + "\"description\":\"a product used to measure request building and serialization\",\"price\":1999,\"tags\":[\"a\",\"b\",\"c\"]}";
+
+    @Bean(STUB_REST_TEMPLATE)
+    public RestTemplate stubRestTemplate() {
+        return new RestTemplate(new StubClientHttpRequestFactory(PRODUCT_JSON));
+    }
+
+    public static AnnotationConfigApplicationContext newContext() {
+        return new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+    }
+
+    /**
+     * 从REST客户端代理中取出SimpleRestClient，仅用于基准测试的准备阶段
+     */
+    public static SimpleRestClient simpleRestClientOf(Object restClientProxy) throws ReflectiveOperationException {
+        Object interceptor = ((Advised) restClientProxy).getAdvisors()[0].getAdvice();
+        Field field = interceptor.getClass().getDeclaredField("simpleRestClient");
+        field.setAccessible(true);
+        return (SimpleRestClient) field.get(interceptor);
+    }
+}
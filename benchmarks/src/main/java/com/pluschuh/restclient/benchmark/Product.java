@@ -0,0 +1,30 @@
+package com.pluschuh.restclient.benchmark;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 基准测试使用的请求与响应对象
+ *
+ * @author pluschuh
+ */
+@Data
+public class Product {
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long price;
+    private List<String> tags;
+
+    public static Product sample() {
+        Product product = new Product();
+        product.setId(10086L);
+        product.setName("benchmark product");
+        product.setDescription("a product used to measure request building and serialization");
+        product.setPrice(1999L);
+        product.setTags(java.util.Arrays.asList("a", "b", "c"));
+        return product;
+    }
+}
@@ -0,0 +1,53 @@
+package com.pluschuh.restclient.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整的代理调用基准测试：经过方法拦截、请求构造、序列化、RestTemplate与响应解析，
+ * 传输层为进程内的替身实现，不包括网络开销
+ *
+ * @author pluschuh
+ * @see StubClientHttpRequestFactory
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyInvocationBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private BenchmarkApi benchmarkApi;
+    private Product product;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkConfig.newContext();
+        benchmarkApi = context.getBean(BenchmarkApi.class);
+        product = Product.sample();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product get() {
+        return benchmarkApi.getProduct("10086", "mobile phone", 2, "token");
+    }
+
+    @Benchmark
+    public Product postJson() {
+        return benchmarkApi.createProduct(product);
+    }
+
+    @Benchmark
+    public Product postForm() {
+        return benchmarkApi.submitForm("benchmark product", 1999L);
+    }
+}
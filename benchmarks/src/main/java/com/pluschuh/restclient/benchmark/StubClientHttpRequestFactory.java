@@ -0,0 +1,135 @@
+package com.pluschuh.restclient.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 进程内的替身传输层，不建立任何连接：请求体写入后直接丢弃，固定返回200与一段JSON响应体，
+ * 用于在不受网络影响的情况下测量客户端自身的开销
+ *
+ * @author pluschuh
+ */
+public class StubClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final byte[] responseBody;
+
+    public StubClientHttpRequestFactory(String responseBody) {
+        this.responseBody = responseBody.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    @Override
+    public ClientHttpRequest createRequest(@Nonnull URI uri, @Nonnull HttpMethod httpMethod) {
+        return new StubClientHttpRequest(uri, httpMethod, responseBody);
+    }
+
+    private static class StubClientHttpRequest extends AbstractClientHttpRequest {
+
+        private static final OutputStream DISCARD = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(@Nonnull byte[] b, int off, int len) {
+            }
+        };
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final byte[] responseBody;
+
+        private StubClientHttpRequest(URI uri, HttpMethod method, byte[] responseBody) {
+            this.uri = uri;
+            this.method = method;
+            this.responseBody = responseBody;
+        }
+
+        @Nonnull
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Nonnull
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Nonnull
+        @Override
+        protected OutputStream getBodyInternal(@Nonnull HttpHeaders headers) {
+            return DISCARD;
+        }
+
+        @Nonnull
+        @Override
+        protected ClientHttpResponse executeInternal(@Nonnull HttpHeaders headers) {
+            return new StubClientHttpResponse(responseBody);
+        }
+    }
+
+    private static class StubClientHttpResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private StubClientHttpResponse(byte[] body) {
+            this.body = body;
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Nonnull
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Nonnull
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Nonnull
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Nonnull
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
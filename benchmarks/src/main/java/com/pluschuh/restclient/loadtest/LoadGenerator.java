@@ -0,0 +1,186 @@
+package com.pluschuh.restclient.loadtest;
+
+import com.pluschuh.restclient.support.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 压测请求发生器。
+ * <p>
+ * 不限速时为闭环：同步模式下每个线程完成一个请求后立即发起下一个，异步模式下保持固定数量的进行中请求；
+ * 限速时为开环：第i个请求的计划发送时间为开始时间 + i / rate，耗时从计划发送时间开始计算，
+ * 发送线程被阻塞或异步请求排队的时间都会计入耗时，从而避免协调遗漏（coordinated omission）
+ *
+ * @author pluschuh
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final LoadTestOptions options;
+    private final Supplier<Object> syncCall;
+    private final Supplier<CompletableFuture<?>> asyncCall;
+    private final ExecutorService workers;
+
+    LoadGenerator(LoadTestOptions options, Supplier<Object> syncCall, Supplier<CompletableFuture<?>> asyncCall) {
+        this.options = options;
+        this.syncCall = syncCall;
+        this.asyncCall = asyncCall;
+        AtomicLong threadIndex = new AtomicLong();
+        //工作线程在整个压测期间保持存活，以便统计其内存分配量
+        this.workers = Executors.newFixedThreadPool(options.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-client-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 发起请求直到经过指定时长，并等待所有已发起的请求完成
+     */
+    Result run(long durationNanos) throws InterruptedException, ExecutionException {
+        Result result = new Result();
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        if ("async".equals(options.getMode())) {
+            runAsync(result, start, deadline);
+        } else {
+            runSync(result, start, deadline);
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void runSync(Result result, long start, long deadline) throws InterruptedException, ExecutionException {
+        AtomicLong sequence = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>(options.getThreads());
+        for (int i = 0; i < options.getThreads(); i++) {
+            futures.add(workers.submit(() -> {
+                while (true) {
+                    long intendedStart;
+                    if (options.getRate() > 0) {
+                        intendedStart = scheduledStart(start, sequence.getAndIncrement());
+                        if (intendedStart >= deadline) {
+                            return;
+                        }
+                        parkUntil(intendedStart);
+                    } else {
+                        intendedStart = System.nanoTime();
+                        if (intendedStart >= deadline) {
+                            return;
+                        }
+                    }
+                    Object response = null;
+                    Throwable failure = null;
+                    try {
+                        response = syncCall.get();
+                    } catch (Throwable ex) {
+                        failure = ex;
+                    }
+                    result.record(System.nanoTime() - intendedStart, response, failure);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void runAsync(Result result, long start, long deadline) throws InterruptedException {
+        Semaphore permits = options.getRate() > 0 ? null : new Semaphore(options.getThreads());
+        AtomicLong outstanding = new AtomicLong();
+        for (long i = 0; ; i++) {
+            long intendedStart;
+            if (Objects.isNull(permits)) {
+                intendedStart = scheduledStart(start, i);
+                if (intendedStart >= deadline) {
+                    break;
+                }
+                parkUntil(intendedStart);
+            } else {
+                permits.acquire();
+                intendedStart = System.nanoTime();
+                if (intendedStart >= deadline) {
+                    permits.release();
+                    break;
+                }
+            }
+            outstanding.incrementAndGet();
+            CompletableFuture<?> future;
+            try {
+                future = asyncCall.get();
+            } catch (Throwable ex) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+            }
+            future.whenComplete((response, failure) -> {
+                result.record(System.nanoTime() - intendedStart, response, failure);
+                outstanding.decrementAndGet();
+                if (Objects.nonNull(permits)) {
+                    permits.release();
+                }
+            });
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private long scheduledStart(long start, long sequence) {
+        return start + (long) (sequence * (double) TimeUnit.SECONDS.toNanos(1) / options.getRate());
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * 一轮压测的结果，耗时包括失败的请求；调用抛出异常或返回null均计为失败
+     */
+    static final class Result {
+
+        private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+
+        private void record(long latencyNanos, Object response, Throwable failure) {
+            latencyHistogram.record(latencyNanos);
+            if (Objects.nonNull(failure) || Objects.isNull(response)) {
+                errors.incrementAndGet();
+            }
+        }
+
+        LatencyHistogram getLatencyHistogram() {
+            return latencyHistogram;
+        }
+
+        long getErrors() {
+            return errors.get();
+        }
+
+        long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.pluschuh.restclient.loadtest;
+
+import com.pluschuh.restclient.annotation.RequestField;
+import com.pluschuh.restclient.annotation.RestClient;
+import com.pluschuh.restclient.annotation.RestClientRequest;
+import com.pluschuh.restclient.annotation.RestClientSpiProvider;
+import com.pluschuh.restclient.enums.RequestFieldType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 压测使用的REST客户端，使用系统默认提供的RestTemplate（OkHttp），其配置由启动参数决定
+ *
+ * @author pluschuh
+ * @see LoadTestConfigOfDefaultRT
+ */
+@RestClient(host = "${" + LoadTestConfigOfDefaultRT.HOST + "}",
+        spiProvider = @RestClientSpiProvider(configOfDefaultRT = LoadTestConfigOfDefaultRT.class))
+public interface LoadTestApi {
+
+    @RestClientRequest(path = "/payload/{id}")
+    LoadTestPayload get(@RequestField(name = "id", type = RequestFieldType.PATH_VARIABLE) Long id);
+
+    @RestClientRequest(path = "/payload", method = HttpMethod.POST)
+    LoadTestPayload postJson(@RequestField(name = "") LoadTestPayload payload);
+
+    @RestClientRequest(path = "/payload/form", method = HttpMethod.POST, contentType = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    LoadTestPayload postForm(@RequestField(name = "id") Long id, @RequestField(name = "payload") String payload);
+
+    @RestClientRequest(path = "/payload/{id}")
+    CompletableFuture<LoadTestPayload> getAsync(@RequestField(name = "id", type = RequestFieldType.PATH_VARIABLE) Long id);
+
+    @RestClientRequest(path = "/payload", method = HttpMethod.POST)
+    CompletableFuture<LoadTestPayload> postJsonAsync(@RequestField(name = "") LoadTestPayload payload);
+
+    @RestClientRequest(path = "/payload/form", method = HttpMethod.POST, contentType = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    CompletableFuture<LoadTestPayload> postFormAsync(@RequestField(name = "id") Long id, @RequestField(name = "payload") String payload);
+}
@@ -0,0 +1,51 @@
+package com.pluschuh.restclient.loadtest;
+
+import com.pluschuh.restclient.enums.HttpProtocolType;
+import com.pluschuh.restclient.spi.ConfigOfDefaultRT;
+
+/**
+ * 压测使用的默认restTemplate配置，从系统属性中读取，未设置时与ConfigOfDefaultRT的默认值一致，
+ * 以便在同一台机器上比较不同的连接池、请求分发与协议配置
+ *
+ * @author pluschuh
+ */
+public class LoadTestConfigOfDefaultRT implements ConfigOfDefaultRT {
+
+    static final String PREFIX = "restclient.loadtest.";
+    static final String HOST = PREFIX + "host";
+    static final String MAX_IDLE_CONNECTIONS = PREFIX + "maxIdleConnections";
+    static final String MAX_REQUESTS = PREFIX + "maxRequests";
+    static final String MAX_REQUESTS_PER_HOST = PREFIX + "maxRequestsPerHost";
+    static final String PROTOCOL = PREFIX + "protocol";
+
+    @Override
+    public long readTimeOut() {
+        return 60;
+    }
+
+    @Override
+    public long connectTimeout() {
+        return 60;
+    }
+
+    @Override
+    public int maxIdleConnections() {
+        return Integer.getInteger(MAX_IDLE_CONNECTIONS, ConfigOfDefaultRT.super.maxIdleConnections());
+    }
+
+    @Override
+    public int maxRequests() {
+        return Integer.getInteger(MAX_REQUESTS, ConfigOfDefaultRT.super.maxRequests());
+    }
+
+    @Override
+    public int maxRequestsPerHost() {
+        return Integer.getInteger(MAX_REQUESTS_PER_HOST, ConfigOfDefaultRT.super.maxRequestsPerHost());
+    }
+
+    @Override
+    public HttpProtocolType protocol() {
+        String protocol = System.getProperty(PROTOCOL);
+        return protocol == null ? ConfigOfDefaultRT.super.protocol() : HttpProtocolType.valueOf(protocol);
+    }
+}
@@ -0,0 +1,178 @@
+package com.pluschuh.restclient.loadtest;
+
+import com.pluschuh.restclient.config.EnableRestClients;
+import com.pluschuh.restclient.support.LatencyHistogram;
+import com.pluschuh.restclient.support.OkHttpClientRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 端到端压测入口：启动本地服务端（或使用--target指定的服务端），通过RestClientFactory创建的客户端、
+ * 系统默认提供的RestTemplate与OkHttp发起请求，输出吞吐量、耗时分位数、连接数与客户端内存分配速率。
+ * <p>
+ * 示例：java -cp target/benchmarks.jar com.pluschuh.restclient.loadtest.LoadTestMain --mode=async --rate=2000 --body=json
+ *
+ * @author pluschuh
+ * @see LoadTestOptions
+ */
+@Configuration
+@EnableRestClients(scannedPackages = "com.pluschuh.restclient.loadtest")
+public class LoadTestMain {
+
+    private static final String LIBRARY_LOG_LEVEL = "org.slf4j.simpleLogger.log.com.pluschuh.restclient";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        //按错误率注入的500响应已计入压测结果，不再逐个输出错误日志，须在创建第一个日志对象之前设置
+        if (options.getErrorRate() > 0 && Objects.isNull(System.getProperty(LIBRARY_LOG_LEVEL))) {
+            System.setProperty(LIBRARY_LOG_LEVEL, "off");
+        }
+        LoadTestServer server = null;
+        String target = options.getTarget();
+        if (Objects.isNull(target)) {
+            server = new LoadTestServer(options.getPort(), options.getLatencyMillis(), options.getJitterMillis(),
+                    options.getResponseBytes(), options.getErrorRate());
+            server.start();
+            target = "http://127.0.0.1:" + server.getPort();
+            if (options.isServerOnly()) {
+                System.out.println("load test server listening on " + target);
+                Thread.currentThread().join();
+            }
+        }
+        applyClientConfig(options, target);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(LoadTestMain.class)) {
+            run(options, context.getBean(LoadTestApi.class), server);
+        } finally {
+            OkHttpClient okHttpClient = OkHttpClientRegistry.obtain(new LoadTestConfigOfDefaultRT());
+            okHttpClient.dispatcher().executorService().shutdown();
+            okHttpClient.connectionPool().evictAll();
+            if (Objects.nonNull(server)) {
+                server.stop();
+            }
+        }
+    }
+
+    private static void applyClientConfig(LoadTestOptions options, String target) {
+        System.setProperty(LoadTestConfigOfDefaultRT.HOST, target);
+        setIfPresent(LoadTestConfigOfDefaultRT.MAX_IDLE_CONNECTIONS, options.getMaxIdleConnections());
+        setIfPresent(LoadTestConfigOfDefaultRT.MAX_REQUESTS, options.getMaxRequests());
+        setIfPresent(LoadTestConfigOfDefaultRT.MAX_REQUESTS_PER_HOST, options.getMaxRequestsPerHost());
+        setIfPresent(LoadTestConfigOfDefaultRT.PROTOCOL, options.getProtocol());
+    }
+
+    private static void setIfPresent(String key, Object value) {
+        if (Objects.nonNull(value)) {
+            System.setProperty(key, String.valueOf(value));
+        }
+    }
+
+    private static void run(LoadTestOptions options, LoadTestApi api, LoadTestServer server) throws Exception {
+        LoadTestPayload payload = new LoadTestPayload();
+        payload.setId(1L);
+        payload.setName("loadtest");
+        char[] chars = new char[options.getRequestBytes()];
+        Arrays.fill(chars, 'x');
+        payload.setPayload(new String(chars));
+
+        Supplier<Object> syncCall;
+        Supplier<CompletableFuture<?>> asyncCall;
+        switch (options.getBody()) {
+            case "json":
+                syncCall = () -> api.postJson(payload);
+                asyncCall = () -> api.postJsonAsync(payload);
+                break;
+            case "form":
+                syncCall = () -> api.postForm(payload.getId(), payload.getPayload());
+                asyncCall = () -> api.postFormAsync(payload.getId(), payload.getPayload());
+                break;
+            default:
+                syncCall = () -> api.get(payload.getId());
+                asyncCall = () -> api.getAsync(payload.getId());
+                break;
+        }
+
+        LoadTestConfigOfDefaultRT config = new LoadTestConfigOfDefaultRT();
+        ConnectionPool connectionPool = OkHttpClientRegistry.obtain(config).connectionPool();
+        AtomicInteger peakPooledConnections = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (LoadGenerator loadGenerator = new LoadGenerator(options, syncCall, asyncCall)) {
+            if (options.getWarmupSeconds() > 0) {
+                loadGenerator.run(TimeUnit.SECONDS.toNanos(options.getWarmupSeconds()));
+            }
+            sampler.scheduleAtFixedRate(() -> peakPooledConnections.accumulateAndGet(connectionPool.connectionCount(), Math::max),
+                    0, 100, TimeUnit.MILLISECONDS);
+            int connectionsBefore = Objects.isNull(server) ? 0 : server.getConnectionCount();
+            long allocatedBefore = clientAllocatedBytes();
+            LoadGenerator.Result result = loadGenerator.run(TimeUnit.SECONDS.toNanos(options.getDurationSeconds()));
+            long allocatedBytes = clientAllocatedBytes() - allocatedBefore;
+            sampler.shutdownNow();
+
+            LatencyHistogram latency = result.getLatencyHistogram();
+            long requests = latency.getCount();
+            double elapsedSeconds = result.getElapsedNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+            System.out.println("config:       mode=" + options.getMode() + ", threads=" + options.getThreads()
+                    + ", rate=" + (options.getRate() > 0 ? options.getRate() + "/s (open loop)" : "unlimited (closed loop)")
+                    + ", body=" + options.getBody() + ", protocol=" + config.protocol() + ", maxIdleConnections=" + config.maxIdleConnections()
+                    + ", maxRequests=" + config.maxRequests() + ", maxRequestsPerHost=" + config.maxRequestsPerHost());
+            System.out.println("requests:     " + requests + ", errors=" + result.getErrors()
+                    + String.format(" (%.2f%%)", requests == 0 ? 0 : result.getErrors() * 100.0 / requests));
+            System.out.println(String.format("throughput:   %.1f req/s", requests / elapsedSeconds));
+            System.out.println("latency(ms):  mean=" + LatencyHistogram.toMillis(latency.getMeanNanos())
+                    + ", p50=" + LatencyHistogram.toMillis(latency.getPercentileNanos(50))
+                    + ", p99=" + LatencyHistogram.toMillis(latency.getPercentileNanos(99))
+                    + ", p99.9=" + LatencyHistogram.toMillis(latency.getPercentileNanos(99.9))
+                    + ", max=" + LatencyHistogram.toMillis(latency.getMaxNanos()));
+            System.out.println("sockets:      opened=" + (Objects.isNull(server) ? "n/a" : String.valueOf(server.getConnectionCount() - connectionsBefore))
+                    + ", pooledPeak=" + peakPooledConnections.get() + ", pooledAtEnd=" + connectionPool.connectionCount()
+                    + ", idleAtEnd=" + connectionPool.idleConnectionCount());
+            System.out.println(allocatedBytes < 0 ? "allocation:   not supported by this JVM"
+                    : String.format("allocation:   %.1f MB/s, %d B/request (client threads)",
+                    allocatedBytes / elapsedSeconds / (1024 * 1024), requests == 0 ? 0 : allocatedBytes / requests));
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * 当前存活的客户端线程（排除本地服务端线程）累计分配的字节数，JVM不支持时返回-1。
+     * 期间结束的线程的分配量不会被统计，压测期间客户端线程均保持存活，因此误差很小
+     */
+    private static long clientAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds);
+        long[] allocatedBytes = ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(threadIds);
+        long total = 0;
+        for (int i = 0; i < threadIds.length; i++) {
+            if (Objects.isNull(threadInfos[i]) || allocatedBytes[i] < 0
+                    || threadInfos[i].getThreadName().startsWith(LoadTestServer.SERVER_THREAD_PREFIX)
+                    || threadInfos[i].getThreadName().startsWith("HTTP-Dispatcher")) {
+                continue;
+            }
+            total += allocatedBytes[i];
+        }
+        return total;
+    }
+}
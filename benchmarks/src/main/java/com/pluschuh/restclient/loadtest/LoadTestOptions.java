@@ -0,0 +1,162 @@
+package com.pluschuh.restclient.loadtest;
+
+import lombok.Data;
+
+/**
+ * 压测参数，命令行格式为--name=value，未指定的参数使用默认值
+ *
+ * @author pluschuh
+ */
+@Data
+public class LoadTestOptions {
+
+    /**
+     * sync：N个线程调用同步方法；async：调用返回CompletableFuture的方法
+     */
+    private String mode = "sync";
+
+    /**
+     * 同步模式下的线程数，异步模式且不限速时为同时进行中的最大请求数
+     */
+    private int threads = 16;
+
+    /**
+     * 目标请求速率（每秒），为0时不限速，即每个线程（或每个进行中的请求）完成后立即发起下一个请求。
+     * 大于0时按固定间隔安排每个请求的计划发送时间（开环），耗时从计划发送时间开始计算，
+     * 因此客户端或服务端变慢导致的请求积压会体现在耗时中，不会出现协调遗漏（coordinated omission）
+     */
+    private int rate = 0;
+
+    private int warmupSeconds = 5;
+
+    private int durationSeconds = 30;
+
+    /**
+     * 请求体类型：none为GET请求，json为JSON请求体，form为表单请求体
+     */
+    private String body = "none";
+
+    /**
+     * 请求体中payload字段的字节数
+     */
+    private int requestBytes = 256;
+
+    /**
+     * 压测目标，为空时启动本地服务端
+     */
+    private String target;
+
+    /**
+     * 本地服务端端口，为0时随机选择
+     */
+    private int port = 0;
+
+    /**
+     * 仅启动本地服务端，不发起请求，用于将服务端与客户端放在不同的进程中
+     */
+    private boolean serverOnly = false;
+
+    private long latencyMillis = 5;
+
+    /**
+     * 服务端延迟的随机增量上限，实际延迟在[latencyMillis, latencyMillis + jitterMillis]之间均匀分布
+     */
+    private long jitterMillis = 0;
+
+    private int responseBytes = 256;
+
+    /**
+     * 服务端返回500的概率，取值范围为[0, 1]
+     */
+    private double errorRate = 0;
+
+    /**
+     * 以下为默认restTemplate的配置，未指定时使用ConfigOfDefaultRT的默认值
+     *
+     * @see LoadTestConfigOfDefaultRT
+     */
+    private Integer maxIdleConnections;
+    private Integer maxRequests;
+    private Integer maxRequestsPerHost;
+    private String protocol;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (!arg.startsWith("--") || index < 0) {
+                throw new IllegalArgumentException("argument must be in the form --name=value: " + arg);
+            }
+            String name = arg.substring(2, index);
+            String value = arg.substring(index + 1);
+            switch (name) {
+                case "mode":
+                    options.setMode(value);
+                    break;
+                case "threads":
+                    options.setThreads(Integer.parseInt(value));
+                    break;
+                case "rate":
+                    options.setRate(Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    options.setWarmupSeconds(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    options.setDurationSeconds(Integer.parseInt(value));
+                    break;
+                case "body":
+                    options.setBody(value);
+                    break;
+                case "request-bytes":
+                    options.setRequestBytes(Integer.parseInt(value));
+                    break;
+                case "target":
+                    options.setTarget(value);
+                    break;
+                case "port":
+                    options.setPort(Integer.parseInt(value));
+                    break;
+                case "server-only":
+                    options.setServerOnly(Boolean.parseBoolean(value));
+                    break;
+                case "latency-ms":
+                    options.setLatencyMillis(Long.parseLong(value));
+                    break;
+                case "jitter-ms":
+                    options.setJitterMillis(Long.parseLong(value));
+                    break;
+                case "response-bytes":
+                    options.setResponseBytes(Integer.parseInt(value));
+                    break;
+                case "error-rate":
+                    options.setErrorRate(Double.parseDouble(value));
+                    break;
+                case "max-idle-connections":
+                    options.setMaxIdleConnections(Integer.parseInt(value));
+                    break;
+                case "max-requests":
+                    options.setMaxRequests(Integer.parseInt(value));
+                    break;
+                case "max-requests-per-host":
+                    options.setMaxRequestsPerHost(Integer.parseInt(value));
+                    break;
+                case "protocol":
+                    options.setProtocol(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown argument: " + arg);
+            }
+        }
+        if (!"sync".equals(options.getMode()) && !"async".equals(options.getMode())) {
+            throw new IllegalArgumentException("mode must be sync or async");
+        }
+        if (!"none".equals(options.getBody()) && !"json".equals(options.getBody()) && !"form".equals(options.getBody())) {
+            throw new IllegalArgumentException("body must be none, json or form");
+        }
+        if (options.getThreads() <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        return options;
+    }
+}
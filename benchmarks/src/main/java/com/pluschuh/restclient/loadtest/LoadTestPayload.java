@@ -0,0 +1,16 @@
+package com.pluschuh.restclient.loadtest;
+
+import lombok.Data;
+
+/**
+ * 压测使用的请求与响应对象
+ *
+ * @author pluschuh
+ */
+@Data
+public class LoadTestPayload {
+
+    private Long id;
+    private String name;
+    private String payload;
+}
@@ -0,0 +1,129 @@
+package com.pluschuh.restclient.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测使用的本地HTTP服务端，所有路径的处理方式相同：读取并丢弃请求体，等待配置的延迟后，
+ * 按配置的错误率返回500，否则返回配置大小的JSON响应体。
+ * 会记录接受过的客户端连接（以客户端地址与端口区分），用于统计客户端实际建立的连接数
+ *
+ * @author pluschuh
+ */
+public class LoadTestServer {
+
+    /**
+     * 服务端处理请求的线程名前缀，统计客户端内存分配时会排除这些线程
+     */
+    static final String SERVER_THREAD_PREFIX = "loadtest-server-";
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final byte[] responseBody;
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requests = new AtomicLong();
+
+    public LoadTestServer(int port, long latencyMillis, long jitterMillis, int responseBytes, double errorRate) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.responseBody = buildResponseBody(responseBytes);
+        //JDK自带的服务端默认未开启TCP_NODELAY，响应头与响应体分开写出时会与客户端的延迟确认叠加出约40ms的额外耗时
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        AtomicLong threadIndex = new AtomicLong();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, SERVER_THREAD_PREFIX + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", this::handle);
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * @return 接受过的客户端连接数
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            connections.add(exchange.getRemoteAddress());
+            requests.incrementAndGet();
+            drain(exchange.getRequestBody());
+            long delay = jitterMillis > 0 ? latencyMillis + ThreadLocalRandom.current().nextLong(jitterMillis + 1) : latencyMillis;
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, responseBody.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(responseBody);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void drain(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (inputStream.read(buffer) != -1) {
+            //discard
+        }
+    }
+
+    /**
+     * 构造约为指定大小的JSON响应体，结构与LoadTestPayload一致
+     */
+    private static byte[] buildResponseBody(int responseBytes) {
+        String prefix = "{\"id\":1,\"name\":\"loadtest\",\"payload\":\"";
+        String suffix = "\"}";
+        char[] payload = new char[Math.max(0, responseBytes - prefix.length() - suffix.length())];
+        Arrays.fill(payload, 'x');
+        return (prefix + new String(payload) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.benchmark.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultRequestBodySerializer中各个TypedSerializer的基准测试
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBodySerializerBenchmark {
+
+    private final DefaultRequestBodySerializer.TypedSerializer jsonSerializer = new DefaultRequestBodySerializer.JsonTypeSerializer();
+    private final DefaultRequestBodySerializer.TypedSerializer urlencodedSerializer = new DefaultRequestBodySerializer.UrlencodedTypeSerializer();
+    private final DefaultRequestBodySerializer.TypedSerializer formDataSerializer = new DefaultRequestBodySerializer.FormDataTypeSerializer();
+
+    private Map<String, Object> requestBody;
+
+    @Setup
+    public void setup() {
+        Product product = Product.sample();
+        requestBody = new LinkedHashMap<>();
+        requestBody.put("id", product.getId());
+        requestBody.put("name", product.getName());
+        requestBody.put("description", product.getDescription());
+        requestBody.put("price", product.getPrice());
+        requestBody.put("tags", product.getTags());
+    }
+
+    @Benchmark
+    public Object json() {
+        return jsonSerializer.serialize(requestBody);
+    }
+
+    @Benchmark
+    public Object urlencoded() {
+        return urlencodedSerializer.serialize(requestBody);
+    }
+
+    @Benchmark
+    public Object formData() {
+        return formDataSerializer.serialize(requestBody);
+    }
+}
@@ -0,0 +1,35 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.benchmark.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultRequestObjectConverter.convert的基准测试，即请求对象转换为Map的开销
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestObjectConverterBenchmark {
+
+    private final DefaultRequestObjectConverter requestObjectConverter = new DefaultRequestObjectConverter();
+
+    private Product product;
+
+    @Setup
+    public void setup() {
+        product = Product.sample();
+    }
+
+    @Benchmark
+    public Map<String, Object> convert() {
+        return requestObjectConverter.convert(product);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pluschuh.restclient.spi.provide;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultRequestParamPathBuilder.buildPathOfParams的基准测试
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestParamPathBuilderBenchmark {
+
+    private final DefaultRequestParamPathBuilder requestParamPathBuilder = new DefaultRequestParamPathBuilder();
+
+    private Map<String, Object> scalarParams;
+    private Map<String, Object> listParams;
+
+    @Setup
+    public void setup() {
+        scalarParams = new LinkedHashMap<>();
+        scalarParams.put("keyword", "mobile phone");
+        scalarParams.put("page", 2);
+        scalarParams.put("size", 20);
+        scalarParams.put("sort", "price");
+        scalarParams.put("empty", null);
+        listParams = new LinkedHashMap<>(scalarParams);
+        listParams.put("ids", Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        listParams.put("tags", Arrays.asList("a", "", "c"));
+    }
+
+    @Benchmark
+    public String scalarParams() {
+        return requestParamPathBuilder.buildPathOfParams(scalarParams);
+    }
+
+    @Benchmark
+    public String listParams() {
+        return requestParamPathBuilder.buildPathOfParams(listParams);
+    }
+}
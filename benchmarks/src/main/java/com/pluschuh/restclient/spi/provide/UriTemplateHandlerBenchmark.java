@@ -0,0 +1,32 @@
+package com.pluschuh.restclient.spi.provide;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SimpleUriTemplateHandler.expand的基准测试
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UriTemplateHandlerBenchmark {
+
+    private final SimpleUriTemplateHandler uriTemplateHandler = new SimpleUriTemplateHandler();
+
+    @Param({"http://127.0.0.1:8080/api/v1/product/10086",
+            "http://127.0.0.1:8080/api/v1/product/10086?keyword=mobile phone&page=2&size=20&sort=price"})
+    private String uriTemplate;
+
+    @Benchmark
+    public URI expand() {
+        return uriTemplateHandler.expand(uriTemplate, Collections.emptyMap());
+    }
+}
@@ -0,0 +1,79 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.benchmark.BenchmarkApi;
+import com.pluschuh.restclient.benchmark.BenchmarkConfig;
+import com.pluschuh.restclient.benchmark.Product;
+import com.pluschuh.restclient.valueobject.RestClientRequestTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SimpleRestClient.buildRequestTemplate的基准测试，即根据方法参数绑定查询参数、请求头、请求体并展开请求路径
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestTemplateBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private SimpleRestClient simpleRestClient;
+    private SimpleRestClient.OriginalRestClientMethodInfo getProductInfo;
+    private SimpleRestClient.OriginalRestClientMethodInfo createProductInfo;
+    private SimpleRestClient.OriginalRestClientMethodInfo submitFormInfo;
+    private Object[] getProductArgs;
+    private Object[] createProductArgs;
+    private Object[] submitFormArgs;
+    private Product product;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        context = BenchmarkConfig.newContext();
+        simpleRestClient = BenchmarkConfig.simpleRestClientOf(context.getBean(BenchmarkApi.class));
+        getProductInfo = simpleRestClient.findOriginalMethodInfo(BenchmarkApi.class.getMethod("getProduct",
+                String.class, String.class, Integer.class, String.class));
+        createProductInfo = simpleRestClient.findOriginalMethodInfo(BenchmarkApi.class.getMethod("createProduct", Product.class));
+        submitFormInfo = simpleRestClient.findOriginalMethodInfo(BenchmarkApi.class.getMethod("submitForm", String.class, Long.class));
+        product = Product.sample();
+        getProductArgs = new Object[]{"10086", "mobile phone", 2, "token"};
+        createProductArgs = new Object[]{product};
+        submitFormArgs = new Object[]{"benchmark product", 1999L};
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RestClientRequestTemplate pathQueryAndHeader() {
+        return simpleRestClient.buildRequestTemplate(getProductInfo.getHostResolver(), getProductInfo.getRequestPlan(), getProductArgs, null);
+    }
+
+    /**
+     * 唯一请求体对象直接序列化，不转换为Map
+     */
+    @Benchmark
+    public RestClientRequestTemplate singleJsonBody() {
+        return simpleRestClient.buildRequestTemplate(createProductInfo.getHostResolver(), createProductInfo.getRequestPlan(), createProductArgs, product);
+    }
+
+    /**
+     * 请求体对象转换为Map，即请求拦截器需要访问请求体时的情况
+     */
+    @Benchmark
+    public RestClientRequestTemplate convertedJsonBody() {
+        return simpleRestClient.buildRequestTemplate(createProductInfo.getHostResolver(), createProductInfo.getRequestPlan(), createProductArgs, null);
+    }
+
+    @Benchmark
+    public RestClientRequestTemplate formFields() {
+        return simpleRestClient.buildRequestTemplate(submitFormInfo.getHostResolver(), submitFormInfo.getRequestPlan(), submitFormArgs, null);
+    }
+}
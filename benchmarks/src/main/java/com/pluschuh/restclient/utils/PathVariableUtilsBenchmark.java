@@ -0,0 +1,58 @@
+package com.pluschuh.restclient.utils;
+
+import com.pluschuh.restclient.valueobject.PathVariableValueObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PathVariableUtils的基准测试
+ *
+ * @author pluschuh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathVariableUtilsBenchmark {
+
+    private static final String PATH = "/api/v1/shop/{shopId}/product/{productId}/sku/{skuId}";
+
+    private List<PathVariableValueObject> namedPathVariables;
+    private ArrayList<String> orderedPathVariables;
+
+    @Setup
+    public void setup() {
+        namedPathVariables = Arrays.asList(new PathVariableValueObject("shopId", "12"),
+                new PathVariableValueObject("productId", "10086"),
+                new PathVariableValueObject("skuId", "7"));
+        orderedPathVariables = new ArrayList<>(Arrays.asList("12", "10086", "7"));
+    }
+
+    @Benchmark
+    public String replaceNamedPathVariables() {
+        return PathVariableUtils.replacePathVariables(PATH, namedPathVariables);
+    }
+
+    @Benchmark
+    public String replaceOrderedPathVariables() {
+        return PathVariableUtils.replacePathVariables(PATH, orderedPathVariables);
+    }
+
+    @Benchmark
+    public List<String> findPathVariableNames() {
+        return PathVariableUtils.tryFindPathVariableNames(PATH);
+    }
+
+    @Benchmark
+    public StringBuilder appendEncodedPathSegment() {
+        StringBuilder builder = new StringBuilder(32);
+        PathVariableUtils.appendEncodedPathSegment("mobile phone/é", builder);
+        return builder;
+    }
+}
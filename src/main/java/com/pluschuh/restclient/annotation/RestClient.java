@@ -1,5 +1,6 @@
 package com.pluschuh.restclient.annotation;
 
+import com.pluschuh.restclient.enums.LoadBalanceStrategy;
 import com.pluschuh.restclient.support.RequestInterceptor;
 import com.pluschuh.restclient.support.ResponseTemplate;
 import com.pluschuh.restclient.support.RestClientHostResolver;
@@ -26,12 +27,22 @@ public @interface RestClient {
     String name() default "";
 
     /**
-     * 要请求的服务端的域名，默认为空，支持${XXX}
+     * 要请求的服务端的域名，默认为空，支持${XXX}，
+     * 多个域名（同一服务的多个实例）之间以英文逗号分隔，此时每次请求按loadBalanceStrategy选择其中一个
      *
      * @return 将要请求的服务端的域名
+     * @see #loadBalanceStrategy()
+     * @see RestClientOutlierDetection
      */
     String host() default "";
 
+    /**
+     * host中配置了多个域名时的负载均衡策略，默认为轮询
+     *
+     * @return 负载均衡策略
+     */
+    LoadBalanceStrategy loadBalanceStrategy() default LoadBalanceStrategy.ROUND_ROBIN;
+
     /**
      * 要使用的restTemplate在spring容器中的名称，支持${XXX}，默认为空即使用默认创建的restTemplate
      *
@@ -39,6 +50,14 @@ public @interface RestClient {
      */
     String restTemplateBeanName() default "";
 
+    /**
+     * 要使用的WebClient在spring容器中的名称，支持${XXX}，仅对返回值为Mono或Flux的方法有效，
+     * 默认为空即使用默认创建的WebClient（此时@RestClientSpiProvider中的configOfDefaultRT同样生效）
+     *
+     * @return 要使用的WebClient在spring容器中的名称
+     */
+    String webClientBeanName() default "";
+
     /**
      * 要请求的服务端的域名解析器，优先级大于直接指定的host()
      *
@@ -0,0 +1,58 @@
+package com.pluschuh.restclient.annotation;
+
+import com.pluschuh.restclient.spi.ResponseCacheStore;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * rest客户端响应缓存，与@RestClientRequest一起使用在方法上，仅对GET请求且返回值为普通对象或CompletableFuture的方法有效。
+ * 缓存的key为经过请求拦截器处理后的完整请求路径（包含请求参数）、Authorization请求头（见ignoreAuthorization）以及keyHeaders中指定的请求头，
+ * 缓存的是最终的返回数据，多次命中时返回的是同一个对象，调用方不应修改返回的对象；
+ * 返回null的调用（包括错误已被处理的调用）不会被缓存
+ *
+ * @author pluschuh
+ * @see ResponseCacheStore
+ * @see RestClientSpiProvider#responseCacheStore()
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientCache {
+
+    /**
+     * 缓存的存活时间，从写入时开始计算
+     *
+     * @return 缓存的存活时间
+     */
+    long ttl();
+
+    /**
+     * 缓存的存活时间单位，默认为秒
+     *
+     * @return 缓存的存活时间单位
+     */
+    TimeUnit ttlUnit() default TimeUnit.SECONDS;
+
+    /**
+     * 最大缓存条数，超出时按最近最少使用的顺序淘汰
+     *
+     * @return 最大缓存条数
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * 除Authorization外参与缓存key计算的请求头名称，默认为空
+     *
+     * @return 参与缓存key计算的请求头名称
+     */
+    String[] keyHeaders() default {};
+
+    /**
+     * 缓存key是否不区分Authorization请求头，默认为false；
+     * 仅当响应与调用方的身份无关时才可以设置为true，此时不同身份的调用共享同一份缓存
+     *
+     * @return 缓存key是否不区分Authorization请求头
+     */
+    boolean ignoreAuthorization() default false;
+}
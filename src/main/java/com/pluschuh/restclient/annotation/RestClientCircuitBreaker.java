@@ -0,0 +1,97 @@
+package com.pluschuh.restclient.annotation;
+
+import com.pluschuh.restclient.enums.CircuitBreakerScope;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 熔断器，可以使用在接口类或方法上，方法上的注解优先，仅对返回值为普通对象或CompletableFuture的方法有效。
+ * 熔断器在最近windowSize次请求的滑动窗口中统计失败率与慢调用率，任一超过阈值时打开，打开期间请求直接以CallNotPermittedException失败，
+ * 不再等待超时；openDuration之后转为半开，允许halfOpenCalls个探测请求，探测请求的失败率与慢调用率均低于阈值时关闭，否则重新打开。
+ * 4xx响应与请求体无法序列化（HttpMessageNotWritableException）不视为失败，其余异常（包括I/O异常与5xx响应）均视为失败。
+ * 重试时每次尝试分别经过熔断器，对冲时每个请求分别经过熔断器；状态变化可以通过spi接口CircuitBreakerListener监听
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.support.CircuitBreaker
+ * @see com.pluschuh.restclient.spi.CircuitBreakerListener
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientCircuitBreaker {
+
+    /**
+     * 熔断器的作用范围，默认每个方法一个熔断器。
+     * 按host共享时，熔断器使用第一个请求该host的方法上的配置，因此共享熔断器的方法应当使用相同的配置（一般注解在接口类上）
+     *
+     * @return 熔断器的作用范围
+     */
+    CircuitBreakerScope scope() default CircuitBreakerScope.METHOD;
+
+    /**
+     * 失败率阈值，百分比，失败率大于或等于该值时打开
+     *
+     * @return 失败率阈值
+     */
+    float failureRateThreshold() default 50;
+
+    /**
+     * 慢调用率阈值，百分比，慢调用率大于或等于该值时打开，默认为100即仅当所有请求均为慢调用时打开
+     *
+     * @return 慢调用率阈值
+     */
+    float slowCallRateThreshold() default 100;
+
+    /**
+     * 耗时大于或等于该值的请求视为慢调用
+     *
+     * @return 慢调用的耗时
+     */
+    long slowCallDuration() default 5000;
+
+    /**
+     * 滑动窗口的大小，即参与统计的最近请求数
+     *
+     * @return 滑动窗口的大小
+     */
+    int windowSize() default 100;
+
+    /**
+     * 计算失败率与慢调用率所需的最少请求数，请求数不足时不会打开
+     *
+     * @return 最少请求数
+     */
+    int minimumCalls() default 20;
+
+    /**
+     * 打开状态的持续时长，之后转为半开
+     *
+     * @return 打开状态的持续时长
+     */
+    long openDuration() default 30000;
+
+    /**
+     * slowCallDuration与openDuration的时间单位，默认为毫秒
+     *
+     * @return 时间单位
+     */
+    TimeUnit durationUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * 半开状态允许的探测请求数
+     *
+     * @return 探测请求数
+     */
+    int halfOpenCalls() default 5;
+
+    /**
+     * 降级方法名，为空时不降级。降级方法必须是同一接口类中未被@RestClientRequest注解的default方法，
+     * 参数类型与被注解的方法相同，或者在其后增加一个Throwable类型的参数用于接收异常，返回值类型与被注解的方法相同。
+     * 请求失败（包括被熔断器拒绝）时调用降级方法，返回值为CompletableFuture时在其完成后调用，
+     * 仅在方法上的注解中有效
+     *
+     * @return 降级方法名
+     */
+    String fallback() default "";
+}
@@ -0,0 +1,55 @@
+package com.pluschuh.restclient.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求合并，使用在只有一个参数（key）的方法上，将时间窗口内的多次调用合并为一次对批量方法的调用，再按key将结果分发给各个调用方。
+ * 被注解的方法返回值须为普通对象或CompletableFuture；批量方法须与其在同一接口类中，只有一个List类型的参数，
+ * 返回值为Collection、Map或对应的CompletableFuture。
+ * 批量方法返回Collection时按元素的keyProperty属性分发，返回Map时按Map的key分发，key统一按字符串比较，不存在的key返回null。
+ * 批量请求由计时器线程、凑满批次的调用线程或独立的线程发送，依赖调用线程ThreadLocal的请求拦截器在批量方法中无法获取到调用方的上下文。
+ * 使用默认的restTemplate时批量请求以非阻塞的方式发送，否则在有界的线程池中同步发送，线程池已满时合并的调用以RejectedExecutionException失败
+ *
+ * @author pluschuh
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientCollapser {
+
+    /**
+     * 批量方法的名称
+     *
+     * @return 批量方法的名称
+     */
+    String batchMethod();
+
+    /**
+     * 批量方法返回Collection时，元素中用于匹配key的属性名，元素为Map时取对应的值
+     *
+     * @return 元素中用于匹配key的属性名
+     */
+    String keyProperty() default "id";
+
+    /**
+     * 合并窗口，从窗口内第一次调用开始计算
+     *
+     * @return 合并窗口
+     */
+    long window() default 2;
+
+    /**
+     * 合并窗口的时间单位，默认为毫秒
+     *
+     * @return 合并窗口的时间单位
+     */
+    TimeUnit windowUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * 每次批量调用最多包含的key的个数，达到后立即发送，不再等待窗口结束
+     *
+     * @return 每次批量调用最多包含的key的个数
+     */
+    int maxBatchSize() default 100;
+}
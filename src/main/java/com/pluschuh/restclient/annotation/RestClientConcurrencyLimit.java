@@ -0,0 +1,113 @@
+package com.pluschuh.restclient.annotation;
+
+import com.pluschuh.restclient.enums.ConcurrencyLimitAlgorithm;
+import com.pluschuh.restclient.enums.ConcurrencyLimitScope;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发限制，使用在接口类上，仅对返回值为普通对象或CompletableFuture的方法有效，用于在依赖变慢时减少发往该依赖的请求。
+ * 并发限制根据每次请求的耗时按algorithm动态调整，未完成的请求数达到限制时，新的请求在maxQueueTime内排队等待，
+ * 排队已满或超时则直接以LimitExceededException失败，不会发送。
+ * 重试时每次尝试分别占用名额，对冲时每个请求分别占用名额；当前限制与拒绝次数可以通过ConcurrencyLimiter查看
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.support.ConcurrencyLimiter
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientConcurrencyLimit {
+
+    /**
+     * 并发限制的作用范围，默认整个接口类共享
+     *
+     * @return 作用范围
+     */
+    ConcurrencyLimitScope scope() default ConcurrencyLimitScope.CLIENT;
+
+    /**
+     * 调整并发限制的算法
+     *
+     * @return 算法
+     */
+    ConcurrencyLimitAlgorithm algorithm() default ConcurrencyLimitAlgorithm.AIMD;
+
+    /**
+     * 初始的并发限制
+     *
+     * @return 初始的并发限制
+     */
+    int initialLimit() default 20;
+
+    /**
+     * 并发限制的下限
+     *
+     * @return 并发限制的下限
+     */
+    int minLimit() default 1;
+
+    /**
+     * 并发限制的上限
+     *
+     * @return 并发限制的上限
+     */
+    int maxLimit() default 200;
+
+    /**
+     * AIMD算法减小限制时乘以的系数，取值范围为(0, 1)
+     *
+     * @return 减小系数
+     */
+    double backoffRatio() default 0.9;
+
+    /**
+     * AIMD算法中耗时大于或等于该值的请求与超时同样处理
+     *
+     * @return 超时时间
+     */
+    long timeout() default 5000;
+
+    /**
+     * GRADIENT算法允许的耗时上升倍数，当前耗时不超过长期平均耗时的该倍数时不减小限制
+     *
+     * @return 允许的耗时上升倍数
+     */
+    double rttTolerance() default 1.5;
+
+    /**
+     * GRADIENT算法计算长期平均耗时的窗口大小，即请求个数
+     *
+     * @return 长期平均耗时的窗口大小
+     */
+    int longWindow() default 600;
+
+    /**
+     * GRADIENT算法调整限制时的平滑系数，取值范围为(0, 1]，越大调整越快
+     *
+     * @return 平滑系数
+     */
+    double smoothing() default 0.2;
+
+    /**
+     * 并发数达到限制时的最长排队时间，默认为0即不排队直接拒绝
+     *
+     * @return 最长排队时间
+     */
+    long maxQueueTime() default 0;
+
+    /**
+     * 最多排队的请求数
+     *
+     * @return 最多排队的请求数
+     */
+    int maxQueueSize() default 100;
+
+    /**
+     * timeout与maxQueueTime的时间单位，默认为毫秒
+     *
+     * @return 时间单位
+     */
+    TimeUnit durationUnit() default TimeUnit.MILLISECONDS;
+}
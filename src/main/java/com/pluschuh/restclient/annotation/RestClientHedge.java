@@ -0,0 +1,63 @@
+package com.pluschuh.restclient.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对冲请求，可以使用在接口类或方法上，方法上的注解优先，用于降低由个别慢副本导致的尾延迟。
+ * 请求发出后在对冲延迟内没有得到响应时，再发送一个相同的请求，先得到的响应作为结果，另一个请求会被取消。
+ * 对冲延迟可以固定，也可以由最近的请求耗时按percentile分位数动态计算；对冲的请求数不超过正常请求数的maxHedgeRatio，避免放大负载。
+ * 仅对返回值为普通对象或CompletableFuture的幂等请求（GET、HEAD、OPTIONS、PUT、DELETE、TRACE）有效，
+ * 且需要可取消的非阻塞请求执行器，即使用默认的restTemplate（DefaultRestTemplate），返回值为普通对象的方法会通过该执行器发送请求后等待结果。
+ * 对冲的请求复用第一个请求已序列化的请求体（对冲的方法不使用流式请求体）。每个方法的对冲次数与对冲获胜次数可以通过RequestHedger查看
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.support.RequestHedger
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientHedge {
+
+    /**
+     * 固定的对冲延迟，小于0时由最近的请求耗时按percentile分位数动态计算
+     *
+     * @return 固定的对冲延迟
+     */
+    long delay() default -1;
+
+    /**
+     * delay、minDelay与maxDelay的时间单位，默认为毫秒
+     *
+     * @return 对冲延迟的时间单位
+     */
+    TimeUnit delayUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * 动态计算对冲延迟时使用的分位数，取值范围为(0, 100)
+     *
+     * @return 分位数
+     */
+    double percentile() default 95.0;
+
+    /**
+     * 动态计算的对冲延迟的下限
+     *
+     * @return 对冲延迟的下限
+     */
+    long minDelay() default 5;
+
+    /**
+     * 动态计算的对冲延迟的上限，也是请求耗时样本不足时使用的对冲延迟
+     *
+     * @return 对冲延迟的上限
+     */
+    long maxDelay() default 1000;
+
+    /**
+     * 对冲请求数占正常请求数的最大比例
+     *
+     * @return 对冲请求数占正常请求数的最大比例
+     */
+    double maxHedgeRatio() default 0.1;
+}
@@ -0,0 +1,78 @@
+package com.pluschuh.restclient.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异常实例摘除，使用在接口类上，仅当@RestClient的host中配置了多个域名（即使用LoadBalancingRestClientHostResolver）时有效。
+ * 某个域名连续consecutiveFailures次请求失败（5xx响应或连接失败等I/O异常）时将其摘除，摘除期间负载均衡不再选择该域名，
+ * 摘除时长从baseEjectionTime开始，同一域名恢复前再次被摘除时翻倍，不超过maxEjectionTime；摘除到期后该域名重新参与选择，
+ * 第一个请求成功时视为恢复，失败时立即再次摘除。4xx响应与被取消的请求不影响统计。
+ * 配置了healthCheckPath时还会定期主动检查所有域名，检查失败与请求失败一样计数，已摘除的域名检查成功时立即恢复。
+ * 摘除与恢复可以通过spi接口HostHealthListener监听
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.support.LoadBalancingRestClientHostResolver
+ * @see com.pluschuh.restclient.spi.HostHealthListener
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientOutlierDetection {
+
+    /**
+     * 连续失败该次数时摘除
+     *
+     * @return 连续失败次数
+     */
+    int consecutiveFailures() default 5;
+
+    /**
+     * 第一次摘除的时长
+     *
+     * @return 摘除时长
+     */
+    long baseEjectionTime() default 30000;
+
+    /**
+     * 摘除时长的上限
+     *
+     * @return 摘除时长的上限
+     */
+    long maxEjectionTime() default 300000;
+
+    /**
+     * 同时被摘除的域名数占所有域名数的最大比例，百分比，避免所有域名都被摘除，但总是允许摘除至少一个域名
+     *
+     * @return 最大摘除比例
+     */
+    int maxEjectionPercent() default 50;
+
+    /**
+     * 主动健康检查的路径，如/health，响应为2xx时视为成功，默认为空即不进行主动健康检查
+     *
+     * @return 健康检查路径
+     */
+    String healthCheckPath() default "";
+
+    /**
+     * 主动健康检查的间隔
+     *
+     * @return 健康检查间隔
+     */
+    long healthCheckInterval() default 10000;
+
+    /**
+     * 主动健康检查的超时时间，超时视为失败
+     *
+     * @return 健康检查超时时间
+     */
+    long healthCheckTimeout() default 1000;
+
+    /**
+     * 以上时长的时间单位，默认为毫秒
+     *
+     * @return 时间单位
+     */
+    TimeUnit durationUnit() default TimeUnit.MILLISECONDS;
+}
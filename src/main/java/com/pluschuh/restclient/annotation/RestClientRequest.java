@@ -59,4 +59,15 @@ public @interface RestClientRequest {
      * @see RestClient#requestInterceptor()
      */
     Class<? extends RequestInterceptor> requestInterceptor() default RequestInterceptor.class;
+
+    /**
+     * 是否以流式的方式发送JSON请求体，默认为false，此时请求体在发送前序列化为字节数组，以Content-Length发送。
+     * 为true时请求体在http客户端写请求时才直接序列化到连接中，不会在内存中生成完整的JSON，以chunked传输，适用于很大的请求体；
+     * 仅当方法只有一个可直接序列化的请求体对象参数时有效，序列化失败时抛出HttpMessageNotWritableException。
+     * 需要重试或对冲的方法忽略该值，请求体只序列化一次，各次尝试复用。
+     * 使用的restTemplate需要注册StreamingBodyHttpMessageConverter，默认的restTemplate已注册，外部指定的restTemplate未注册时忽略该值
+     *
+     * @return 是否以流式的方式发送请求体
+     */
+    boolean streamingBody() default false;
 }
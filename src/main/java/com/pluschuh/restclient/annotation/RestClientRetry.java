@@ -0,0 +1,100 @@
+package com.pluschuh.restclient.annotation;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求重试策略，可以使用在接口类或方法上，方法上的注解优先。
+ * 仅对返回值为普通对象或CompletableFuture的方法有效，默认只重试幂等的请求（GET、HEAD、OPTIONS、PUT、DELETE、TRACE）。
+ * 第n次重试前的等待时长为 min(backoff * multiplier^(n-1), maxBackoff)，再按jitter随机缩短，避免大量客户端同时重试。
+ * 每个客户端共享一个重试预算：每次请求存入budgetRatio个令牌，另外每秒补充minRetriesPerSecond个令牌，每次重试消耗一个令牌，
+ * 令牌不足时不再重试，以此将重试流量限制在正常流量的一定比例之内。
+ * 重试时复用已执行过请求拦截器的请求，请求体在第一次发送前序列化一次，各次尝试复用（重试的方法不使用流式请求体），
+ * 被错误处理器处理过的错误（见ERROR_HANDLED_FLAG）不会重试
+ *
+ * @author pluschuh
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientRetry {
+
+    /**
+     * 最大尝试次数，包括第一次请求
+     *
+     * @return 最大尝试次数
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * 第一次重试前的等待时长
+     *
+     * @return 第一次重试前的等待时长
+     */
+    long backoff() default 100;
+
+    /**
+     * 重试前的最大等待时长
+     *
+     * @return 重试前的最大等待时长
+     */
+    long maxBackoff() default 2000;
+
+    /**
+     * backoff与maxBackoff的时间单位，默认为毫秒
+     *
+     * @return 等待时长的时间单位
+     */
+    TimeUnit backoffUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * 等待时长的增长倍数
+     *
+     * @return 等待时长的增长倍数
+     */
+    double multiplier() default 2.0;
+
+    /**
+     * 等待时长的随机比例，取值范围为[0, 1]，实际等待时长在 [等待时长 * (1 - jitter), 等待时长] 之间均匀分布，为1时即为完全随机
+     *
+     * @return 等待时长的随机比例
+     */
+    double jitter() default 0.5;
+
+    /**
+     * 需要重试的响应状态码，仅当响应错误处理器抛出RestClientResponseException时有效
+     *
+     * @return 需要重试的响应状态码
+     */
+    int[] retryOnStatus() default {502, 503, 504};
+
+    /**
+     * 需要重试的异常类型，异常本身或其cause为其中任一类型时重试，默认为I/O异常
+     *
+     * @return 需要重试的异常类型
+     */
+    Class<? extends Throwable>[] retryOn() default {ResourceAccessException.class};
+
+    /**
+     * 是否重试非幂等的请求（POST、PATCH），默认为false
+     *
+     * @return 是否重试非幂等的请求
+     */
+    boolean retryNonIdempotent() default false;
+
+    /**
+     * 每次请求存入重试预算的令牌数，即重试流量占正常流量的最大比例，仅在接口类上的注解中有效
+     *
+     * @return 每次请求存入重试预算的令牌数
+     */
+    double budgetRatio() default 0.2;
+
+    /**
+     * 重试预算每秒补充的令牌数，保证流量较小时仍可重试，仅在接口类上的注解中有效
+     *
+     * @return 重试预算每秒补充的令牌数
+     */
+    int minRetriesPerSecond() default 10;
+}
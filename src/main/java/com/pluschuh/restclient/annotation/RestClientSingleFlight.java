@@ -0,0 +1,34 @@
+package com.pluschuh.restclient.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 合并并发的相同请求：同一方法中请求路径（包含请求参数）、Authorization请求头以及keyHeaders中指定的请求头均相同的并发调用只会发送一次请求，
+ * 其余调用等待该请求完成并得到相同的返回数据或异常。
+ * 仅对GET请求且返回值为普通对象或CompletableFuture的方法有效；使用在接口类上时对其中所有符合条件的方法有效，
+ * 使用在方法上时若方法不符合条件则在初始化时抛出异常。
+ * 等待的调用不会执行响应模板的回调；与@RestClientCache一起使用时可以避免缓存过期时的请求风暴
+ *
+ * @author pluschuh
+ * @see RestClientCache
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RestClientSingleFlight {
+
+    /**
+     * 参与请求合并key计算的请求头名称，Authorization请求头总是参与计算
+     *
+     * @return 参与请求合并key计算的请求头名称
+     */
+    String[] keyHeaders() default {};
+
+    /**
+     * 等待的调用是否得到返回数据的副本，默认为true，副本通过Jackson序列化后再反序列化得到；
+     * 为false时所有调用共享同一个返回数据对象，此时调用方不应修改返回的对象
+     *
+     * @return 等待的调用是否得到返回数据的副本
+     */
+    boolean copyResult() default true;
+}
@@ -73,6 +73,41 @@ public @interface RestClientSpiProvider {
      */
     Class<? extends UriTemplateHandlerOfDefaultRT> uriTemplateHandlerOfDefaultRT() default SimpleUriTemplateHandler.class;
 
+    /**
+     * 响应缓存存储，仅对被@RestClientCache注解的方法有效，仅当需要变更时指定，
+     * 仅当在META-INF/services目录下设置了相关实现时才会加载成功，否则会加载默认实现
+     *
+     * @return 响应缓存存储
+     * @see RestClientCache
+     */
+    Class<? extends ResponseCacheStore> responseCacheStore() default SimpleResponseCacheStore.class;
+
+    /**
+     * 熔断器状态变化监听器，仅对被@RestClientCircuitBreaker注解的方法有效，仅当需要变更时指定，
+     * 仅当在META-INF/services目录下设置了相关实现时才会加载成功，否则会加载默认实现
+     *
+     * @return 熔断器状态变化监听器
+     * @see RestClientCircuitBreaker
+     */
+    Class<? extends CircuitBreakerListener> circuitBreakerListener() default LoggingCircuitBreakerListener.class;
+
+    /**
+     * 域名摘除与恢复监听器，仅对被@RestClientOutlierDetection注解且配置了多个域名的接口有效，仅当需要变更时指定，
+     * 仅当在META-INF/services目录下设置了相关实现时才会加载成功，否则会加载默认实现
+     *
+     * @return 域名摘除与恢复监听器
+     * @see RestClientOutlierDetection
+     */
+    Class<? extends HostHealthListener> hostHealthListener() default LoggingHostHealthListener.class;
+
+    /**
+     * 请求生命周期监听器，仅当需要时指定，默认不回调；spring容器中的RequestLifecycleListener类型的bean同样会被回调，
+     * 仅当在META-INF/services目录下设置了相关实现时才会加载成功，否则会加载默认实现
+     *
+     * @return 请求生命周期监听器
+     * @see RequestLifecycleListener
+     */
+    Class<? extends RequestLifecycleListener> requestLifecycleListener() default NoOpRequestLifecycleListener.class;
 
     /**
      * 仅当在包级别设置了某个属性之后，需要在类级别重置为默认值时使用，
@@ -84,5 +119,9 @@ public @interface RestClientSpiProvider {
         Class<? extends ConfigOfDefaultRT> configOfDefaultRT = ConfigOfDefaultRT.class;
         Class<? extends ResponseErrorHandlerOfDefaultRT> responseErrorHandlerOfDefaultRT = ResponseErrorHandlerOfDefaultRT.class;
         Class<? extends UriTemplateHandlerOfDefaultRT> uriTemplateHandlerOfDefaultRT = UriTemplateHandlerOfDefaultRT.class;
+        Class<? extends ResponseCacheStore> responseCacheStore = ResponseCacheStore.class;
+        Class<? extends CircuitBreakerListener> circuitBreakerListener = CircuitBreakerListener.class;
+        Class<? extends HostHealthListener> hostHealthListener = HostHealthListener.class;
+        Class<? extends RequestLifecycleListener> requestLifecycleListener = RequestLifecycleListener.class;
     }
 }
@@ -4,18 +4,19 @@ import com.pluschuh.restclient.constants.RestClientCommonConstant;
 import com.pluschuh.restclient.spi.provide.EnhancedResponseErrorHandler;
 import com.pluschuh.restclient.spi.provide.EnhancedResponseErrorHandler.Receiver;
 import com.pluschuh.restclient.spi.provide.EnhancedResponseErrorHandler.EnhancedResponseErrorHandlerService;
+import com.pluschuh.restclient.spi.provide.SimpleConfigOfDefaultRT;
 import com.pluschuh.restclient.spi.provide.SimpleUriTemplateHandler;
-import okhttp3.OkHttpClient;
+import com.pluschuh.restclient.support.OkHttpClientRegistry;
+import com.pluschuh.restclient.support.OkHttpStreamingClientHttpRequestFactory;
+import com.pluschuh.restclient.support.StreamingBodyHttpMessageConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
-import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Method;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -56,10 +57,9 @@ class RestClientServices {
         RestTemplate restTemplate = new RestTemplate();
         SimpleUriTemplateHandler uriTemplateHandler = new SimpleUriTemplateHandler(SimpleUriTemplateHandler.class);
         EnhancedResponseErrorHandler enhancedResponseErrorHandler = new EnhancedResponseErrorHandler();
-        restTemplate.setRequestFactory(new OkHttp3ClientHttpRequestFactory(new OkHttpClient.Builder()
-                .readTimeout(60, TimeUnit.SECONDS)
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .build()));
+        //与使用默认配置的DefaultRestTemplate共享同一个OkHttp客户端
+        restTemplate.setRequestFactory(new OkHttpStreamingClientHttpRequestFactory(OkHttpClientRegistry.obtain(new SimpleConfigOfDefaultRT())));
+        StreamingBodyHttpMessageConverter.registerIfAbsent(restTemplate);
         restTemplate.setUriTemplateHandler(uriTemplateHandler);
         restTemplate.setErrorHandler(enhancedResponseErrorHandler);
         return restTemplate;
@@ -0,0 +1,20 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 熔断器的作用范围
+ *
+ * @author pluschuh
+ */
+public enum CircuitBreakerScope {
+
+    /**
+     * 每个方法一个熔断器
+     */
+    METHOD,
+
+    /**
+     * 同一个接口类中使用该范围的方法按请求的host（包括端口）共享熔断器，适用于同一个服务有多个实例的情况
+     */
+    HOST,
+
+}
@@ -0,0 +1,25 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 熔断器的状态
+ *
+ * @author pluschuh
+ */
+public enum CircuitBreakerState {
+
+    /**
+     * 关闭，请求正常发送，并在滑动窗口中统计失败率与慢调用率
+     */
+    CLOSED,
+
+    /**
+     * 打开，请求不会发送而是直接失败，持续一段时间后转为半开
+     */
+    OPEN,
+
+    /**
+     * 半开，允许少量探测请求发送，根据探测结果转为关闭或重新打开
+     */
+    HALF_OPEN,
+
+}
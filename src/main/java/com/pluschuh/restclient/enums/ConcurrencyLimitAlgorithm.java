@@ -0,0 +1,20 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 自适应并发限制的算法
+ *
+ * @author pluschuh
+ */
+public enum ConcurrencyLimitAlgorithm {
+
+    /**
+     * 加性增、乘性减：请求成功且并发数接近限制时限制加一，请求超时或服务端过载（I/O异常、429、503）时限制乘以backoffRatio
+     */
+    AIMD,
+
+    /**
+     * 延迟梯度：以长期平均耗时与当前耗时之比作为梯度调整限制，耗时上升时限制随之下降，能够在超时之前发现依赖变慢
+     */
+    GRADIENT,
+
+}
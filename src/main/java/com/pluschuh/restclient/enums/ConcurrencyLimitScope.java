@@ -0,0 +1,20 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 并发限制的作用范围
+ *
+ * @author pluschuh
+ */
+public enum ConcurrencyLimitScope {
+
+    /**
+     * 同一个接口类的所有方法共享一个并发限制
+     */
+    CLIENT,
+
+    /**
+     * 同一个接口类的所有方法按请求的host（包括端口）共享并发限制，适用于同一个服务有多个实例的情况
+     */
+    HOST,
+
+}
@@ -0,0 +1,25 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 默认的restTemplate使用的HTTP协议
+ *
+ * @author pluschuh
+ */
+public enum HttpProtocolType {
+
+    /**
+     * 仅使用HTTP/1.1，每个连接同一时间只能处理一个请求
+     */
+    HTTP_1_1,
+
+    /**
+     * 基于TLS的HTTP/2，通过ALPN协商，协商失败或明文请求时使用HTTP/1.1；同一host的并发请求会复用同一个连接
+     */
+    HTTP_2,
+
+    /**
+     * 明文HTTP/2（h2c），不经过协商直接以HTTP/2与服务端通信，仅适用于确定支持h2c的http服务，不支持https
+     */
+    H2C_PRIOR_KNOWLEDGE,
+
+}
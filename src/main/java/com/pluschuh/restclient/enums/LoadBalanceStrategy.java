@@ -0,0 +1,30 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 配置了多个host时的负载均衡策略
+ *
+ * @author pluschuh
+ */
+public enum LoadBalanceStrategy {
+
+    /**
+     * 轮询
+     */
+    ROUND_ROBIN,
+
+    /**
+     * 随机
+     */
+    RANDOM,
+
+    /**
+     * 未完成请求数最少的host，相同时随机选择
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * 随机选择两个host，取 峰值EWMA耗时 * (未完成请求数 + 1) 较小的一个，能够较快地避开变慢的host
+     */
+    PEAK_EWMA,
+
+}
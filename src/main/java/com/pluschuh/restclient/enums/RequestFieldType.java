@@ -8,7 +8,7 @@ package com.pluschuh.restclient.enums;
 public enum RequestFieldType {
 
     /**
-     * 路径参数类型
+     * 路径参数类型。参数值为null时依次使用同名的查询参数、请求体字段，都没有值时路径中拼接为null；参数值为空白字符串时抛出异常
      */
     PATH_VARIABLE,
 
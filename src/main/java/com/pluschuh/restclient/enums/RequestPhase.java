@@ -0,0 +1,81 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * 一次请求的各个阶段，用于分阶段统计耗时。
+ * 从CALL到RESPONSE_BODY的阶段由OkHttp的EventListener记录，仅使用默认的restTemplate且返回值不为Mono或Flux时存在
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.support.RequestPhaseTimings
+ */
+public enum RequestPhase {
+
+    /**
+     * 根据方法参数构造请求模板
+     */
+    BUILD_REQUEST_TEMPLATE,
+
+    /**
+     * 执行请求拦截器
+     */
+    REQUEST_INTERCEPTOR,
+
+    /**
+     * 拼装请求实体，包括请求体序列化器序列化请求体
+     */
+    SERIALIZE_BODY,
+
+    /**
+     * restTemplate的请求回调写入请求头，并通过消息转换器写入请求体
+     */
+    WRITE_REQUEST,
+
+    /**
+     * OkHttp的一次调用，从开始调用到调用结束或失败
+     */
+    CALL,
+
+    /**
+     * 获取连接，从开始调用到得到连接，新建连接时包括DNS、CONNECT与TLS，复用连接池中的连接时很短
+     */
+    CONNECTION_ACQUIRE,
+
+    /**
+     * 域名解析，复用连接时没有
+     */
+    DNS,
+
+    /**
+     * 建立TCP连接（包括TLS握手），复用连接时没有
+     */
+    CONNECT,
+
+    /**
+     * TLS握手，复用连接或者http请求时没有
+     */
+    TLS,
+
+    /**
+     * 发送请求头与请求体
+     */
+    SEND_REQUEST,
+
+    /**
+     * 首字节时间，从开始发送请求到开始读取响应头
+     */
+    TTFB,
+
+    /**
+     * 读取响应体，与DECODE_RESPONSE有重叠，响应体未读完便关闭时没有
+     */
+    RESPONSE_BODY,
+
+    /**
+     * 响应提取器将响应体解析为返回类型（如JSON反序列化）
+     */
+    DECODE_RESPONSE,
+
+    /**
+     * 执行ResponseTemplate的callBack
+     */
+    RESPONSE_CALLBACK
+}
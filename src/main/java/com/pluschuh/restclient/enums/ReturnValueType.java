@@ -0,0 +1,45 @@
+package com.pluschuh.restclient.enums;
+
+/**
+ * rest客户端方法的返回值类型
+ *
+ * @author pluschuh
+ */
+public enum ReturnValueType {
+
+    /**
+     * 同步返回，调用线程会一直阻塞直到响应解析完毕
+     */
+    SYNC,
+
+    /**
+     * 返回CompletableFuture，请求以非阻塞方式发送，响应在http客户端的回调线程中解析
+     */
+    COMPLETABLE_FUTURE,
+
+    /**
+     * 返回reactor的Mono，请求在订阅时通过WebClient发送，需要引入spring-webflux
+     */
+    MONO,
+
+    /**
+     * 返回reactor的Flux，响应体为JSON数组或流时逐个元素解码并支持背压，需要引入spring-webflux
+     */
+    FLUX,
+
+    /**
+     * 返回响应体的InputStream，关闭后释放连接
+     */
+    INPUT_STREAM,
+
+    /**
+     * 返回java.util.stream.Stream，元素从响应体中逐个解析，关闭后释放连接
+     */
+    STREAM,
+
+    /**
+     * 返回Iterator或CloseableIterator，元素从响应体中逐个解析，迭代完毕或关闭后释放连接
+     */
+    ITERATOR,
+
+}
@@ -0,0 +1,21 @@
+package com.pluschuh.restclient.spi;
+
+import com.pluschuh.restclient.enums.CircuitBreakerState;
+
+/**
+ * 熔断器状态变化监听器spi接口，可用于告警或监控
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.annotation.RestClientCircuitBreaker
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * 熔断器状态变化时调用，在触发状态变化的请求线程或回调线程中执行，不应当阻塞
+     *
+     * @param name 熔断器名称，按方法时为 接口类全名#方法名(参数类型...)，按host时为 接口类全名@host:port
+     * @param from 变化前的状态
+     * @param to   变化后的状态
+     */
+    void onStateTransition(String name, CircuitBreakerState from, CircuitBreakerState to);
+}
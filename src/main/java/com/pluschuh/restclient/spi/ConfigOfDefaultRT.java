@@ -1,9 +1,13 @@
 package com.pluschuh.restclient.spi;
 
+import com.pluschuh.restclient.enums.HttpProtocolType;
+
 import java.util.concurrent.TimeUnit;
 
 /**
  * 默认的restTemplate的部分配置     TODO 后续可能会增加
+ * <p>
+ * 配置完全相同的客户端会共享同一个底层的OkHttp客户端；连接池配置相同的客户端共享连接池，请求分发配置相同的客户端共享请求分发器
  *
  * @author pluschuh
  */
@@ -21,5 +25,65 @@ public interface ConfigOfDefaultRT {
         return TimeUnit.SECONDS;
     }
 
+    /**
+     * 连接池中最大的空闲连接数，默认与maxRequestsPerHost一致。
+     * 使用HTTP/1.1时每个并发请求占用一个连接，空闲连接数小于同一host的并发数时，请求结束后多余的连接会被关闭，下次请求需要重新建连
+     */
+    default int maxIdleConnections() {
+        return 64;
+    }
+
+    /**
+     * 空闲连接的保持时长，超过该时长的空闲连接会被关闭
+     */
+    default long keepAliveDuration() {
+        return 5;
+    }
+
+    default TimeUnit keepAliveDurationUnit() {
+        return TimeUnit.MINUTES;
+    }
+
+    /**
+     * 异步请求的最大并发数
+     */
+    default int maxRequests() {
+        return 64;
+    }
+
+    /**
+     * 每个host异步请求的最大并发数，默认与maxRequests一致。
+     * 该限制作用于所有异步请求（包括返回CompletableFuture的方法及对冲请求），超出的请求会在OkHttp的Dispatcher中排队，
+     * 调小时对冲请求可能排在原请求之后而失去作用
+     */
+    default int maxRequestsPerHost() {
+        return 64;
+    }
+
+    /**
+     * 使用的HTTP协议，默认为HTTP_2，即https请求通过ALPN协商HTTP/2，http请求使用HTTP/1.1。
+     * 使用HTTP/2时同一host的并发请求会在同一个连接上多路复用，此时可适当调大maxRequestsPerHost
+     */
+    default HttpProtocolType protocol() {
+        return HttpProtocolType.HTTP_2;
+    }
+
+    /**
+     * 遵循HTTP缓存语义（Cache-Control、Expires、ETag、Last-Modified）的响应缓存的最大条数，每个GET方法单独计算，默认为0即不启用。
+     * 启用后新鲜的响应直接返回已解析的数据，过期的响应以If-None-Match/If-Modified-Since重新验证，响应为304时返回已解析的数据
+     */
+    default int httpCacheMaxEntries() {
+        return 0;
+    }
+
+    /**
+     * 是否记录每次请求各阶段的耗时，默认为false。启用后可通过RestClientRequestContext.getPhaseTimings获取，
+     * 包括请求组装、连接获取、DNS、建连、TLS、首字节、响应解析与响应模板回调等阶段；不启用时不记录任何时间，也不安装OkHttp的EventListener
+     *
+     * @see com.pluschuh.restclient.support.RequestPhaseTimings
+     */
+    default boolean phaseTimingEnabled() {
+        return false;
+    }
 
 }
@@ -0,0 +1,28 @@
+package com.pluschuh.restclient.spi;
+
+/**
+ * 域名摘除与恢复的监听器spi接口，可用于告警或监控
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.annotation.RestClientOutlierDetection
+ */
+public interface HostHealthListener {
+
+    /**
+     * 域名被摘除时调用，在触发摘除的请求线程、回调线程或健康检查线程中执行，不应当阻塞
+     *
+     * @param name           REST客户端接口类全名
+     * @param host           被摘除的域名，如 http://10.0.0.1:8080
+     * @param ejectionMillis 本次摘除的时长，单位为毫秒
+     * @param cause          最后一次失败的异常
+     */
+    void onEjected(String name, String host, long ejectionMillis, Throwable cause);
+
+    /**
+     * 被摘除的域名恢复时调用，即摘除到期后第一个请求成功或者健康检查成功时
+     *
+     * @param name REST客户端接口类全名
+     * @param host 恢复的域名
+     */
+    void onRecovered(String name, String host);
+}
@@ -18,4 +18,15 @@ public interface RequestBodySerializer {
      */
     Object serialize(RestClientRequestTemplate requestTemplate);
 
+    /**
+     * 根据请求内容类型预先选定序列化器，在编译请求计划时每个方法仅调用一次。
+     * 仅当请求模板中的contentType与传入的contentType一致时才会使用返回的序列化器，默认返回自身
+     *
+     * @param contentType 请求内容类型，不为空
+     * @return 针对该内容类型的请求体序列化器
+     */
+    default RequestBodySerializer select(String contentType) {
+        return this;
+    }
+
 }
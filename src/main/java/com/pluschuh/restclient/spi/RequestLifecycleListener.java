@@ -0,0 +1,70 @@
+package com.pluschuh.restclient.spi;
+
+import com.pluschuh.restclient.support.RestClientRequestContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * 请求生命周期监听器spi接口，可用于审计、监控或链路追踪，所有方法均有空的默认实现，按需重写即可。
+ * 可以通过@RestClientSpiProvider指定，也可以注册为spring容器中的bean（作用于所有的REST客户端接口，按Order排序），
+ * 没有任何监听器的客户端不会有额外的开销。
+ * <p>
+ * 每次方法调用依次回调onStart、onRequestBuilt、onResponse或onError、onComplete，重试与对冲的多次尝试只回调一次；
+ * 命中缓存时同样回调onResponse。返回值为Mono或Flux的方法在订阅时回调onStart，每次订阅视为一次调用，被取消时以CancellationException回调onError。
+ * 各方法在调用线程或http客户端的回调线程中执行，不应当阻塞，抛出的异常只会记录日志，不影响请求
+ *
+ * @author pluschuh
+ */
+public interface RequestLifecycleListener {
+
+    /**
+     * 开始调用，尚未组装请求
+     *
+     * @param method 被调用的接口方法
+     * @param args   方法参数，不应当修改
+     */
+    default void onStart(Method method, Object[] args) {
+    }
+
+    /**
+     * 请求已组装完毕（请求拦截器已执行），即将发送
+     *
+     * @param method  被调用的接口方法
+     * @param context 请求上下文
+     * @param url     完整的请求路径（未经uri模板处理）
+     */
+    default void onRequestBuilt(Method method, RestClientRequestContext context, String url) {
+    }
+
+    /**
+     * 调用成功。响应错误已被响应错误处理器处理（方法返回null）时同样视为成功；
+     * 返回值为InputStream、Stream或Iterator时在得到响应头后回调，此时响应体尚未读取
+     *
+     * @param method  被调用的接口方法
+     * @param context 请求上下文
+     * @param result  方法的返回数据，返回值为CompletableFuture或Mono时为其结果，返回值为Flux时为null
+     */
+    default void onResponse(Method method, RestClientRequestContext context, Object result) {
+    }
+
+    /**
+     * 调用失败
+     *
+     * @param method    被调用的接口方法
+     * @param context   请求上下文，组装请求时失败则为null
+     * @param throwable 异常，返回值为CompletableFuture时为其失败的原因
+     */
+    default void onError(Method method, RestClientRequestContext context, Throwable throwable) {
+    }
+
+    /**
+     * 调用结束，在onResponse或onError之后回调
+     *
+     * @param method       被调用的接口方法
+     * @param context      请求上下文，组装请求时失败则为null
+     * @param throwable    调用成功时为null
+     * @param latencyNanos 从onStart到调用结束的耗时，单位为纳秒
+     */
+    default void onComplete(Method method, RestClientRequestContext context, Throwable throwable, long latencyNanos) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.pluschuh.restclient.spi;
+
+/**
+ * 响应缓存存储spi接口，为每个被@RestClientCache注解的方法创建一个独立的缓存区域
+ *
+ * @author pluschuh
+ * @see com.pluschuh.restclient.annotation.RestClientCache
+ */
+public interface ResponseCacheStore {
+
+    /**
+     * 创建缓存区域，在客户端初始化时为每个缓存方法调用一次
+     *
+     * @param name       缓存名称，格式为 接口类全名#方法名(参数类型...)
+     * @param ttlMillis  缓存的存活时间，单位为毫秒
+     * @param maxEntries 最大缓存条数
+     * @return 缓存区域，需要保证线程安全
+     */
+    Region createRegion(String name, long ttlMillis, int maxEntries);
+
+    /**
+     * 缓存区域
+     */
+    interface Region {
+
+        /**
+         * 获取缓存，不存在或已过期时返回null
+         *
+         * @param key 缓存key
+         * @return 缓存的返回数据
+         */
+        Object get(String key);
+
+        /**
+         * 写入缓存
+         *
+         * @param key   缓存key
+         * @param value 返回数据，不为null
+         */
+        void put(String key, Object value);
+
+        /**
+         * 清空缓存
+         */
+        void invalidateAll();
+
+        /**
+         * @return 当前缓存条数，可以包含已过期但尚未清理的缓存
+         */
+        long size();
+
+        /**
+         * @return 因超出最大缓存条数或过期而被淘汰的缓存条数
+         */
+        long evictionCount();
+    }
+}
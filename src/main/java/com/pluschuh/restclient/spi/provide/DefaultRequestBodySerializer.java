@@ -2,6 +2,7 @@ package com.pluschuh.restclient.spi.provide;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.pluschuh.restclient.spi.RequestBodySerializer;
 import com.pluschuh.restclient.valueobject.RestClientRequestTemplate;
 import org.apache.commons.lang3.StringUtils;
@@ -46,6 +47,34 @@ public class DefaultRequestBodySerializer implements RequestBodySerializer {
 
     }
 
+    /**
+     * 子类可能重写了serialize，此时返回自身，仅本类直接返回对应内容类型的序列化器
+     */
+    @Override
+    public RequestBodySerializer select(String contentType) {
+        if (getClass() != DefaultRequestBodySerializer.class) {
+            return this;
+        }
+        TypedSerializer typedSerializer = serializerMap.get(contentType);
+        return Objects.isNull(typedSerializer) ? RestClientRequestTemplate::getRequestBody : typedSerializer::serialize;
+    }
+
+    /**
+     * 获取直接序列化某个类型请求体对象的ObjectWriter，结果与先转换为Map再序列化一致，但不会生成中间的Map。
+     * 仅当该内容类型使用的是默认的JSON序列化器时才返回，否则返回null
+     *
+     * @param contentType 请求内容类型
+     * @param bodyType    请求体对象的声明类型
+     * @return 可缓存的ObjectWriter，可能为null
+     */
+    public ObjectWriter findObjectWriter(String contentType, Class<?> bodyType) {
+        TypedSerializer typedSerializer = serializerMap.get(contentType);
+        if (Objects.isNull(typedSerializer) || !Objects.equals(typedSerializer.getClass(), JsonTypeSerializer.class)) {
+            return null;
+        }
+        return JsonTypeSerializer.MAPPER.writerFor(bodyType);
+    }
+
     protected void addSerializer(TypedSerializer typedSerializer) {
         if (Objects.nonNull(typedSerializer) && StringUtils.isNotBlank(typedSerializer.contentType())) {
             serializerMap.put(typedSerializer.contentType(), typedSerializer);
@@ -0,0 +1,27 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.enums.CircuitBreakerState;
+import com.pluschuh.restclient.spi.CircuitBreakerListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * 默认的熔断器状态变化监听器，仅记录日志：打开时为warn级别，其余为info级别
+ *
+ * @author pluschuh
+ */
+public class LoggingCircuitBreakerListener implements CircuitBreakerListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingCircuitBreakerListener.class);
+
+    @Override
+    public void onStateTransition(String name, CircuitBreakerState from, CircuitBreakerState to) {
+        if (Objects.equals(to, CircuitBreakerState.OPEN)) {
+            LOGGER.warn("circuit breaker {} changed from {} to {}", name, from, to);
+        } else {
+            LOGGER.info("circuit breaker {} changed from {} to {}", name, from, to);
+        }
+    }
+}
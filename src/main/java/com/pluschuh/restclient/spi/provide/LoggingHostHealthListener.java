@@ -0,0 +1,25 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.spi.HostHealthListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 默认的域名摘除与恢复监听器，仅记录日志：摘除时为warn级别，恢复时为info级别
+ *
+ * @author pluschuh
+ */
+public class LoggingHostHealthListener implements HostHealthListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingHostHealthListener.class);
+
+    @Override
+    public void onEjected(String name, String host, long ejectionMillis, Throwable cause) {
+        LOGGER.warn("host {} of {} ejected for {}ms, cause: {}", host, name, ejectionMillis, String.valueOf(cause));
+    }
+
+    @Override
+    public void onRecovered(String name, String host) {
+        LOGGER.info("host {} of {} recovered", host, name);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.spi.RequestLifecycleListener;
+
+/**
+ * 默认的请求生命周期监听器，不做任何处理，使用该实现时不会回调
+ *
+ * @author pluschuh
+ */
+public class NoOpRequestLifecycleListener implements RequestLifecycleListener {
+}
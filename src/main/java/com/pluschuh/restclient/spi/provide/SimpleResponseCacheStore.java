@@ -0,0 +1,148 @@
+package com.pluschuh.restclient.spi.provide;
+
+import com.pluschuh.restclient.spi.ResponseCacheStore;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 默认的响应缓存存储，基于分段加锁的LinkedHashMap实现的有界LRU缓存，
+ * 每个分段按访问顺序淘汰（整体上为近似LRU），过期的缓存在读取时清理
+ *
+ * @author pluschuh
+ */
+public class SimpleResponseCacheStore implements ResponseCacheStore {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * 每个分段的最小容量，缓存条数较少时不分段，避免分段不均导致提前淘汰
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    @Override
+    public Region createRegion(String name, long ttlMillis, int maxEntries) {
+        Assert.isTrue(ttlMillis > 0, "ttl of cache " + name + " must be positive");
+        Assert.isTrue(maxEntries > 0, "maxEntries of cache " + name + " must be positive");
+        return new SegmentedLruRegion(ttlMillis, maxEntries);
+    }
+
+    private static class SegmentedLruRegion implements Region {
+
+        private final long ttlNanos;
+
+        private final Segment[] segments;
+
+        private final LongAdder evictionCount = new LongAdder();
+
+        SegmentedLruRegion(long ttlMillis, int maxEntries) {
+            this.ttlNanos = ttlMillis * 1_000_000L;
+            //分段数为2的幂，且每个分段的容量不小于MIN_SEGMENT_CAPACITY
+            int segmentCount = 1;
+            while (segmentCount < MAX_SEGMENTS && (long) segmentCount * 2 * MIN_SEGMENT_CAPACITY <= maxEntries) {
+                segmentCount *= 2;
+            }
+            int segmentCapacity = (maxEntries + segmentCount - 1) / segmentCount;
+            this.segments = new Segment[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = new Segment(segmentCapacity, evictionCount);
+            }
+        }
+
+        private Segment segmentFor(String key) {
+            int h = key.hashCode();
+            h ^= (h >>> 16);
+            return segments[h & (segments.length - 1)];
+        }
+
+        @Override
+        public Object get(String key) {
+            Segment segment = segmentFor(key);
+            synchronized (segment) {
+                CacheEntry entry = segment.get(key);
+                if (Objects.isNull(entry)) {
+                    return null;
+                }
+                if (System.nanoTime() - entry.expireAt >= 0) {
+                    segment.remove(key);
+                    evictionCount.increment();
+                    return null;
+                }
+                return entry.value;
+            }
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            CacheEntry entry = new CacheEntry(value, System.nanoTime() + ttlNanos);
+            Segment segment = segmentFor(key);
+            synchronized (segment) {
+                segment.put(key, entry);
+            }
+        }
+
+        @Override
+        public void invalidateAll() {
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                }
+            }
+        }
+
+        @Override
+        public long size() {
+            long size = 0;
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    size += segment.size();
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public long evictionCount() {
+            return evictionCount.sum();
+        }
+    }
+
+    private static class Segment extends LinkedHashMap<String, CacheEntry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private final LongAdder evictionCount;
+
+        Segment(int capacity, LongAdder evictionCount) {
+            super(16, .75f, true);
+            this.capacity = capacity;
+            this.evictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            if (size() > capacity) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final Object value;
+
+        private final long expireAt;
+
+        CacheEntry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
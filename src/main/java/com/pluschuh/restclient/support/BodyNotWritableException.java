@@ -0,0 +1,46 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.net.ProtocolException;
+import java.util.Objects;
+
+/**
+ * 流式请求体写入连接时序列化失败，http客户端写请求体时只能抛出IOException，以该异常包装序列化异常，
+ * 在发送请求处再转换为HttpMessageNotWritableException，避免被当作I/O错误重试、计入熔断器或剔除负载均衡的host。
+ * 继承ProtocolException，OkHttp不会在其他连接上重新发送该请求
+ *
+ * @author pluschuh
+ */
+final class BodyNotWritableException extends ProtocolException {
+
+    private static final long serialVersionUID = 1L;
+
+    BodyNotWritableException(JsonProcessingException cause) {
+        super(cause.getOriginalMessage());
+        initCause(cause);
+    }
+
+    /**
+     * @return 异常本身或其cause中存在BodyNotWritableException时返回对应的HttpMessageNotWritableException，否则返回null
+     */
+    static HttpMessageNotWritableException translate(Throwable throwable) {
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof BodyNotWritableException) {
+                return new HttpMessageNotWritableException("Could not write JSON: " + cause.getMessage(), cause.getCause());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 异常本身或其cause中存在BodyNotWritableException时，抛出对应的HttpMessageNotWritableException
+     */
+    static void throwIfPresent(Throwable throwable) {
+        HttpMessageNotWritableException notWritable = translate(throwable);
+        if (Objects.nonNull(notWritable)) {
+            throw notWritable;
+        }
+    }
+}
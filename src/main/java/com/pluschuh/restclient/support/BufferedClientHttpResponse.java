@@ -0,0 +1,66 @@
+package com.pluschuh.restclient.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * 响应体已完整读取到内存中的ClientHttpResponse，
+ * 用于在非RestTemplate的调用方式中复用基于ClientHttpResponse的响应错误处理器
+ *
+ * @author pluschuh
+ */
+class BufferedClientHttpResponse implements ClientHttpResponse {
+
+    private final int rawStatusCode;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    BufferedClientHttpResponse(int rawStatusCode, @Nonnull HttpHeaders headers, @Nonnull byte[] body) {
+        this.rawStatusCode = rawStatusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Nonnull
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(rawStatusCode);
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return rawStatusCode;
+    }
+
+    @Nonnull
+    @Override
+    public String getStatusText() {
+        HttpStatus status = HttpStatus.resolve(rawStatusCode);
+        return Objects.isNull(status) ? "" : status.getReasonPhrase();
+    }
+
+    @Nonnull
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+        //DO NOTHING
+    }
+}
@@ -0,0 +1,31 @@
+package com.pluschuh.restclient.support;
+
+/**
+ * 熔断器打开（或半开且探测请求数已满）时，请求不会发送而是直接抛出该异常
+ *
+ * @author pluschuh
+ * @see CircuitBreaker
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String circuitBreakerName;
+
+    CallNotPermittedException(String circuitBreakerName) {
+        super("circuit breaker " + circuitBreakerName + " does not permit further calls");
+        this.circuitBreakerName = circuitBreakerName;
+    }
+
+    public String getCircuitBreakerName() {
+        return circuitBreakerName;
+    }
+
+    /**
+     * 快速失败不需要异常栈
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
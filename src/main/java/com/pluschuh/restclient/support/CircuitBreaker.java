@@ -0,0 +1,316 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientCircuitBreaker;
+import com.pluschuh.restclient.enums.CircuitBreakerState;
+import com.pluschuh.restclient.spi.CircuitBreakerListener;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 熔断器，基于最近若干次请求的滑动窗口统计失败率与慢调用率，
+ * 所有熔断器均可通过名称查找，用于监控
+ *
+ * @author pluschuh
+ * @see RestClientCircuitBreaker
+ */
+public final class CircuitBreaker {
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private static final byte FAILURE = 1;
+
+    private static final byte SLOW = 2;
+
+    private final String name;
+
+    private final float failureRateThreshold;
+
+    private final float slowCallRateThreshold;
+
+    private final long slowCallDurationNanos;
+
+    private final int minimumCalls;
+
+    private final long openDurationNanos;
+
+    private final int halfOpenCalls;
+
+    private final CircuitBreakerListener listener;
+
+    /**
+     * 滑动窗口，记录每次请求是否失败、是否为慢调用，以下状态均受this锁保护
+     */
+    private final byte[] outcomes;
+
+    private int outcomeIndex;
+
+    private int outcomeCount;
+
+    private int failureCount;
+
+    private int slowCount;
+
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+
+    private long openedAtNanos;
+
+    /**
+     * 半开状态剩余的探测请求数
+     */
+    private int halfOpenPermits;
+
+    private int halfOpenCompleted;
+
+    private int halfOpenFailures;
+
+    private int halfOpenSlows;
+
+    private final LongAdder notPermittedCount = new LongAdder();
+
+    private CircuitBreaker(String name, RestClientCircuitBreaker restClientCircuitBreaker, CircuitBreakerListener listener) {
+        this.name = name;
+        this.failureRateThreshold = restClientCircuitBreaker.failureRateThreshold();
+        this.slowCallRateThreshold = restClientCircuitBreaker.slowCallRateThreshold();
+        this.slowCallDurationNanos = restClientCircuitBreaker.durationUnit().toNanos(restClientCircuitBreaker.slowCallDuration());
+        this.outcomes = new byte[Math.max(1, restClientCircuitBreaker.windowSize())];
+        this.minimumCalls = Math.min(outcomes.length, Math.max(1, restClientCircuitBreaker.minimumCalls()));
+        this.openDurationNanos = restClientCircuitBreaker.durationUnit().toNanos(restClientCircuitBreaker.openDuration());
+        this.halfOpenCalls = Math.max(1, restClientCircuitBreaker.halfOpenCalls());
+        this.listener = listener;
+    }
+
+    /**
+     * 创建熔断器并注册，同名的熔断器会被替换
+     */
+    static CircuitBreaker create(String name, RestClientCircuitBreaker restClientCircuitBreaker, CircuitBreakerListener listener) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, restClientCircuitBreaker, listener);
+        BREAKERS.put(name, circuitBreaker);
+        return circuitBreaker;
+    }
+
+    /**
+     * 同步执行一次请求
+     *
+     * @throws CallNotPermittedException 熔断器不允许请求时
+     */
+    <T> T execute(Supplier<T> call) {
+        acquirePermission();
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.get();
+            onComplete(System.nanoTime() - startNanos, false);
+            return result;
+        } catch (Throwable ex) {
+            onComplete(System.nanoTime() - startNanos, isFailure(ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * 异步执行一次请求，被取消的请求不计入统计
+     *
+     * @return 请求的结果，熔断器不允许请求时以CallNotPermittedException失败
+     */
+    CompletableFuture<Object> executeAsync(Supplier<CompletableFuture<Object>> call) {
+        CompletableFuture<Object> future;
+        try {
+            acquirePermission();
+        } catch (CallNotPermittedException ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            future = call.get();
+        } catch (Throwable ex) {
+            onComplete(System.nanoTime() - startNanos, isFailure(ex));
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        CompletableFuture<Object> attempt = future;
+        future.whenComplete((result, throwable) -> {
+            if (attempt.isCancelled()) {
+                release();
+            } else {
+                onComplete(System.nanoTime() - startNanos, Objects.nonNull(throwable) && isFailure(throwable));
+            }
+        });
+        return future;
+    }
+
+    private void acquirePermission() {
+        CircuitBreakerState from = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == CircuitBreakerState.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                from = state;
+                transitionTo(CircuitBreakerState.HALF_OPEN);
+            }
+            if (state == CircuitBreakerState.CLOSED) {
+                permitted = true;
+            } else if (state == CircuitBreakerState.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+                permitted = true;
+            } else {
+                permitted = false;
+            }
+        }
+        if (Objects.nonNull(from)) {
+            listener.onStateTransition(name, from, CircuitBreakerState.HALF_OPEN);
+        }
+        if (!permitted) {
+            notPermittedCount.increment();
+            throw new CallNotPermittedException(name);
+        }
+    }
+
+    private void onComplete(long durationNanos, boolean failure) {
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (durationNanos >= slowCallDurationNanos ? SLOW : 0));
+        CircuitBreakerState from;
+        CircuitBreakerState to;
+        synchronized (this) {
+            from = state;
+            if (state == CircuitBreakerState.CLOSED) {
+                record(outcome);
+                if (outcomeCount >= minimumCalls && isExceeded(failureCount, slowCount, outcomeCount)) {
+                    transitionTo(CircuitBreakerState.OPEN);
+                }
+            } else if (state == CircuitBreakerState.HALF_OPEN) {
+                halfOpenCompleted++;
+                halfOpenFailures += outcome & FAILURE;
+                halfOpenSlows += (outcome & SLOW) >> 1;
+                if (halfOpenCompleted >= halfOpenCalls) {
+                    transitionTo(isExceeded(halfOpenFailures, halfOpenSlows, halfOpenCompleted) ? CircuitBreakerState.OPEN : CircuitBreakerState.CLOSED);
+                }
+            }
+            //打开状态下完成的请求（打开前发出的请求）不计入统计
+            to = state;
+        }
+        if (from != to) {
+            listener.onStateTransition(name, from, to);
+        }
+    }
+
+    /**
+     * 被取消的请求归还半开状态的探测名额
+     */
+    private synchronized void release() {
+        if (state == CircuitBreakerState.HALF_OPEN && halfOpenPermits + halfOpenCompleted < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (outcomeCount == outcomes.length) {
+            byte evicted = outcomes[outcomeIndex];
+            failureCount -= evicted & FAILURE;
+            slowCount -= (evicted & SLOW) >> 1;
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = outcome;
+        failureCount += outcome & FAILURE;
+        slowCount += (outcome & SLOW) >> 1;
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private boolean isExceeded(int failures, int slows, int calls) {
+        return failures * 100F / calls >= failureRateThreshold || slows * 100F / calls >= slowCallRateThreshold;
+    }
+
+    private void transitionTo(CircuitBreakerState newState) {
+        state = newState;
+        if (newState == CircuitBreakerState.OPEN) {
+            openedAtNanos = System.nanoTime();
+        } else if (newState == CircuitBreakerState.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+            halfOpenCompleted = 0;
+            halfOpenFailures = 0;
+            halfOpenSlows = 0;
+        } else {
+            outcomeIndex = 0;
+            outcomeCount = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+    }
+
+    /**
+     * 4xx响应与请求体无法序列化都是调用方的错误，不视为失败
+     */
+    private static boolean isFailure(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        if (cause instanceof HttpMessageNotWritableException) {
+            return false;
+        }
+        if (cause instanceof RestClientResponseException) {
+            int status = ((RestClientResponseException) cause).getRawStatusCode();
+            return status < 400 || status >= 500;
+        }
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * @return 滑动窗口中的失败率，百分比，请求数不足minimumCalls时返回-1
+     */
+    public synchronized float getFailureRate() {
+        return outcomeCount < minimumCalls ? -1 : failureCount * 100F / outcomeCount;
+    }
+
+    /**
+     * @return 滑动窗口中的慢调用率，百分比，请求数不足minimumCalls时返回-1
+     */
+    public synchronized float getSlowCallRate() {
+        return outcomeCount < minimumCalls ? -1 : slowCount * 100F / outcomeCount;
+    }
+
+    /**
+     * @return 被拒绝的请求数
+     */
+    public long getNotPermittedCount() {
+        return notPermittedCount.sum();
+    }
+
+    /**
+     * 根据名称查找熔断器
+     *
+     * @param name 熔断器名称，按方法时为 接口类全名#方法名(参数类型简称,...)，按host时为 接口类全名@host:port
+     * @return 熔断器，不存在时返回null
+     */
+    public static CircuitBreaker find(String name) {
+        return BREAKERS.get(name);
+    }
+
+    /**
+     * @return 所有已创建的熔断器
+     */
+    public static Collection<CircuitBreaker> all() {
+        return Collections.unmodifiableCollection(BREAKERS.values());
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name=" + name + ", state=" + state + ", failureRate=" + getFailureRate() + ", slowCallRate=" + getSlowCallRate()
+                + ", notPermitted=" + getNotPermittedCount() + "}";
+    }
+}
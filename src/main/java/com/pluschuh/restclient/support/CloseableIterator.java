@@ -0,0 +1,20 @@
+package com.pluschuh.restclient.support;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 可关闭的迭代器，rest客户端方法的返回值可以声明为该类型或Iterator，
+ * 元素从响应体中逐个解析，迭代完毕或调用close后会释放底层连接
+ *
+ * @param <T> 元素类型
+ * @author pluschuh
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * 关闭迭代器并释放底层连接，不会抛出IOException
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,205 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.spi.provide.SimpleUriTemplateHandler;
+import com.pluschuh.restclient.utils.PathVariableUtils;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriTemplateHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 预编译的请求路径模板，在编译请求计划时根据原始请求路径解析一次，
+ * 如 /api/project/{projectId}/task/{taskId} 会被解析为字面量片段 [/api/project/, /task/, ""] 与参数槽 [projectId, taskId]。
+ * 每次调用时只需一次StringBuilder拼接即可得到最终路径。
+ * 仅当restTemplate的uri模板处理器不会再次编码路径时参数值才进行路径片段编码，否则原样拼接，由uri模板处理器编码
+ *
+ * @author pluschuh
+ */
+@Getter
+public final class CompiledPathTemplate {
+
+    private static final char LEFT = '{';
+    private static final char RIGHT = '}';
+
+    /**
+     * 每个参数槽预估的长度
+     */
+    private static final int ESTIMATED_SLOT_LENGTH = 16;
+
+    /**
+     * 原始请求路径
+     */
+    private final String path;
+
+    /**
+     * 字面量片段，长度总是比参数槽多一个
+     */
+    private final String[] literals;
+
+    private final Slot[] slots;
+
+    private final int estimatedLength;
+
+    /**
+     * 是否对参数值进行路径片段编码
+     */
+    private final boolean encodeValues;
+
+    private CompiledPathTemplate(String path, String[] literals, Slot[] slots, boolean encodeValues) {
+        this.path = path;
+        this.literals = literals;
+        this.slots = slots;
+        this.encodeValues = encodeValues;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.estimatedLength = literalLength + slots.length * ESTIMATED_SLOT_LENGTH;
+    }
+
+    /**
+     * 解析请求路径
+     *
+     * @param path                原始请求路径，如 /api/product/{productId}/detail
+     * @param pathVariableBinders 路径参数类型的参数绑定器，参数槽会优先绑定到同名的方法参数下标上
+     * @param encodeValues        是否对参数值进行路径片段编码
+     * @return 预编译的请求路径模板
+     * @see #isEncodingRequired(UriTemplateHandler)
+     */
+    static CompiledPathTemplate compile(String path, RestClientRequestPlan.ArgumentBinder[] pathVariableBinders, boolean encodeValues) {
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        if (StringUtils.isEmpty(path)) {
+            return new CompiledPathTemplate(path, new String[]{StringUtils.EMPTY}, new Slot[0], encodeValues);
+        }
+        int literalStart = 0;
+        int i = 0;
+        while (i < path.length()) {
+            int left = path.indexOf(LEFT, i);
+            if (left < 0) break;
+            int right = path.indexOf(RIGHT, left + 1);
+            //未闭合的左括号视为字面量
+            if (right < 0) break;
+            String name = path.substring(left + 1, right);
+            literals.add(path.substring(literalStart, left));
+            slots.add(new Slot(name, findArgumentIndex(name, pathVariableBinders)));
+            literalStart = right + 1;
+            i = right + 1;
+        }
+        literals.add(path.substring(literalStart));
+        return new CompiledPathTemplate(path, literals.toArray(new String[0]), slots.toArray(new Slot[0]), encodeValues);
+    }
+
+    /**
+     * 参数值是否需要预先编码。默认的SimpleUriTemplateHandler与编码方式为VALUES_ONLY、NONE的DefaultUriBuilderFactory会原样使用拼接后的路径，需要预先编码；
+     * 编码方式为URI_COMPONENT、TEMPLATE_AND_VALUES的DefaultUriBuilderFactory会再次编码路径（%会被编码为%25），
+     * 其余编码方式未知的uri模板处理器也不预先编码，与原先原样拼接的行为一致
+     *
+     * @param uriTemplateHandler restTemplate的uri模板处理器
+     */
+    static boolean isEncodingRequired(UriTemplateHandler uriTemplateHandler) {
+        if (Objects.equals(uriTemplateHandler.getClass(), SimpleUriTemplateHandler.class)) {
+            return true;
+        }
+        if (uriTemplateHandler instanceof DefaultUriBuilderFactory) {
+            DefaultUriBuilderFactory.EncodingMode encodingMode = ((DefaultUriBuilderFactory) uriTemplateHandler).getEncodingMode();
+            return Objects.equals(encodingMode, DefaultUriBuilderFactory.EncodingMode.VALUES_ONLY)
+                    || Objects.equals(encodingMode, DefaultUriBuilderFactory.EncodingMode.NONE);
+        }
+        return false;
+    }
+
+    private static int findArgumentIndex(String name, RestClientRequestPlan.ArgumentBinder[] pathVariableBinders) {
+        for (RestClientRequestPlan.ArgumentBinder pathVariableBinder : pathVariableBinders) {
+            if (Objects.equals(pathVariableBinder.getName(), name)) {
+                return pathVariableBinder.getIndex();
+            }
+        }
+        return Slot.UNBOUND;
+    }
+
+    /**
+     * 是否含有路径参数
+     */
+    public boolean isDynamic() {
+        return slots.length > 0;
+    }
+
+    /**
+     * 是否有未绑定到路径参数的参数槽，这些参数槽需要从请求参数或请求体中取值
+     */
+    public boolean hasUnboundSlot() {
+        for (Slot slot : slots) {
+            if (slot.getArgumentIndex() == Slot.UNBOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算最终路径。参数槽的取值顺序为：同名的路径参数、同名的请求参数、同名的请求体字段，都没有值时拼接为null
+     *
+     * @param paramValues  方法调用的参数值
+     * @param requestParam 已绑定的请求参数
+     * @param requestBody  已绑定的请求体，仅当路径参数与请求参数都没有值时读取
+     * @return 最终路径，如 /api/product/123/detail
+     */
+    String expand(Object[] paramValues, Map<String, Object> requestParam, Supplier<Map<String, Object>> requestBody) {
+        if (slots.length == 0) {
+            return path;
+        }
+        StringBuilder result = new StringBuilder(estimatedLength);
+        for (int i = 0; i < slots.length; i++) {
+            result.append(literals[i]);
+            String value = slots[i].resolve(paramValues, requestParam, requestBody);
+            if (encodeValues) {
+                PathVariableUtils.appendEncodedPathSegment(value, result);
+            } else {
+                result.append(value);
+            }
+        }
+        result.append(literals[slots.length]);
+        return result.toString();
+    }
+
+    @Getter
+    public static final class Slot {
+
+        static final int UNBOUND = -1;
+
+        private final String name;
+
+        /**
+         * 绑定的方法参数下标，未绑定时为-1
+         */
+        private final int argumentIndex;
+
+        Slot(String name, int argumentIndex) {
+            this.name = name;
+            this.argumentIndex = argumentIndex;
+        }
+
+        private String resolve(Object[] paramValues, Map<String, Object> requestParam, Supplier<Map<String, Object>> requestBody) {
+            Object value = argumentIndex == UNBOUND ? null : paramValues[argumentIndex];
+            //如果路径参数为空则从requestParam或requestBody中查找是否有相应的值
+            if (Objects.isNull(value)) {
+                value = requestParam.get(name);
+                if (Objects.isNull(value) || StringUtils.equals(value.toString(), "null")) {
+                    value = requestBody.get().get(name);
+                }
+            }
+            String stringValue = String.valueOf(value);
+            if (StringUtils.isBlank(stringValue)) {
+                throw new RuntimeException("PathVariable must not be blank");
+            }
+            return stringValue;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientConcurrencyLimit;
+import com.pluschuh.restclient.enums.ConcurrencyLimitAlgorithm;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 自适应并发限制器，根据每次请求的耗时动态调整允许的未完成请求数，
+ * 所有限制器均可通过名称查找，用于监控
+ *
+ * @author pluschuh
+ * @see RestClientConcurrencyLimit
+ */
+public final class ConcurrencyLimiter {
+
+    private static final Map<String, ConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    /**
+     * 仅用于排队超时
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("rest-client-limiter-timer-"));
+
+    /**
+     * 不需要排队时返回的名额
+     */
+    private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+    /**
+     * 长期平均耗时高于当前耗时的该倍数时，认为耗时突增已经结束，加速衰减长期平均耗时
+     */
+    private static final double LONG_RTT_RECOVERY_RATIO = 2;
+
+    private static final double LONG_RTT_DECAY = 0.95;
+
+    private final String name;
+
+    private final ConcurrencyLimitAlgorithm algorithm;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final long timeoutNanos;
+
+    private final double rttTolerance;
+
+    private final double longRttAlpha;
+
+    private final double smoothing;
+
+    private final long maxQueueNanos;
+
+    private final int maxQueueSize;
+
+    /**
+     * 当前限制，以下状态均受this锁保护
+     */
+    private double limit;
+
+    private int inFlight;
+
+    private double longRttNanos;
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private ConcurrencyLimiter(String name, RestClientConcurrencyLimit restClientConcurrencyLimit) {
+        TimeUnit durationUnit = restClientConcurrencyLimit.durationUnit();
+        this.name = name;
+        this.algorithm = restClientConcurrencyLimit.algorithm();
+        this.minLimit = Math.max(1, restClientConcurrencyLimit.minLimit());
+        this.maxLimit = Math.max(minLimit, restClientConcurrencyLimit.maxLimit());
+        this.backoffRatio = Math.min(1, Math.max(0, restClientConcurrencyLimit.backoffRatio()));
+        this.timeoutNanos = durationUnit.toNanos(restClientConcurrencyLimit.timeout());
+        this.rttTolerance = Math.max(1, restClientConcurrencyLimit.rttTolerance());
+        this.longRttAlpha = 2.0 / (Math.max(1, restClientConcurrencyLimit.longWindow()) + 1);
+        this.smoothing = Math.min(1, Math.max(0, restClientConcurrencyLimit.smoothing()));
+        this.maxQueueNanos = durationUnit.toNanos(restClientConcurrencyLimit.maxQueueTime());
+        this.maxQueueSize = Math.max(0, restClientConcurrencyLimit.maxQueueSize());
+        this.limit = Math.min(maxLimit, Math.max(minLimit, restClientConcurrencyLimit.initialLimit()));
+    }
+
+    /**
+     * 创建并发限制器并注册，同名的限制器会被替换
+     */
+    static ConcurrencyLimiter create(String name, RestClientConcurrencyLimit restClientConcurrencyLimit) {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(name, restClientConcurrencyLimit);
+        LIMITERS.put(name, concurrencyLimiter);
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 同步执行一次请求，需要排队时阻塞当前线程，最长为maxQueueTime
+     *
+     * @throws LimitExceededException 并发数达到限制且排队已满或排队超时
+     */
+    <T> T execute(Supplier<T> call) {
+        CompletableFuture<Void> permit = acquire();
+        if (permit != ACQUIRED) {
+            try {
+                permit.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+            }
+        }
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.get();
+            onComplete(System.nanoTime() - startNanos, null);
+            return result;
+        } catch (Throwable ex) {
+            onComplete(System.nanoTime() - startNanos, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * 异步执行一次请求，需要排队时不阻塞当前线程，获得名额后在释放名额的线程中发送
+     *
+     * @return 请求的结果，并发数达到限制且排队已满或排队超时时以LimitExceededException失败；排队期间取消时不会发送
+     */
+    CompletableFuture<Object> executeAsync(Supplier<CompletableFuture<Object>> call) {
+        CompletableFuture<Void> permit;
+        try {
+            permit = acquire();
+        } catch (LimitExceededException ex) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        if (permit == ACQUIRED) {
+            return run(call);
+        }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        permit.whenComplete((value, throwable) -> {
+            if (Objects.nonNull(throwable)) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            if (result.isDone()) {
+                release(0, false, false);
+                return;
+            }
+            CompletableFuture<Object> future = run(call);
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+            future.whenComplete((r, e) -> {
+                if (Objects.isNull(e)) {
+                    result.complete(r);
+                } else {
+                    result.completeExceptionally(e);
+                }
+            });
+        });
+        result.whenComplete((r, e) -> {
+            //排队期间取消时移出队列
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<Object> run(Supplier<CompletableFuture<Object>> call) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Object> future;
+        try {
+            future = call.get();
+        } catch (Throwable ex) {
+            onComplete(System.nanoTime() - startNanos, ex);
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        future.whenComplete((result, throwable) -> onComplete(System.nanoTime() - startNanos, throwable));
+        return future;
+    }
+
+    /**
+     * 获取一个名额，并发数未达到限制时返回ACQUIRED，否则返回排队中的名额
+     *
+     * @throws LimitExceededException 并发数达到限制且不允许排队或排队已满
+     */
+    private CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> waiter = null;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return ACQUIRED;
+            }
+            if (maxQueueNanos > 0 && waiters.size() < maxQueueSize) {
+                waiter = new CompletableFuture<>();
+                waiters.addLast(waiter);
+            }
+        }
+        if (Objects.isNull(waiter)) {
+            rejectedCount.increment();
+            throw new LimitExceededException(name);
+        }
+        CompletableFuture<Void> queued = waiter;
+        ScheduledFuture<?> timeout = TIMER.schedule(() -> {
+            if (queued.completeExceptionally(new LimitExceededException(name))) {
+                rejectedCount.increment();
+            }
+        }, maxQueueNanos, TimeUnit.NANOSECONDS);
+        queued.whenComplete((value, throwable) -> {
+            timeout.cancel(false);
+            if (Objects.nonNull(throwable)) {
+                synchronized (this) {
+                    waiters.remove(queued);
+                }
+            }
+        });
+        return queued;
+    }
+
+    /**
+     * 请求完成，被取消或被熔断器拒绝的请求没有实际耗时，只归还名额
+     */
+    private void onComplete(long rttNanos, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        boolean sample = !(cause instanceof CancellationException) && !(cause instanceof CallNotPermittedException);
+        release(rttNanos, sample, isDrop(cause));
+    }
+
+    /**
+     * 归还名额并将空出的名额分配给排队的请求，排队的请求在锁外被唤醒
+     */
+    private void release(long rttNanos, boolean sample, boolean drop) {
+        List<CompletableFuture<Void>> granted = null;
+        synchronized (this) {
+            if (sample) {
+                adjustLimit(Math.max(1, rttNanos), drop);
+            }
+            inFlight--;
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                CompletableFuture<Void> waiter = waiters.pollFirst();
+                if (!waiter.isDone()) {
+                    inFlight++;
+                    if (Objects.isNull(granted)) {
+                        granted = new ArrayList<>();
+                    }
+                    granted.add(waiter);
+                }
+            }
+        }
+        if (Objects.nonNull(granted)) {
+            for (CompletableFuture<Void> waiter : granted) {
+                //分配后恰好排队超时或被取消时归还名额
+                if (!waiter.complete(null)) {
+                    release(0, false, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据一次请求的耗时调整限制，未完成的请求数不足限制的一半时说明限制不是瓶颈，不增大限制
+     */
+    private void adjustLimit(long rttNanos, boolean drop) {
+        boolean limited = inFlight * 2 >= limit;
+        if (algorithm == ConcurrencyLimitAlgorithm.AIMD) {
+            if (drop || rttNanos >= timeoutNanos) {
+                limit = Math.max(minLimit, Math.floor(limit * backoffRatio));
+            } else if (limited) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            return;
+        }
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) * longRttAlpha;
+        if (longRttNanos / rttNanos > LONG_RTT_RECOVERY_RATIO) {
+            longRttNanos *= LONG_RTT_DECAY;
+        }
+        if (!drop && !limited) {
+            return;
+        }
+        //梯度在[0.5, 1]之间，耗时未超过容忍倍数时为1，再加上sqrt(limit)作为允许排队的请求数，使限制能够增长
+        double gradient = drop ? 0.5 : Math.max(0.5, Math.min(1, rttTolerance * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.min(maxLimit, Math.max(minLimit, limit * (1 - smoothing) + newLimit * smoothing));
+    }
+
+    /**
+     * I/O异常（包括超时）与429、503响应说明依赖已经过载
+     */
+    private static boolean isDrop(Throwable cause) {
+        if (cause instanceof RestClientResponseException) {
+            int status = ((RestClientResponseException) cause).getRawStatusCode();
+            return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+        return cause instanceof ResourceAccessException;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 当前的并发限制
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return 未完成的请求数
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return 排队中的请求数
+     */
+    public synchronized int getQueueSize() {
+        return waiters.size();
+    }
+
+    /**
+     * @return 被拒绝（包括排队超时）的请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 根据名称查找并发限制器
+     *
+     * @param name 限制器名称，整个接口类共享时为 接口类全名，按host时为 接口类全名@host:port
+     * @return 并发限制器，不存在时返回null
+     */
+    public static ConcurrencyLimiter find(String name) {
+        return LIMITERS.get(name);
+    }
+
+    /**
+     * @return 所有已创建的并发限制器
+     */
+    public static Collection<ConcurrencyLimiter> all() {
+        return Collections.unmodifiableCollection(LIMITERS.values());
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{name=" + name + ", algorithm=" + algorithm + ", limit=" + getLimit() + ", inFlight=" + getInFlight()
+                + ", queueSize=" + getQueueSize() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
@@ -8,7 +8,6 @@ import com.pluschuh.restclient.spi.provide.SimpleResponseErrorHandler;
 import com.pluschuh.restclient.spi.provide.SimpleUriTemplateHandler;
 import com.pluschuh.restclient.valueobject.RestClientSpiProviderValueObject;
 import okhttp3.OkHttpClient;
-import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -20,6 +19,13 @@ import org.springframework.web.client.RestTemplate;
  */
 public class DefaultRestTemplate extends RestTemplate {
 
+    /**
+     * 底层的OkHttp客户端，由OkHttpClientRegistry按配置共享，返回值为CompletableFuture的方法会直接使用该客户端以非阻塞方式发送请求
+     */
+    private OkHttpClient okHttpClient;
+
+    private ConfigOfDefaultRT configOfDefaultRT;
+
     public DefaultRestTemplate(RestClientSpiProviderValueObject restClientSpiProvider, Class<?> restClientInterface) {
         init(restClientSpiProvider, restClientInterface);
     }
@@ -38,11 +44,19 @@ public class DefaultRestTemplate extends RestTemplate {
                 restClientSpiProvider.responseErrorHandlerOfDefaultRT(),
                 SimpleResponseErrorHandler::new);
 
-        this.setRequestFactory(new OkHttp3ClientHttpRequestFactory(new OkHttpClient.Builder()
-                .readTimeout(configOfDefaultRT.readTimeOut(), configOfDefaultRT.readTimeOutUnit())
-                .connectTimeout(configOfDefaultRT.connectTimeout(), configOfDefaultRT.connectTimeoutUnit())
-                .build()));
+        this.configOfDefaultRT = configOfDefaultRT;
+        this.okHttpClient = OkHttpClientRegistry.obtain(configOfDefaultRT);
+        this.setRequestFactory(new OkHttpStreamingClientHttpRequestFactory(okHttpClient));
+        StreamingBodyHttpMessageConverter.registerIfAbsent(this);
         this.setUriTemplateHandler(uriTemplateHandlerOfDefaultRT);
         this.setErrorHandler(responseErrorHandlerOfDefaultRT);
     }
+
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    public ConfigOfDefaultRT getConfigOfDefaultRT() {
+        return configOfDefaultRT;
+    }
 }
@@ -0,0 +1,54 @@
+package com.pluschuh.restclient.support;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * 异步请求中错误响应已被响应错误处理器处理（ERROR_HANDLED_FLAG）时，以该异常包装原异常继续传递，
+ * 使熔断器、并发限制器、请求指标与负载均衡按原异常统计为失败，在最外层再转换为处理后的结果（一般为null）返回给调用方，与同步请求的行为一致。
+ * 继承CompletionException，各处按CompletionException解包后即可得到原异常
+ *
+ * @author pluschuh
+ */
+final class ErrorHandledException extends CompletionException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 错误处理后仍解析出的结果，解析时抛出异常则为null
+     */
+    private final transient Object result;
+
+    ErrorHandledException(Throwable cause) {
+        this(cause, null);
+    }
+
+    ErrorHandledException(Throwable cause, Object result) {
+        super(cause);
+        this.result = result;
+    }
+
+    Object getResult() {
+        return result;
+    }
+
+    /**
+     * @return throwable本身或被CompletionException包装的ErrorHandledException，都不是时返回null
+     */
+    static ErrorHandledException find(Throwable throwable) {
+        if (throwable instanceof ErrorHandledException) {
+            return (ErrorHandledException) throwable;
+        }
+        if (throwable instanceof CompletionException && throwable.getCause() instanceof ErrorHandledException) {
+            return (ErrorHandledException) throwable.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * 只用于传递原异常，不需要异常栈
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,259 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.spi.ResponseCacheStore;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 遵循HTTP缓存语义的响应缓存，每个GET方法一个，缓存的是已解析的返回数据。
+ * 新鲜度由Cache-Control的max-age或Expires决定，新鲜的缓存直接返回；
+ * 过期但存在ETag或Last-Modified的缓存会以If-None-Match/If-Modified-Since重新验证，响应为304时直接返回已解析的数据而无需再次反序列化。
+ * 响应包含no-store或Vary（Accept-Encoding除外）时不缓存，缓存key包含Authorization请求头
+ *
+ * @author pluschuh
+ */
+final class HttpResponseCache {
+
+    /**
+     * 缓存的最长保留时间，超过后即使仍可重新验证也会被清理
+     */
+    private static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String NO_STORE = "no-store";
+
+    private static final String NO_CACHE = "no-cache";
+
+    private static final String MAX_AGE = "max-age=";
+
+    private final ResponseCacheStore.Region region;
+
+    private HttpResponseCache(ResponseCacheStore.Region region) {
+        this.region = region;
+    }
+
+    static HttpResponseCache create(Method method, int maxEntries, ResponseCacheStore responseCacheStore) {
+        String name = ResponseCache.nameOf(method) + "#http";
+        return new HttpResponseCache(responseCacheStore.createRegion(name, RETENTION_MILLIS, maxEntries));
+    }
+
+    /**
+     * 查找缓存
+     *
+     * @param fullUrl        完整请求路径
+     * @param requestHeaders 请求头
+     * @return 查找结果，缓存不存在时其中的缓存为null
+     */
+    Lookup lookup(String fullUrl, HttpHeaders requestHeaders) {
+        String authorization = requestHeaders.getFirst(HttpHeaders.AUTHORIZATION);
+        String key = Objects.isNull(authorization) ? fullUrl : fullUrl + '\n' + authorization;
+        return new Lookup(key, (Entry) region.get(key));
+    }
+
+    /**
+     * 为过期的缓存添加重新验证的请求头，不存在缓存时原样返回
+     */
+    HttpEntity<?> withValidators(HttpEntity<?> httpEntity, Lookup lookup) {
+        Entry entry = lookup.getEntry();
+        if (Objects.isNull(entry)) {
+            return httpEntity;
+        }
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.putAll(httpEntity.getHeaders());
+        if (Objects.nonNull(entry.getETag())) {
+            httpHeaders.setIfNoneMatch(entry.getETag());
+        }
+        if (entry.getLastModified() >= 0) {
+            httpHeaders.setIfModifiedSince(entry.getLastModified());
+        }
+        return new HttpEntity<>(httpEntity.getBody(), httpHeaders);
+    }
+
+    /**
+     * 读取响应，响应为304时不读取响应体
+     */
+    static Exchange exchange(ClientHttpResponse response, ResponseExtractor<Object> responseExtractor) throws IOException {
+        int status = response.getRawStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        Object body = status == HttpStatus.NOT_MODIFIED.value() ? null : responseExtractor.extractData(response);
+        return new Exchange(status, headers, body);
+    }
+
+    /**
+     * 根据响应得到最终的返回数据：304时刷新缓存的新鲜度并返回已缓存的数据，200时提取返回数据并按响应头决定是否缓存
+     *
+     * @param lookup          发送请求前的查找结果
+     * @param exchange        响应
+     * @param resultExtractor 从响应体中提取返回数据
+     * @return 返回数据
+     */
+    Object complete(Lookup lookup, Exchange exchange, Function<Object, Object> resultExtractor) {
+        Entry entry = lookup.getEntry();
+        if (exchange.getStatus() == HttpStatus.NOT_MODIFIED.value() && Objects.nonNull(entry)) {
+            long freshness = freshnessMillis(exchange.getHeaders());
+            if (freshness >= 0) {
+                region.put(lookup.getKey(), new Entry(entry.getResult(), entry.getETag(), entry.getLastModified(),
+                        System.currentTimeMillis() + freshness));
+            }
+            return entry.getResult();
+        }
+        Object result = resultExtractor.apply(exchange.getBody());
+        if (exchange.getStatus() == HttpStatus.OK.value() && Objects.nonNull(result)) {
+            store(lookup.getKey(), exchange.getHeaders(), result);
+        }
+        return result;
+    }
+
+    private void store(String key, HttpHeaders headers, Object result) {
+        long freshness = freshnessMillis(headers);
+        if (freshness < 0 || isVaried(headers)) {
+            return;
+        }
+        String eTag = headers.getETag();
+        long lastModified = headers.getLastModified();
+        if (freshness == 0 && Objects.isNull(eTag) && lastModified < 0) {
+            //既不新鲜也无法重新验证
+            return;
+        }
+        region.put(key, new Entry(result, eTag, lastModified, System.currentTimeMillis() + freshness));
+    }
+
+    /**
+     * 计算响应的新鲜时长，优先使用Cache-Control的max-age，其次使用Expires与Date之差，并扣除Age；不可存储时返回-1
+     */
+    private static long freshnessMillis(HttpHeaders headers) {
+        long maxAgeMillis = -1;
+        String cacheControl = headers.getCacheControl();
+        if (StringUtils.isNotBlank(cacheControl)) {
+            for (String directive : StringUtils.split(cacheControl, ',')) {
+                directive = directive.trim().toLowerCase();
+                if (Objects.equals(directive, NO_STORE)) {
+                    return -1;
+                }
+                if (Objects.equals(directive, NO_CACHE)) {
+                    return 0;
+                }
+                if (directive.startsWith(MAX_AGE)) {
+                    maxAgeMillis = TimeUnit.SECONDS.toMillis(parseSeconds(directive.substring(MAX_AGE.length())));
+                }
+            }
+        }
+        if (maxAgeMillis < 0) {
+            long expires = headers.getExpires();
+            if (expires < 0) {
+                return 0;
+            }
+            long date = parseDate(headers);
+            maxAgeMillis = Math.max(0, expires - (date < 0 ? System.currentTimeMillis() : date));
+        }
+        long age = TimeUnit.SECONDS.toMillis(parseSeconds(headers.getFirst(HttpHeaders.AGE)));
+        return Math.max(0, maxAgeMillis - age);
+    }
+
+    private static long parseSeconds(String value) {
+        if (StringUtils.isBlank(value)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(StringUtils.strip(value.trim(), "\"")));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static long parseDate(HttpHeaders headers) {
+        try {
+            return headers.getDate();
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    private static boolean isVaried(HttpHeaders headers) {
+        List<String> varies = headers.getVary();
+        for (String vary : varies) {
+            if (!StringUtils.equalsIgnoreCase(vary, HttpHeaders.ACCEPT_ENCODING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓存查找结果
+     */
+    @Getter
+    static final class Lookup {
+
+        private final String key;
+
+        /**
+         * 缓存，不存在时为null
+         */
+        private final Entry entry;
+
+        private Lookup(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        /**
+         * 是否存在新鲜的缓存
+         */
+        boolean isFresh() {
+            return Objects.nonNull(entry) && System.currentTimeMillis() < entry.getFreshUntil();
+        }
+    }
+
+    @Getter
+    static final class Entry {
+
+        private final Object result;
+
+        private final String eTag;
+
+        /**
+         * 最后修改时间，不存在时为-1
+         */
+        private final long lastModified;
+
+        private final long freshUntil;
+
+        private Entry(Object result, String eTag, long lastModified, long freshUntil) {
+            this.result = result;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.freshUntil = freshUntil;
+        }
+    }
+
+    /**
+     * 已读取的响应，304时响应体为null
+     */
+    @Getter
+    static final class Exchange {
+
+        private final int status;
+
+        private final HttpHeaders headers;
+
+        private final Object body;
+
+        private Exchange(int status, HttpHeaders headers, Object body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
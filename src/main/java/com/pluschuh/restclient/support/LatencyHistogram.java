@@ -0,0 +1,128 @@
+package com.pluschuh.restclient.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图，单位为纳秒，桶的划分方式与HdrHistogram类似：每个2的幂区间再均分为16个子桶，相对误差不超过1/16。
+ * 记录时只有原子计数，不加锁也不创建对象；读取时各计数之间不保证一致，用于监控足够。
+ * 除请求指标外也可单独使用，如压测时记录每次请求的耗时
+ *
+ * @author pluschuh
+ * @see RequestMetrics
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可记录的最大耗时为2^MAX_EXPONENT纳秒（约18分钟），更大的耗时计入最后一个桶
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+    }
+
+    /**
+     * 记录一次耗时，小于0时按0记录
+     *
+     * @param nanos 耗时，单位为纳秒
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+        int subBucket = exponent == MAX_EXPONENT ? SUB_BUCKET_COUNT - 1 : (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶的上界（不包含），即该桶中的耗时均小于该值
+     */
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index + 1;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long currentCount = count.get();
+        return currentCount == 0 ? 0 : (double) totalNanos.get() / currentCount;
+    }
+
+    /**
+     * 分位数耗时，返回所在桶的上界，不超过记录过的最大耗时
+     *
+     * @param percentile 分位数，取值范围为[0, 100]
+     * @return 分位数耗时，单位为纳秒，没有记录时返回0
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() + ", meanMillis=" + toMillis(getMeanNanos()) + ", p50Millis=" + toMillis(getPercentileNanos(50))
+                + ", p99Millis=" + toMillis(getPercentileNanos(99)) + ", maxMillis=" + toMillis(getMaxNanos()) + "}";
+    }
+
+    /**
+     * 纳秒转换为毫秒，保留3位小数
+     */
+    public static double toMillis(double nanos) {
+        return Math.round(nanos / TimeUnit.MICROSECONDS.toNanos(1)) / 1000.0;
+    }
+}
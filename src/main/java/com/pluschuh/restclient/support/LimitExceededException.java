@@ -0,0 +1,31 @@
+package com.pluschuh.restclient.support;
+
+/**
+ * 并发数达到限制（且排队已满或排队超时）时，请求不会发送而是直接抛出该异常
+ *
+ * @author pluschuh
+ * @see ConcurrencyLimiter
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String limiterName;
+
+    LimitExceededException(String limiterName) {
+        super("concurrency limiter " + limiterName + " has reached its limit");
+        this.limiterName = limiterName;
+    }
+
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    /**
+     * 快速失败不需要异常栈
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,468 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientOutlierDetection;
+import com.pluschuh.restclient.enums.LoadBalanceStrategy;
+import com.pluschuh.restclient.spi.HostHealthListener;
+import com.pluschuh.restclient.valueobject.RestClientRequestTemplate;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 客户端负载均衡的域名解析器，@RestClient的host中配置了多个域名时使用，每次请求（包括每次重试与对冲请求）按策略选择一个域名。
+ * 各域名的未完成请求数通过原子计数器统计，不加锁。
+ * 接口类被@RestClientOutlierDetection注解时，连续失败的域名会被摘除一段时间，选择时跳过，所有域名均被摘除时忽略摘除状态
+ *
+ * @author pluschuh
+ * @see LoadBalanceStrategy
+ * @see RestClientOutlierDetection
+ */
+public class LoadBalancingRestClientHostResolver implements RestClientHostResolver, AutoCloseable {
+
+    private static final String HOST_SEPARATOR = ",";
+
+    /**
+     * 失败的请求按不低于该耗时计入EWMA，避免快速失败的host吸引更多请求
+     */
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * EWMA的衰减时间常数
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 未被摘除的域名的ejectedUntilNanos
+     */
+    private static final long NOT_EJECTED = Long.MIN_VALUE;
+
+    /**
+     * 仅用于触发健康检查，检查请求本身通过OkHttp异步发送
+     */
+    private static final ScheduledExecutorService HEALTH_CHECK_TIMER =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("rest-client-health-check-timer-"));
+
+    /**
+     * 所有健康检查共享的OkHttp客户端，各解析器在其基础上设置超时时间，共享连接池与请求分发器
+     */
+    private static final OkHttpClient HEALTH_CHECK_CLIENT = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+
+    private final String host;
+
+    private final Host[] hosts;
+
+    private final LoadBalanceStrategy strategy;
+
+    private final AtomicInteger roundRobinIndex = new AtomicInteger();
+
+    private final String name;
+
+    /**
+     * 摘除所需的连续失败次数，为0时不摘除
+     */
+    private final int consecutiveFailures;
+
+    private final long baseEjectionNanos;
+
+    private final long maxEjectionNanos;
+
+    private final int maxEjectedHosts;
+
+    private final HostHealthListener listener;
+
+    /**
+     * 处于摘除状态（包括摘除到期但尚未恢复）的域名数
+     */
+    private final AtomicInteger ejectedHostCount = new AtomicInteger();
+
+    private final ScheduledFuture<?> healthCheck;
+
+    /**
+     * 构造器，不摘除异常的域名
+     *
+     * @param hosts    域名列表，如 http://10.0.0.1:8080
+     * @param strategy 负载均衡策略
+     */
+    public LoadBalancingRestClientHostResolver(List<String> hosts, LoadBalanceStrategy strategy) {
+        this(LoadBalancingRestClientHostResolver.class.getName(), hosts, strategy, null, null);
+    }
+
+    /**
+     * 构造器
+     *
+     * @param name               名称，一般为REST客户端接口类全名，用于摘除与恢复的通知
+     * @param hosts              域名列表，如 http://10.0.0.1:8080
+     * @param strategy           负载均衡策略
+     * @param outlierDetection   异常域名摘除的配置，为null时不摘除
+     * @param hostHealthListener 摘除与恢复的监听器，outlierDetection不为null时不能为null
+     */
+    public LoadBalancingRestClientHostResolver(String name, List<String> hosts, LoadBalanceStrategy strategy,
+                                               RestClientOutlierDetection outlierDetection, HostHealthListener hostHealthListener) {
+        Assert.notEmpty(hosts, "hosts must not be empty");
+        Assert.notNull(strategy, "strategy must not be null");
+        this.name = name;
+        this.host = String.join(HOST_SEPARATOR, hosts);
+        this.hosts = hosts.stream().map(Host::new).toArray(Host[]::new);
+        this.strategy = strategy;
+        this.listener = hostHealthListener;
+        if (Objects.isNull(outlierDetection)) {
+            this.consecutiveFailures = 0;
+            this.baseEjectionNanos = 0;
+            this.maxEjectionNanos = 0;
+            this.maxEjectedHosts = 0;
+            this.healthCheck = null;
+            return;
+        }
+        Assert.notNull(hostHealthListener, "hostHealthListener must not be null");
+        TimeUnit durationUnit = outlierDetection.durationUnit();
+        this.consecutiveFailures = Math.max(1, outlierDetection.consecutiveFailures());
+        this.baseEjectionNanos = Math.max(1, durationUnit.toNanos(outlierDetection.baseEjectionTime()));
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, durationUnit.toNanos(outlierDetection.maxEjectionTime()));
+        this.maxEjectedHosts = Math.max(1, this.hosts.length * Math.min(100, outlierDetection.maxEjectionPercent()) / 100);
+        this.healthCheck = StringUtils.isBlank(outlierDetection.healthCheckPath()) ? null : scheduleHealthCheck(outlierDetection);
+    }
+
+    /**
+     * 拆分以英文逗号分隔的多个域名，忽略空白
+     */
+    public static List<String> splitHosts(String host) {
+        if (StringUtils.isBlank(host)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(host.split(HOST_SEPARATOR)).map(String::trim).filter(StringUtils::isNotBlank).collect(Collectors.toList());
+    }
+
+    /**
+     * @return 以英文逗号分隔的所有域名，实际请求的域名在appendPath时选择
+     */
+    @Override
+    public String host() {
+        return host;
+    }
+
+    @Override
+    public String appendPath(String path, RestClientRequestTemplate restClientRequestTemplate) {
+        return join(choose().address, path);
+    }
+
+    @Override
+    public void onRequestStart(String url) {
+        Host selected = find(url);
+        if (Objects.nonNull(selected)) {
+            selected.outstanding.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onRequestComplete(String url, long latencyNanos, Throwable throwable) {
+        Host selected = find(url);
+        if (Objects.isNull(selected)) {
+            return;
+        }
+        selected.outstanding.decrementAndGet();
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        if (strategy == LoadBalanceStrategy.PEAK_EWMA) {
+            selected.observe(Objects.isNull(cause) ? latencyNanos : Math.max(latencyNanos, FAILURE_PENALTY_NANOS));
+        }
+        if (consecutiveFailures > 0) {
+            //4xx响应说明域名可用，响应反序列化失败等与域名无关的异常不计入
+            if (Objects.isNull(cause) || cause instanceof RestClientResponseException && ((RestClientResponseException) cause).getRawStatusCode() < 500) {
+                onSuccess(selected, false);
+            } else if (cause instanceof ResourceAccessException || cause instanceof RestClientResponseException) {
+                onFailure(selected, cause);
+            }
+        }
+    }
+
+    /**
+     * 停止主动健康检查
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(healthCheck)) {
+            healthCheck.cancel(false);
+        }
+    }
+
+    /**
+     * @return 处于摘除状态的域名，包括摘除到期但尚未恢复的域名
+     */
+    public List<String> getEjectedHosts() {
+        return Arrays.stream(hosts).filter(Host::isEjected).map(candidate -> candidate.address).collect(Collectors.toList());
+    }
+
+    private Host choose() {
+        if (hosts.length == 1) {
+            return hosts[0];
+        }
+        if (ejectedHostCount.get() == 0) {
+            return choose(hosts);
+        }
+        long now = System.nanoTime();
+        Host[] available = Arrays.stream(hosts).filter(candidate -> candidate.isAvailable(now)).toArray(Host[]::new);
+        return choose(available.length == 0 ? hosts : available);
+    }
+
+    private Host choose(Host[] candidates) {
+        int size = candidates.length;
+        if (size == 1) {
+            return candidates[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (strategy) {
+            case RANDOM:
+                return candidates[random.nextInt(size)];
+            case LEAST_OUTSTANDING:
+                //从随机位置开始查找，避免未完成请求数相同时总是选择第一个
+                int offset = random.nextInt(size);
+                Host least = candidates[offset];
+                for (int i = 1; i < size; i++) {
+                    Host candidate = candidates[(offset + i) % size];
+                    if (candidate.outstanding.get() < least.outstanding.get()) {
+                        least = candidate;
+                    }
+                }
+                return least;
+            case PEAK_EWMA:
+                int first = random.nextInt(size);
+                int second = random.nextInt(size - 1);
+                if (second >= first) {
+                    second++;
+                }
+                return candidates[first].cost() <= candidates[second].cost() ? candidates[first] : candidates[second];
+            default:
+                return candidates[Math.floorMod(roundRobinIndex.getAndIncrement(), size)];
+        }
+    }
+
+    /**
+     * 请求或健康检查成功，摘除到期后的成功视为恢复，健康检查成功时即使尚未到期也立即恢复
+     */
+    private void onSuccess(Host selected, boolean force) {
+        if (selected.failures.get() != 0) {
+            selected.failures.set(0);
+        }
+        long ejectedUntil = selected.ejectedUntilNanos.get();
+        if (ejectedUntil == NOT_EJECTED || !force && System.nanoTime() - ejectedUntil < 0) {
+            return;
+        }
+        if (selected.ejectedUntilNanos.compareAndSet(ejectedUntil, NOT_EJECTED)) {
+            selected.ejectionCount = 0;
+            ejectedHostCount.decrementAndGet();
+            listener.onRecovered(name, selected.address);
+        }
+    }
+
+    /**
+     * 请求或健康检查失败，连续失败达到阈值时摘除；摘除到期后失败时立即再次摘除，并且摘除时长翻倍；
+     * 摘除期间完成的请求（摘除前发出）不计入
+     */
+    private void onFailure(Host selected, Throwable cause) {
+        long now = System.nanoTime();
+        long ejectedUntil = selected.ejectedUntilNanos.get();
+        if (ejectedUntil != NOT_EJECTED) {
+            if (now - ejectedUntil >= 0) {
+                long ejectionNanos = ejectionNanos(selected.ejectionCount + 1);
+                if (selected.ejectedUntilNanos.compareAndSet(ejectedUntil, now + ejectionNanos)) {
+                    selected.ejectionCount++;
+                    listener.onEjected(name, selected.address, TimeUnit.NANOSECONDS.toMillis(ejectionNanos), cause);
+                }
+            }
+            return;
+        }
+        if (selected.failures.incrementAndGet() < consecutiveFailures || !tryAcquireEjection()) {
+            return;
+        }
+        if (selected.ejectedUntilNanos.compareAndSet(NOT_EJECTED, now + baseEjectionNanos)) {
+            selected.ejectionCount = 1;
+            selected.failures.set(0);
+            listener.onEjected(name, selected.address, TimeUnit.NANOSECONDS.toMillis(baseEjectionNanos), cause);
+        } else {
+            ejectedHostCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * 同时被摘除的域名数未达到上限时占用一个名额
+     */
+    private boolean tryAcquireEjection() {
+        while (true) {
+            int count = ejectedHostCount.get();
+            if (count >= maxEjectedHosts) {
+                return false;
+            }
+            if (ejectedHostCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private long ejectionNanos(int ejectionCount) {
+        long ejectionNanos = baseEjectionNanos;
+        for (int i = 1; i < ejectionCount && ejectionNanos < maxEjectionNanos; i++) {
+            ejectionNanos *= 2;
+        }
+        return Math.min(ejectionNanos, maxEjectionNanos);
+    }
+
+    private ScheduledFuture<?> scheduleHealthCheck(RestClientOutlierDetection outlierDetection) {
+        TimeUnit durationUnit = outlierDetection.durationUnit();
+        OkHttpClient client = HEALTH_CHECK_CLIENT.newBuilder().callTimeout(outlierDetection.healthCheckTimeout(), durationUnit).build();
+        //启动时构造好所有健康检查请求，域名格式错误时尽早失败
+        Request[] requests = Arrays.stream(hosts)
+                .map(candidate -> new Request.Builder().url(join(candidate.address, outlierDetection.healthCheckPath())).get().build())
+                .toArray(Request[]::new);
+        long intervalNanos = Math.max(1, durationUnit.toNanos(outlierDetection.healthCheckInterval()));
+        return HEALTH_CHECK_TIMER.scheduleWithFixedDelay(() -> {
+            for (int i = 0; i < hosts.length; i++) {
+                checkHealth(client, requests[i], hosts[i]);
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void checkHealth(OkHttpClient client, Request request, Host selected) {
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                LoadBalancingRestClientHostResolver.this.onFailure(selected,
+                        new ResourceAccessException("I/O error on health check for \"" + request.url() + "\": " + e.getMessage(), e));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try (Response closeable = response) {
+                    if (closeable.isSuccessful()) {
+                        onSuccess(selected, true);
+                    } else {
+                        LoadBalancingRestClientHostResolver.this.onFailure(selected, new RestClientResponseException("health check for \""
+                                + request.url() + "\" failed", closeable.code(), closeable.message(), null, null, null));
+                    }
+                }
+            }
+        });
+    }
+
+    private static String join(String address, String path) {
+        if (!StringUtils.endsWith(address, pathSeparate) && !StringUtils.startsWith(path, pathSeparate)) {
+            return address + pathSeparate + path;
+        }
+        return address + path;
+    }
+
+    /**
+     * 根据url查找对应的域名，url需要以域名开头，且域名之后为路径、请求参数或结束
+     */
+    private Host find(String url) {
+        for (Host candidate : hosts) {
+            String address = candidate.address;
+            if (StringUtils.startsWith(url, address) && (url.length() == address.length() || StringUtils.endsWith(address, pathSeparate)
+                    || "/?#".indexOf(url.charAt(address.length())) >= 0)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancingRestClientHostResolver{strategy=" + strategy + ", hosts=" + Arrays.toString(hosts) + "}";
+    }
+
+    /**
+     * 一个域名及其统计数据
+     */
+    private static final class Host {
+
+        private final String address;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        /**
+         * 峰值EWMA耗时，单位为纳秒，并发更新时可能丢失个别样本，不影响选择
+         */
+        private volatile double ewmaNanos;
+
+        private volatile long lastObservedNanos = System.nanoTime();
+
+        /**
+         * 连续失败次数
+         */
+        private final AtomicInteger failures = new AtomicInteger();
+
+        /**
+         * 摘除的到期时间，未被摘除时为NOT_EJECTED，摘除到期后保持不变直到恢复
+         */
+        private final AtomicLong ejectedUntilNanos = new AtomicLong(NOT_EJECTED);
+
+        /**
+         * 恢复前的连续摘除次数，仅由成功修改ejectedUntilNanos的线程更新
+         */
+        private volatile int ejectionCount;
+
+        Host(String address) {
+            this.address = address;
+        }
+
+        /**
+         * 耗时高于当前值时直接取该耗时（峰值），否则按距离上次更新的时间指数衰减
+         */
+        void observe(long latencyNanos) {
+            long now = System.nanoTime();
+            double ewma = ewmaNanos;
+            if (latencyNanos > ewma) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-Math.max(0, now - lastObservedNanos) / DECAY_NANOS);
+                ewmaNanos = ewma * weight + latencyNanos * (1 - weight);
+            }
+            lastObservedNanos = now;
+        }
+
+        boolean isEjected() {
+            return ejectedUntilNanos.get() != NOT_EJECTED;
+        }
+
+        boolean isAvailable(long now) {
+            long ejectedUntil = ejectedUntilNanos.get();
+            return ejectedUntil == NOT_EJECTED || now - ejectedUntil >= 0;
+        }
+
+        /**
+         * 没有耗时数据但存在未完成请求时，以惩罚值加未完成请求数作为代价
+         */
+        double cost() {
+            double ewma = ewmaNanos;
+            int pending = outstanding.get();
+            if (ewma == 0 && pending > 0) {
+                return FAILURE_PENALTY_NANOS + pending;
+            }
+            return ewma * (pending + 1);
+        }
+
+        @Override
+        public String toString() {
+            return address + "{outstanding=" + outstanding.get() + ", ewmaMillis=" + TimeUnit.NANOSECONDS.toMillis((long) ewmaNanos)
+                    + ", ejected=" + isEjected() + "}";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.pluschuh.restclient.support;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.NonNull;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于OkHttp的非阻塞请求执行器，仅供返回值为CompletableFuture的方法使用。
+ * 请求的组装（uri模板处理、请求头、请求体消息转换）与响应的错误处理均复用restTemplate中的配置，
+ * 与同步调用保持一致；请求通过OkHttpClient.newCall(...).enqueue发送，调用线程不会被阻塞
+ *
+ * @author pluschuh
+ */
+class OkHttpAsyncRequestExecutor {
+
+    private final OkHttpClient okHttpClient;
+
+    private final RestTemplate restTemplate;
+
+    OkHttpAsyncRequestExecutor(@Nonnull OkHttpClient okHttpClient, @Nonnull RestTemplate restTemplate) {
+        this.okHttpClient = okHttpClient;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * 发送请求
+     *
+     * @param url             完整的请求路径，会经过restTemplate的uri模板处理器处理
+     * @param method          请求方式
+     * @param requestCallback 请求回调，一般为restTemplate.httpEntityCallback
+     * @param phaseTimings    请求各阶段的耗时，未启用时为null
+     * @param responseHandler 响应处理器，在OkHttp的回调线程中执行，执行完毕后响应会被关闭
+     * @param <T>             响应处理结果的类型
+     * @return 响应处理结果，取消该future时会同时取消底层的http调用
+     */
+    <T> CompletableFuture<T> execute(String url, HttpMethod method, RequestCallback requestCallback, RequestPhaseTimings phaseTimings,
+                                  ResponseHandler<T> responseHandler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call;
+        try {
+            URI uri = restTemplate.getUriTemplateHandler().expand(url);
+            OkHttpStreamingClientHttpRequest request = new OkHttpStreamingClientHttpRequest(okHttpClient, method, uri);
+            requestCallback.doWithRequest(request);
+            call = okHttpClient.newCall(request.toOkHttpRequest(request.getHeaders(), phaseTimings));
+        } catch (Throwable ex) {
+            future.completeExceptionally(notWritableOr(ex, ex));
+            return future;
+        }
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                //与RestTemplate保持一致，将IO异常包装为ResourceAccessException，请求体序列化失败除外
+                future.completeExceptionally(notWritableOr(e, new ResourceAccessException("I/O error on " + method.name() +
+                        " request for \"" + call.request().url() + "\": " + e.getMessage(), e)));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try (OkHttpClientHttpResponse clientHttpResponse = new OkHttpClientHttpResponse(response)) {
+                    ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+                    future.complete(responseHandler.handle(call.request().url().uri(), clientHttpResponse, errorHandler));
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 请求体序列化失败时返回对应的HttpMessageNotWritableException，否则返回otherwise
+     */
+    private static Throwable notWritableOr(Throwable throwable, Throwable otherwise) {
+        HttpMessageNotWritableException notWritable = BodyNotWritableException.translate(throwable);
+        return Objects.isNull(notWritable) ? otherwise : notWritable;
+    }
+
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+
+        /**
+         * 处理响应，与RestTemplate一致，应当先使用errorHandler检查错误，再提取响应体
+         *
+         * @param uri          实际的请求uri
+         * @param response     响应
+         * @param errorHandler restTemplate的响应错误处理器
+         * @return 处理结果
+         * @throws Exception 任何可能的异常
+         */
+        T handle(URI uri, ClientHttpResponse response, ResponseErrorHandler errorHandler) throws Exception;
+    }
+}
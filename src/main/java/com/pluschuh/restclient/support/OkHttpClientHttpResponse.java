@@ -0,0 +1,72 @@
+package com.pluschuh.restclient.support;
+
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * OkHttp响应的ClientHttpResponse适配
+ *
+ * @author pluschuh
+ */
+class OkHttpClientHttpResponse implements ClientHttpResponse {
+
+    private final Response response;
+
+    private HttpHeaders headers;
+
+    OkHttpClientHttpResponse(Response response) {
+        this.response = response;
+    }
+
+    @Nonnull
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.valueOf(response.code());
+    }
+
+    @Override
+    public int getRawStatusCode() {
+        return response.code();
+    }
+
+    @Nonnull
+    @Override
+    public String getStatusText() {
+        return response.message();
+    }
+
+    @Nonnull
+    @Override
+    public HttpHeaders getHeaders() {
+        if (Objects.isNull(headers)) {
+            HttpHeaders httpHeaders = new HttpHeaders();
+            for (String headerName : response.headers().names()) {
+                for (String headerValue : response.headers(headerName)) {
+                    httpHeaders.add(headerName, headerValue);
+                }
+            }
+            headers = httpHeaders;
+        }
+        return headers;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getBody() {
+        ResponseBody body = response.body();
+        return Objects.isNull(body) ? new Buffer().inputStream() : body.byteStream();
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.enums.HttpProtocolType;
+import com.pluschuh.restclient.spi.ConfigOfDefaultRT;
+import lombok.Data;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp客户端注册表，按ConfigOfDefaultRT中的配置共享OkHttp客户端。
+ * 配置完全相同时返回同一个客户端；否则连接池配置相同的客户端共享同一个连接池，
+ * 请求分发配置相同的客户端共享同一个请求分发器，以便不同的REST客户端接口复用到同一host的连接
+ *
+ * @author pluschuh
+ */
+public final class OkHttpClientRegistry {
+
+    private static final Map<ClientKey, OkHttpClient> clients = new ConcurrentHashMap<>();
+
+    private static final Map<PoolKey, ConnectionPool> connectionPools = new ConcurrentHashMap<>();
+
+    private static final Map<DispatcherKey, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    private OkHttpClientRegistry() {
+    }
+
+    /**
+     * 获取与配置对应的共享OkHttp客户端
+     *
+     * @param configOfDefaultRT 默认的restTemplate的配置
+     * @return 共享的OkHttp客户端，调用方不应关闭其连接池或请求分发器
+     */
+    public static OkHttpClient obtain(@Nonnull ConfigOfDefaultRT configOfDefaultRT) {
+        return clients.computeIfAbsent(ClientKey.of(configOfDefaultRT), OkHttpClientRegistry::createClient);
+    }
+
+    private static OkHttpClient createClient(ClientKey clientKey) {
+        PoolKey poolKey = clientKey.getPoolKey();
+        DispatcherKey dispatcherKey = clientKey.getDispatcherKey();
+        ConnectionPool connectionPool = connectionPools.computeIfAbsent(poolKey,
+                key -> new ConnectionPool(key.getMaxIdleConnections(), key.getKeepAliveMillis(), TimeUnit.MILLISECONDS));
+        Dispatcher dispatcher = dispatchers.computeIfAbsent(dispatcherKey, key -> {
+            Dispatcher newDispatcher = new Dispatcher();
+            newDispatcher.setMaxRequests(key.getMaxRequests());
+            newDispatcher.setMaxRequestsPerHost(key.getMaxRequestsPerHost());
+            return newDispatcher;
+        });
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .readTimeout(clientKey.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .connectTimeout(clientKey.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .protocols(toProtocols(clientKey.getProtocol()));
+        if (clientKey.isPhaseTimingEnabled()) {
+            builder.eventListenerFactory(PhaseTimingEventListener.FACTORY);
+        }
+        return builder.build();
+    }
+
+    private static List<Protocol> toProtocols(HttpProtocolType protocol) {
+        switch (protocol) {
+            case HTTP_1_1:
+                return Collections.singletonList(Protocol.HTTP_1_1);
+            case H2C_PRIOR_KNOWLEDGE:
+                //OkHttp要求H2_PRIOR_KNOWLEDGE必须单独使用
+                return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            case HTTP_2:
+            default:
+                return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        }
+    }
+
+    @Data
+    private static class ClientKey {
+        private final long readTimeoutMillis;
+        private final long connectTimeoutMillis;
+        private final HttpProtocolType protocol;
+        private final PoolKey poolKey;
+        private final DispatcherKey dispatcherKey;
+        private final boolean phaseTimingEnabled;
+
+        private static ClientKey of(ConfigOfDefaultRT configOfDefaultRT) {
+            return new ClientKey(configOfDefaultRT.readTimeOutUnit().toMillis(configOfDefaultRT.readTimeOut()),
+                    configOfDefaultRT.connectTimeoutUnit().toMillis(configOfDefaultRT.connectTimeout()),
+                    Objects.isNull(configOfDefaultRT.protocol()) ? HttpProtocolType.HTTP_2 : configOfDefaultRT.protocol(),
+                    new PoolKey(configOfDefaultRT.maxIdleConnections(),
+                            configOfDefaultRT.keepAliveDurationUnit().toMillis(configOfDefaultRT.keepAliveDuration())),
+                    new DispatcherKey(configOfDefaultRT.maxRequests(), configOfDefaultRT.maxRequestsPerHost()),
+                    configOfDefaultRT.phaseTimingEnabled());
+        }
+    }
+
+    @Data
+    private static class PoolKey {
+        private final int maxIdleConnections;
+        private final long keepAliveMillis;
+    }
+
+    @Data
+    private static class DispatcherKey {
+        private final int maxRequests;
+        private final int maxRequestsPerHost;
+    }
+}
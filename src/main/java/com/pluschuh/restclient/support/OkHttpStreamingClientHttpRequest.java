@@ -0,0 +1,187 @@
+package com.pluschuh.restclient.support;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 支持流式请求体的OkHttp请求。
+ * 通过getBody写入的请求体会缓冲在内存中；通过setBody设置的流式请求体在OkHttp写请求时才会写入连接，
+ * 此时如果请求头中没有Content-Length则使用chunked传输
+ *
+ * @author pluschuh
+ */
+class OkHttpStreamingClientHttpRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
+
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
+    private final OkHttpClient okHttpClient;
+
+    private final HttpMethod method;
+
+    private final URI uri;
+
+    private Buffer bufferedBody;
+
+    private Body streamingBody;
+
+    OkHttpStreamingClientHttpRequest(@Nonnull OkHttpClient okHttpClient, @Nonnull HttpMethod method, @Nonnull URI uri) {
+        this.okHttpClient = okHttpClient;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    @Nonnull
+    @Override
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    @Nonnull
+    @Override
+    public String getMethodValue() {
+        return method.name();
+    }
+
+    @Nonnull
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public void setBody(@Nonnull Body body) {
+        assertNotExecuted();
+        this.streamingBody = body;
+    }
+
+    @Nonnull
+    @Override
+    protected OutputStream getBodyInternal(@Nonnull HttpHeaders headers) {
+        if (Objects.isNull(bufferedBody)) {
+            bufferedBody = new Buffer();
+        }
+        return bufferedBody.outputStream();
+    }
+
+    @Nonnull
+    @Override
+    protected ClientHttpResponse executeInternal(@Nonnull HttpHeaders headers) throws IOException {
+        try {
+            return new OkHttpClientHttpResponse(okHttpClient.newCall(toOkHttpRequest(headers, currentPhaseTimings())).execute());
+        } catch (IOException ex) {
+            BodyNotWritableException.throwIfPresent(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * 同步请求在调用线程中发送，从当前请求上下文中获取，仅当OkHttp客户端安装了记录阶段耗时的EventListener时获取
+     */
+    private RequestPhaseTimings currentPhaseTimings() {
+        if (okHttpClient.eventListenerFactory() != PhaseTimingEventListener.FACTORY) {
+            return null;
+        }
+        RestClientRequestContext restClientRequestContext = SimpleRestClient.CURRENT_REQUEST_CONTEXT.get();
+        return Objects.isNull(restClientRequestContext) ? null : restClientRequestContext.getPhaseTimings();
+    }
+
+    /**
+     * 构造OkHttp请求，请求头的处理方式与spring的OkHttp3ClientHttpRequest保持一致
+     *
+     * @param phaseTimings 请求各阶段的耗时，不为null时作为tag传递给EventListener
+     */
+    Request toOkHttpRequest(HttpHeaders headers, RequestPhaseTimings phaseTimings) throws IOException {
+        String contentTypeValue = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        MediaType contentType = Objects.isNull(contentTypeValue) ? null : MediaType.parse(contentTypeValue);
+        RequestBody requestBody;
+        if (Objects.nonNull(streamingBody)) {
+            requestBody = new StreamingRequestBody(streamingBody, contentType, headers.getContentLength());
+        } else {
+            byte[] content = Objects.isNull(bufferedBody) || bufferedBody.size() == 0 ? EMPTY_CONTENT : bufferedBody.readByteArray();
+            requestBody = content.length > 0 || okhttp3.internal.http.HttpMethod.requiresRequestBody(method.name())
+                    ? RequestBody.create(content, contentType) : null;
+        }
+        Request.Builder builder = new Request.Builder().url(uri.toURL()).method(method.name(), requestBody);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String headerValue : header.getValue()) {
+                builder.addHeader(header.getKey(), headerValue);
+            }
+        }
+        if (Objects.nonNull(phaseTimings)) {
+            builder.tag(RequestPhaseTimings.class, phaseTimings);
+        }
+        return builder.build();
+    }
+
+    private static class StreamingRequestBody extends RequestBody {
+
+        private final Body body;
+
+        private final MediaType contentType;
+
+        private final long contentLength;
+
+        private StreamingRequestBody(Body body, MediaType contentType, long contentLength) {
+            this.body = body;
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public void writeTo(@Nonnull BufferedSink sink) throws IOException {
+            body.writeTo(new DeferredFlushOutputStream(sink));
+        }
+    }
+
+    /**
+     * 写入请求体的输出流，写满的段会及时发出，但忽略flush与close，由OkHttp在请求体写完后统一flush。
+     * 若写入方（如Jackson）写完后主动flush，分块请求体的结束标记会单独成包，与Nagle算法及服务端的延迟确认叠加出约40ms的额外耗时
+     */
+    private static class DeferredFlushOutputStream extends OutputStream {
+
+        private final BufferedSink sink;
+
+        private DeferredFlushOutputStream(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            sink.writeByte(b);
+            sink.emitCompleteSegments();
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            sink.write(b, off, len);
+            sink.emitCompleteSegments();
+        }
+    }
+}
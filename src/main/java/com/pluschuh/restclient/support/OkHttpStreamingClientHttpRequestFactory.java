@@ -0,0 +1,31 @@
+package com.pluschuh.restclient.support;
+
+import okhttp3.OkHttpClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+
+/**
+ * 基于OkHttp的请求工厂，与spring的OkHttp3ClientHttpRequestFactory不同的是，
+ * 创建的请求支持流式请求体（StreamingHttpOutputMessage），流式请求体会在OkHttp发送请求时直接写入连接，不会在内存中缓冲。
+ * OkHttp客户端一般由OkHttpClientRegistry共享，故该工厂不负责关闭客户端
+ *
+ * @author pluschuh
+ */
+public class OkHttpStreamingClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final OkHttpClient okHttpClient;
+
+    public OkHttpStreamingClientHttpRequestFactory(@Nonnull OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    @Nonnull
+    @Override
+    public ClientHttpRequest createRequest(@Nonnull URI uri, @Nonnull HttpMethod httpMethod) {
+        return new OkHttpStreamingClientHttpRequest(okHttpClient, httpMethod, uri);
+    }
+}
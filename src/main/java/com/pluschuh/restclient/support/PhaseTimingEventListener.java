@@ -0,0 +1,120 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.enums.RequestPhase;
+import okhttp3.*;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 将OkHttp调用的各个事件记录到请求的RequestPhaseTimings中，RequestPhaseTimings通过OkHttp请求的tag传递，
+ * 没有该tag的调用（如健康检查）使用EventListener.NONE
+ *
+ * @author pluschuh
+ */
+final class PhaseTimingEventListener extends EventListener {
+
+    static final EventListener.Factory FACTORY = call -> {
+        RequestPhaseTimings phaseTimings = call.request().tag(RequestPhaseTimings.class);
+        return Objects.isNull(phaseTimings) ? EventListener.NONE : new PhaseTimingEventListener(phaseTimings);
+    };
+
+    private final RequestPhaseTimings phaseTimings;
+
+    private PhaseTimingEventListener(RequestPhaseTimings phaseTimings) {
+        this.phaseTimings = phaseTimings;
+    }
+
+    @Override
+    public void callStart(@Nonnull Call call) {
+        phaseTimings.start(RequestPhase.CALL);
+        phaseTimings.start(RequestPhase.CONNECTION_ACQUIRE);
+    }
+
+    @Override
+    public void dnsStart(@Nonnull Call call, @Nonnull String domainName) {
+        phaseTimings.start(RequestPhase.DNS);
+    }
+
+    @Override
+    public void dnsEnd(@Nonnull Call call, @Nonnull String domainName, @Nonnull List<InetAddress> inetAddressList) {
+        phaseTimings.end(RequestPhase.DNS);
+    }
+
+    @Override
+    public void connectStart(@Nonnull Call call, @Nonnull InetSocketAddress inetSocketAddress, @Nonnull Proxy proxy) {
+        phaseTimings.start(RequestPhase.CONNECT);
+    }
+
+    @Override
+    public void secureConnectStart(@Nonnull Call call) {
+        phaseTimings.start(RequestPhase.TLS);
+    }
+
+    @Override
+    public void secureConnectEnd(@Nonnull Call call, Handshake handshake) {
+        phaseTimings.end(RequestPhase.TLS);
+    }
+
+    @Override
+    public void connectEnd(@Nonnull Call call, @Nonnull InetSocketAddress inetSocketAddress, @Nonnull Proxy proxy, Protocol protocol) {
+        phaseTimings.end(RequestPhase.CONNECT);
+    }
+
+    @Override
+    public void connectFailed(@Nonnull Call call, @Nonnull InetSocketAddress inetSocketAddress, @Nonnull Proxy proxy, Protocol protocol,
+                              @Nonnull IOException ioe) {
+        phaseTimings.end(RequestPhase.CONNECT);
+    }
+
+    @Override
+    public void connectionAcquired(@Nonnull Call call, @Nonnull Connection connection) {
+        phaseTimings.end(RequestPhase.CONNECTION_ACQUIRE);
+    }
+
+    @Override
+    public void requestHeadersStart(@Nonnull Call call) {
+        phaseTimings.start(RequestPhase.SEND_REQUEST);
+        phaseTimings.start(RequestPhase.TTFB);
+    }
+
+    @Override
+    public void requestHeadersEnd(@Nonnull Call call, @Nonnull Request request) {
+        phaseTimings.end(RequestPhase.SEND_REQUEST);
+    }
+
+    @Override
+    public void requestBodyEnd(@Nonnull Call call, long byteCount) {
+        phaseTimings.end(RequestPhase.SEND_REQUEST);
+    }
+
+    @Override
+    public void responseHeadersStart(@Nonnull Call call) {
+        phaseTimings.end(RequestPhase.TTFB);
+    }
+
+    @Override
+    public void responseBodyStart(@Nonnull Call call) {
+        phaseTimings.start(RequestPhase.RESPONSE_BODY);
+    }
+
+    @Override
+    public void responseBodyEnd(@Nonnull Call call, long byteCount) {
+        phaseTimings.end(RequestPhase.RESPONSE_BODY);
+    }
+
+    @Override
+    public void callEnd(@Nonnull Call call) {
+        phaseTimings.end(RequestPhase.CALL);
+    }
+
+    @Override
+    public void callFailed(@Nonnull Call call, @Nonnull IOException ioe) {
+        phaseTimings.end(RequestPhase.CALL);
+    }
+}
@@ -0,0 +1,103 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 按请求计划预先构建的响应提取器。
+ * 当restTemplate对application/json响应选用的消息转换器为MappingJackson2HttpMessageConverter时，
+ * 会预先解析好Jackson的JavaType与ObjectReader，响应时直接读取；其余情况交由预先构建的HttpMessageConverterExtractor处理
+ *
+ * @author pluschuh
+ */
+class PlannedResponseExtractor implements ResponseExtractor<Object> {
+
+    private final Type responseType;
+
+    /**
+     * 预先解析好的ObjectReader，为null时表示不走快速路径
+     */
+    private final ObjectReader objectReader;
+
+    private final HttpMessageConverterExtractor<Object> delegate;
+
+    PlannedResponseExtractor(@Nonnull Type responseType, @Nonnull RestTemplate restTemplate) {
+        List<HttpMessageConverter<?>> messageConverters = restTemplate.getMessageConverters();
+        this.responseType = responseType;
+        this.delegate = new HttpMessageConverterExtractor<>(responseType, messageConverters);
+        this.objectReader = findObjectReader(responseType, messageConverters);
+    }
+
+    /**
+     * 与HttpMessageConverterExtractor保持一致的方式查找第一个能读取application/json的转换器，
+     * 仅当该转换器为MappingJackson2HttpMessageConverter时才返回ObjectReader
+     */
+    private static ObjectReader findObjectReader(Type responseType, List<HttpMessageConverter<?>> messageConverters) {
+        Class<?> responseClass = responseType instanceof Class ? (Class<?>) responseType : null;
+        for (HttpMessageConverter<?> messageConverter : messageConverters) {
+            boolean canRead;
+            if (messageConverter instanceof GenericHttpMessageConverter) {
+                canRead = ((GenericHttpMessageConverter<?>) messageConverter).canRead(responseType, null, MediaType.APPLICATION_JSON);
+            } else {
+                canRead = Objects.nonNull(responseClass) && messageConverter.canRead(responseClass, MediaType.APPLICATION_JSON);
+            }
+            if (canRead) {
+                if (messageConverter instanceof MappingJackson2HttpMessageConverter) {
+                    ObjectMapper objectMapper = ((MappingJackson2HttpMessageConverter) messageConverter).getObjectMapper();
+                    return objectMapper.readerFor(objectMapper.getTypeFactory().constructType(responseType));
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object extractData(@Nonnull ClientHttpResponse response) throws IOException {
+        if (Objects.isNull(objectReader) || !isUtf8Json(response.getHeaders().getContentType())) {
+            return delegate.extractData(response);
+        }
+        int rawStatusCode = response.getRawStatusCode();
+        if (rawStatusCode < 200 || rawStatusCode == HttpStatus.NO_CONTENT.value() || rawStatusCode == HttpStatus.NOT_MODIFIED.value()
+                || response.getHeaders().getContentLength() == 0) {
+            return null;
+        }
+        try (JsonParser parser = objectReader.createParser(response.getBody())) {
+            //空响应体
+            if (Objects.isNull(parser.nextToken())) {
+                return null;
+            }
+            return objectReader.readValue(parser);
+        } catch (IOException ex) {
+            throw new RestClientException("Error while extracting response for type [" + responseType + "] and content type [" +
+                    response.getHeaders().getContentType() + "]", ex);
+        }
+    }
+
+    private static boolean isUtf8Json(MediaType contentType) {
+        if (Objects.isNull(contentType) || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType) || contentType.isWildcardSubtype()) {
+            return false;
+        }
+        Charset charset = contentType.getCharset();
+        return Objects.isNull(charset) || Objects.equals(charset, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.pluschuh.restclient.support;
+
+import java.util.function.Supplier;
+
+/**
+ * 响应式请求执行器，仅供返回值为Mono或Flux的方法使用。
+ * 该接口中不引用任何reactor相关的类型，以保证在未引入spring-webflux时SimpleRestClient仍可正常加载
+ *
+ * @author pluschuh
+ */
+interface ReactiveRequestExecutor {
+
+    /**
+     * 构造响应式的请求，请求在订阅时才会被组装与发送
+     *
+     * @param requestPlan     请求计划
+     * @param requestPreparer 组装请求，会在订阅时调用，调用后当前请求上下文会被设置到当前线程
+     * @param resultExtractor 从响应体中获取最终返回数据
+     * @param requestObserver 每次订阅时调用一次，得到观察该次请求的RequestObserver
+     * @return 与方法返回值类型一致的Mono或Flux
+     */
+    Object execute(RestClientRequestPlan requestPlan, Supplier<SimpleRestClient.PreparedRequest> requestPreparer,
+                   ResultExtractor resultExtractor, Supplier<RequestObserver> requestObserver);
+
+    /**
+     * 观察一次订阅对应的请求，用于记录请求指标、回调请求生命周期监听器与记录日志
+     */
+    interface RequestObserver {
+
+        /**
+         * 请求已组装完毕，即将发送
+         *
+         * @param preparedRequest 已组装好的请求
+         */
+        void onRequestBuilt(SimpleRestClient.PreparedRequest preparedRequest);
+
+        /**
+         * 请求结束，在成功、失败或被取消时回调，多次回调时只有第一次有效
+         *
+         * @param result    Mono的结果，可能为null，Flux时总是为null
+         * @param throwable 成功时为null，被取消时为CancellationException
+         */
+        void onFinish(Object result, Throwable throwable);
+    }
+
+    @FunctionalInterface
+    interface ResultExtractor {
+
+        /**
+         * 从响应体中获取最终的返回数据
+         *
+         * @param body                     响应体，使用响应模板时为响应模板对象
+         * @param restClientRequestContext 当前请求上下文
+         * @return 最终的返回数据，可能为null
+         */
+        Object extract(Object body, RestClientRequestContext restClientRequestContext);
+    }
+}
@@ -0,0 +1,247 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientCollapser;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 请求合并器，每个被@RestClientCollapser注解的方法一个。
+ * 窗口内提交的key被收集到同一个批次中，窗口结束或key的个数达到上限时调用批量方法，再按key完成各个调用方的CompletableFuture。
+ * 非阻塞的批量调用直接在提交key或计时器的线程中发起；阻塞的批量调用交由有界的线程池执行，线程池已满时该批次的调用方以RejectedExecutionException失败
+ *
+ * @author pluschuh
+ * @see RestClientCollapser
+ */
+final class RequestCollapser {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("rest-client-collapser-timer-"));
+
+    /**
+     * 执行阻塞的批量调用的线程数上限
+     */
+    private static final int MAX_BLOCKING_THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * 等待执行的阻塞批量调用的个数上限
+     */
+    private static final int MAX_PENDING_BATCHES = 1024;
+
+    private static final ExecutorService EXECUTOR = newBlockingExecutor();
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final String keyProperty;
+
+    /**
+     * 批量调用，参数为去重后的key列表，返回值为批量方法的返回值
+     */
+    private final Function<List<Object>, Object> batchCall;
+
+    /**
+     * 批量调用是否为非阻塞的，即返回CompletableFuture且不等待响应
+     */
+    private final boolean nonBlocking;
+
+    private final Map<Class<?>, Method> keyReadMethods = new ConcurrentHashMap<>();
+
+    /**
+     * 当前正在收集key的批次，受this锁保护
+     */
+    private Batch currentBatch;
+
+    /**
+     * @param batchCall   批量调用
+     * @param nonBlocking 批量调用是否为非阻塞的，为false时在有界的线程池中执行
+     */
+    RequestCollapser(RestClientCollapser restClientCollapser, Function<List<Object>, Object> batchCall, boolean nonBlocking) {
+        this.windowNanos = restClientCollapser.windowUnit().toNanos(restClientCollapser.window());
+        this.maxBatchSize = Math.max(1, restClientCollapser.maxBatchSize());
+        this.keyProperty = restClientCollapser.keyProperty();
+        this.batchCall = batchCall;
+        this.nonBlocking = nonBlocking;
+    }
+
+    private static ExecutorService newBlockingExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_BLOCKING_THREADS, MAX_BLOCKING_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING_BATCHES), new DaemonThreadFactory("rest-client-collapser-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 提交一个key
+     *
+     * @param key 单个调用的参数
+     * @return 该key对应的结果
+     */
+    CompletableFuture<Object> submit(Object key) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Batch fullBatch = null;
+        synchronized (this) {
+            if (Objects.isNull(currentBatch)) {
+                Batch batch = new Batch();
+                currentBatch = batch;
+                TIMER.schedule(() -> flushIfCurrent(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            currentBatch.add(key, future);
+            if (currentBatch.size() >= maxBatchSize) {
+                fullBatch = currentBatch;
+                currentBatch = null;
+            }
+        }
+        if (Objects.nonNull(fullBatch)) {
+            dispatch(fullBatch);
+        }
+        return future;
+    }
+
+    private void flushIfCurrent(Batch batch) {
+        synchronized (this) {
+            //批次已因达到上限而发送
+            if (currentBatch != batch) {
+                return;
+            }
+            currentBatch = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        if (nonBlocking) {
+            execute(batch);
+            return;
+        }
+        try {
+            EXECUTOR.execute(() -> execute(batch));
+        } catch (RejectedExecutionException ex) {
+            batch.fail(ex);
+        }
+    }
+
+    private void execute(Batch batch) {
+        Object result;
+        try {
+            result = batchCall.apply(batch.keys());
+        } catch (Throwable ex) {
+            batch.fail(ex);
+            return;
+        }
+        if (result instanceof CompletableFuture) {
+            ((CompletableFuture<?>) result).whenComplete((data, throwable) -> {
+                if (Objects.nonNull(throwable)) {
+                    batch.fail(throwable);
+                } else {
+                    complete(batch, data);
+                }
+            });
+        } else {
+            complete(batch, result);
+        }
+    }
+
+    private void complete(Batch batch, Object result) {
+        try {
+            batch.complete(index(result));
+        } catch (Throwable ex) {
+            batch.fail(ex);
+        }
+    }
+
+    /**
+     * 将批量方法的返回值按key的字符串形式建立索引
+     */
+    private Map<String, Object> index(Object result) {
+        if (Objects.isNull(result)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> indexed = new HashMap<>();
+        if (result instanceof Map) {
+            ((Map<?, ?>) result).forEach((key, value) -> indexed.put(String.valueOf(key), value));
+            return indexed;
+        }
+        if (result instanceof Collection) {
+            for (Object element : (Collection<?>) result) {
+                if (Objects.nonNull(element)) {
+                    indexed.put(String.valueOf(readKey(element)), element);
+                }
+            }
+            return indexed;
+        }
+        throw new IllegalStateException("batch method must return a Collection or a Map, but got " + result.getClass().getName());
+    }
+
+    private Object readKey(Object element) {
+        if (element instanceof Map) {
+            return ((Map<?, ?>) element).get(keyProperty);
+        }
+        Method readMethod = keyReadMethods.computeIfAbsent(element.getClass(), clz -> {
+            PropertyDescriptor propertyDescriptor = BeanUtils.getPropertyDescriptor(clz, keyProperty);
+            if (Objects.isNull(propertyDescriptor) || Objects.isNull(propertyDescriptor.getReadMethod())) {
+                throw new IllegalStateException("no readable property " + keyProperty + " in " + clz.getName());
+            }
+            return propertyDescriptor.getReadMethod();
+        });
+        return ReflectionUtils.invokeMethod(readMethod, element);
+    }
+
+    /**
+     * 等待结果，CompletionException会被解开
+     */
+    static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 一个批次，相同的key只会出现一次
+     */
+    private static final class Batch {
+
+        private final Map<String, Object> keys = new LinkedHashMap<>();
+
+        private final Map<String, List<CompletableFuture<Object>>> callers = new HashMap<>();
+
+        void add(Object key, CompletableFuture<Object> future) {
+            String indexKey = String.valueOf(key);
+            keys.putIfAbsent(indexKey, key);
+            callers.computeIfAbsent(indexKey, k -> new ArrayList<>(1)).add(future);
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        List<Object> keys() {
+            return new ArrayList<>(keys.values());
+        }
+
+        void complete(Map<String, Object> results) {
+            callers.forEach((indexKey, futures) -> {
+                Object result = results.get(indexKey);
+                futures.forEach(future -> future.complete(result));
+            });
+        }
+
+        void fail(Throwable throwable) {
+            callers.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(throwable)));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientHedge;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 某个方法的对冲请求执行器，包含请求次数、对冲次数与对冲获胜次数的统计，
+ * 所有执行器均可通过名称（接口类全名#方法名(参数类型...)）查找，用于监控
+ *
+ * @author pluschuh
+ * @see RestClientHedge
+ */
+public final class RequestHedger {
+
+    private static final Map<String, RequestHedger> HEDGERS = new ConcurrentHashMap<>();
+
+    /**
+     * 仅用于触发对冲请求，请求本身仍以非阻塞的方式发送
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("rest-client-hedge-timer-"));
+
+    /**
+     * 保留最近的请求耗时样本个数，必须为2的幂
+     */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * 样本个数达到该值之前使用对冲延迟的上限
+     */
+    private static final int MIN_SAMPLES = 32;
+
+    /**
+     * 每记录该个数的样本后重新计算一次对冲延迟
+     */
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    private final String name;
+
+    private final long fixedDelayNanos;
+
+    private final double percentile;
+
+    private final long minDelayNanos;
+
+    private final long maxDelayNanos;
+
+    /**
+     * 对冲请求数的上限，复用重试预算的令牌桶：每次请求存入maxHedgeRatio个令牌，每次对冲消耗一个令牌
+     */
+    private final RetryBudget hedgeBudget;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private volatile long adaptiveDelayNanos;
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder hedgeCount = new LongAdder();
+
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    private RequestHedger(String name, RestClientHedge restClientHedge) {
+        TimeUnit delayUnit = restClientHedge.delayUnit();
+        this.name = name;
+        this.fixedDelayNanos = restClientHedge.delay() < 0 ? -1 : delayUnit.toNanos(restClientHedge.delay());
+        this.percentile = Math.min(100, Math.max(0, restClientHedge.percentile()));
+        this.minDelayNanos = Math.max(0, delayUnit.toNanos(restClientHedge.minDelay()));
+        this.maxDelayNanos = Math.max(minDelayNanos, delayUnit.toNanos(restClientHedge.maxDelay()));
+        this.hedgeBudget = new RetryBudget(restClientHedge.maxHedgeRatio(), 0);
+        this.adaptiveDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * 创建方法的对冲请求执行器并注册，同名的执行器会被替换
+     */
+    static RequestHedger create(Method method, RestClientHedge restClientHedge) {
+        String name = ResponseCache.nameOf(method);
+        RequestHedger requestHedger = new RequestHedger(name, restClientHedge);
+        HEDGERS.put(name, requestHedger);
+        return requestHedger;
+    }
+
+    /**
+     * 发送请求，对冲延迟内没有完成时再发送一次
+     *
+     * @param attempt 发送一次请求，返回的CompletableFuture被取消时应当取消对应的http调用
+     * @return 先成功的请求的结果，所有请求均失败时为最后一个失败；取消该future会同时取消所有未完成的请求
+     */
+    CompletableFuture<Object> execute(Supplier<CompletableFuture<Object>> attempt) {
+        requestCount.increment();
+        hedgeBudget.deposit();
+        HedgedCall hedgedCall = new HedgedCall(attempt);
+        hedgedCall.start(currentDelayNanos());
+        return hedgedCall.result;
+    }
+
+    private long currentDelayNanos() {
+        return fixedDelayNanos >= 0 ? fixedDelayNanos : adaptiveDelayNanos;
+    }
+
+    /**
+     * 记录一次成功请求的耗时，固定对冲延迟时不需要记录
+     */
+    private void record(long latencyNanos) {
+        if (fixedDelayNanos >= 0) {
+            return;
+        }
+        long count = sampleCount.incrementAndGet();
+        samples[(int) (count - 1) & (SAMPLE_SIZE - 1)] = latencyNanos;
+        if (count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, SAMPLE_SIZE));
+            Arrays.sort(sorted);
+            long percentileNanos = sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * percentile / 100) - 1)];
+            adaptiveDelayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, percentileNanos));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return 发送的对冲请求数
+     */
+    public long getHedgeCount() {
+        return hedgeCount.sum();
+    }
+
+    /**
+     * @return 对冲请求先于原请求成功的次数
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.sum();
+    }
+
+    /**
+     * @return 当前的对冲延迟，单位为毫秒
+     */
+    public long getDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(currentDelayNanos());
+    }
+
+    /**
+     * 根据名称查找对冲请求执行器
+     *
+     * @param name 名称，格式为 接口类全名#方法名(参数类型简称,...)
+     * @return 对冲请求执行器，不存在时返回null
+     */
+    public static RequestHedger find(String name) {
+        return HEDGERS.get(name);
+    }
+
+    /**
+     * @return 所有已创建的对冲请求执行器
+     */
+    public static Collection<RequestHedger> all() {
+        return Collections.unmodifiableCollection(HEDGERS.values());
+    }
+
+    @Override
+    public String toString() {
+        return "RequestHedger{name=" + name + ", request=" + getRequestCount() + ", hedge=" + getHedgeCount() + ", hedgeWin=" + getHedgeWinCount()
+                + ", delayMillis=" + getDelayMillis() + "}";
+    }
+
+    /**
+     * 一次调用，包括原请求与可能的对冲请求
+     */
+    private final class HedgedCall {
+
+        private final Supplier<CompletableFuture<Object>> attempt;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        /**
+         * 已发送但未完成的请求数，归零时以最后一个失败作为结果
+         */
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+
+        private volatile CompletableFuture<Object> primary;
+
+        private volatile CompletableFuture<Object> hedge;
+
+        private volatile ScheduledFuture<?> timer;
+
+        HedgedCall(Supplier<CompletableFuture<Object>> attempt) {
+            this.attempt = attempt;
+        }
+
+        void start(long delayNanos) {
+            result.whenComplete((value, throwable) -> {
+                //先完成的请求决定结果后，取消尚未触发的对冲与另一个请求
+                cancel(timer);
+                cancel(primary);
+                cancel(hedge);
+            });
+            primary = send(false);
+            if (!result.isDone()) {
+                timer = TIMER.schedule(this::sendHedge, delayNanos, TimeUnit.NANOSECONDS);
+            }
+            //调用方可能已在请求发出前取消
+            if (result.isDone()) {
+                cancel(primary);
+                cancel(timer);
+            }
+        }
+
+        private void sendHedge() {
+            if (result.isDone() || !hedgeBudget.tryWithdraw()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedgeCount.increment();
+            hedge = send(true);
+            if (result.isDone()) {
+                cancel(hedge);
+            }
+        }
+
+        private CompletableFuture<Object> send(boolean isHedge) {
+            long startNanos = System.nanoTime();
+            CompletableFuture<Object> future;
+            try {
+                future = attempt.get();
+            } catch (Throwable ex) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+            }
+            future.whenComplete((value, throwable) -> {
+                if (Objects.isNull(throwable)) {
+                    record(System.nanoTime() - startNanos);
+                    if (result.complete(value) && isHedge) {
+                        hedgeWinCount.increment();
+                    }
+                } else if (outstanding.decrementAndGet() == 0) {
+                    result.completeExceptionally(throwable);
+                }
+            });
+            return future;
+        }
+
+        private void cancel(Future<?> future) {
+            if (Objects.nonNull(future) && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -17,4 +17,15 @@ public interface RequestInterceptor {
      */
     void apply(RestClientRequestTemplate requestTemplate, RestClientRequestMetaInfo requestMetaInfo);
 
+    /**
+     * 是否会读取或修改请求模板中的请求体。
+     * 返回false时，只有单个请求体对象参数的方法会直接序列化该对象，请求模板中的请求体在首次读取时才由该对象转换得到，
+     * 请求上下文、响应错误处理器与响应模板等读取到的请求体与返回true时一致
+     *
+     * @return 默认为true
+     */
+    default boolean accessRequestBody() {
+        return true;
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.spi.RequestLifecycleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 一个REST客户端的所有请求生命周期监听器，在创建客户端时确定，没有监听器时不创建。
+ * 依次回调各个监听器，监听器抛出的异常只记录日志
+ *
+ * @author pluschuh
+ */
+final class RequestLifecycleListeners {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestLifecycleListeners.class);
+
+    private final RequestLifecycleListener[] listeners;
+
+    private RequestLifecycleListeners(RequestLifecycleListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * @return 没有监听器时返回null
+     */
+    static RequestLifecycleListeners of(List<RequestLifecycleListener> listeners) {
+        return listeners.isEmpty() ? null : new RequestLifecycleListeners(listeners.toArray(new RequestLifecycleListener[0]));
+    }
+
+    void onStart(Method method, Object[] args) {
+        for (RequestLifecycleListener listener : listeners) {
+            try {
+                listener.onStart(method, args);
+            } catch (Throwable ex) {
+                LOGGER.warn("request lifecycle listener {} failed on start", listener.getClass().getName(), ex);
+            }
+        }
+    }
+
+    void onRequestBuilt(Method method, RestClientRequestContext context, String url) {
+        for (RequestLifecycleListener listener : listeners) {
+            try {
+                listener.onRequestBuilt(method, context, url);
+            } catch (Throwable ex) {
+                LOGGER.warn("request lifecycle listener {} failed on request built", listener.getClass().getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * 调用结束，回调onResponse或onError后再回调onComplete
+     *
+     * @param throwable 调用成功时为null，CompletionException会被解包
+     */
+    void onFinish(Method method, RestClientRequestContext context, Object result, Throwable throwable, long latencyNanos) {
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        for (RequestLifecycleListener listener : listeners) {
+            try {
+                if (Objects.isNull(cause)) {
+                    listener.onResponse(method, context, result);
+                } else {
+                    listener.onError(method, context, cause);
+                }
+            } catch (Throwable ex) {
+                LOGGER.warn("request lifecycle listener {} failed on {}", listener.getClass().getName(),
+                        Objects.isNull(cause) ? "response" : "error", ex);
+            }
+        }
+        for (RequestLifecycleListener listener : listeners) {
+            try {
+                listener.onComplete(method, context, cause, latencyNanos);
+            } catch (Throwable ex) {
+                LOGGER.warn("request lifecycle listener {} failed on complete", listener.getClass().getName(), ex);
+            }
+        }
+    }
+}
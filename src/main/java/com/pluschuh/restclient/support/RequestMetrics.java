@@ -0,0 +1,336 @@
+package com.pluschuh.restclient.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 某个方法的请求指标：未完成请求数、请求数、失败数、超时数，以及按host与状态码分类统计的耗时直方图。
+ * 每次重试与对冲请求分别统计，命中缓存时不统计；
+ * 耗时为发出请求到解析完响应体（流式返回时为得到响应头，返回值为Flux时为最后一个元素解码完成）的时间。记录时不加锁也不创建对象（每个host与状态码分类第一次出现时除外）。
+ * 所有指标均可通过名称（接口类全名#方法名(参数类型...)）查找，调用enableJmx后同时注册为MXBean
+ *
+ * @author pluschuh
+ * @see LatencyHistogram
+ */
+public final class RequestMetrics implements RequestMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestMetrics.class);
+
+    private static final Map<String, RequestMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private static final String JMX_DOMAIN = "com.pluschuh.restclient";
+
+    private static volatile boolean jmxEnabled;
+
+    /**
+     * 状态码分类的个数，下标0为没有状态码（I/O异常、响应解析失败等），1至5分别为1xx至5xx
+     */
+    private static final int STATUS_CLASS_COUNT = 6;
+
+    /**
+     * 按host统计的最大host数，超出的host合并统计在OTHER_HOSTS中
+     */
+    private static final int MAX_HOSTS = 64;
+
+    private static final String OTHER_HOSTS = "*";
+
+    private final String clientName;
+
+    private final String name;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * 写时复制，只在出现新的host时替换
+     */
+    private volatile HostMetrics[] hosts = new HostMetrics[0];
+
+    private RequestMetrics(String clientName, String name) {
+        this.clientName = clientName;
+        this.name = name;
+    }
+
+    /**
+     * 创建方法的请求指标并注册，同名的指标会被替换
+     */
+    static RequestMetrics create(Method method) {
+        RequestMetrics requestMetrics = new RequestMetrics(method.getDeclaringClass().getName(), ResponseCache.nameOf(method));
+        METRICS.put(requestMetrics.name, requestMetrics);
+        if (jmxEnabled) {
+            registerMBean(requestMetrics);
+        }
+        return requestMetrics;
+    }
+
+    void onStart() {
+        inFlight.increment();
+        requestCount.increment();
+    }
+
+    /**
+     * 请求完成，被取消的请求只减少未完成请求数
+     *
+     * @param url          请求的完整路径，用于按host统计
+     * @param latencyNanos 请求耗时，单位为纳秒
+     * @param throwable    请求成功时为null
+     */
+    void onComplete(String url, long latencyNanos, Throwable throwable) {
+        inFlight.decrement();
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        if (Objects.nonNull(cause)) {
+            errorCount.increment();
+            if (isTimeout(cause)) {
+                timeoutCount.increment();
+            }
+        }
+        latency.record(latencyNanos);
+        hostMetrics(url).histogram(statusClassOf(cause)).record(latencyNanos);
+    }
+
+    /**
+     * 成功的请求计入2xx，RestClientResponseException按其状态码分类，其余异常没有状态码
+     */
+    private static int statusClassOf(Throwable cause) {
+        if (Objects.isNull(cause)) {
+            return HttpStatus.Series.SUCCESSFUL.value();
+        }
+        if (cause instanceof RestClientResponseException) {
+            int statusClass = ((RestClientResponseException) cause).getRawStatusCode() / 100;
+            return statusClass > 0 && statusClass < STATUS_CLASS_COUNT ? statusClass : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * 读超时、连接超时与OkHttp的调用超时均为InterruptedIOException
+     */
+    private static boolean isTimeout(Throwable throwable) {
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 根据完整路径中的host:port查找，逐字符比较，不创建子串
+     */
+    private HostMetrics hostMetrics(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        int length = end - start;
+        for (HostMetrics candidate : hosts) {
+            if (candidate.host.length() == length && url.regionMatches(start, candidate.host, 0, length)) {
+                return candidate;
+            }
+        }
+        return addHost(url.substring(start, end));
+    }
+
+    private synchronized HostMetrics addHost(String host) {
+        HostMetrics[] current = hosts;
+        String key = current.length >= MAX_HOSTS ? OTHER_HOSTS : host;
+        for (HostMetrics candidate : current) {
+            if (Objects.equals(candidate.host, key)) {
+                return candidate;
+            }
+        }
+        HostMetrics hostMetrics = new HostMetrics(key);
+        HostMetrics[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = hostMetrics;
+        hosts = updated;
+        return hostMetrics;
+    }
+
+    @Override
+    public String getClientName() {
+        return clientName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return 失败的请求数，包括4xx与5xx响应
+     */
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * @return 所有host与状态码的耗时直方图
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return 已出现过的host:port，超过64个时其余的host合并为*
+     */
+    public List<String> getHosts() {
+        List<String> result = new ArrayList<>();
+        for (HostMetrics hostMetrics : hosts) {
+            result.add(hostMetrics.host);
+        }
+        return result;
+    }
+
+    /**
+     * 某个host与状态码分类的耗时直方图
+     *
+     * @param host   host:port
+     * @param series 状态码分类，为null时表示没有状态码的失败请求（I/O异常、响应解析失败等）
+     * @return 耗时直方图，没有记录时返回null
+     */
+    public LatencyHistogram getLatency(String host, HttpStatus.Series series) {
+        for (HostMetrics hostMetrics : hosts) {
+            if (Objects.equals(hostMetrics.host, host)) {
+                return hostMetrics.histograms.get(Objects.isNull(series) ? 0 : series.value());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return LatencyHistogram.toMillis(latency.getMeanNanos());
+    }
+
+    @Override
+    public double getP50Millis() {
+        return LatencyHistogram.toMillis(latency.getPercentileNanos(50));
+    }
+
+    @Override
+    public double getP90Millis() {
+        return LatencyHistogram.toMillis(latency.getPercentileNanos(90));
+    }
+
+    @Override
+    public double getP99Millis() {
+        return LatencyHistogram.toMillis(latency.getPercentileNanos(99));
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return LatencyHistogram.toMillis(latency.getMaxNanos());
+    }
+
+    /**
+     * 根据名称查找请求指标
+     *
+     * @param name 名称，格式为 接口类全名#方法名(参数类型简称,...)
+     * @return 请求指标，不存在时返回null
+     */
+    public static RequestMetrics find(String name) {
+        return METRICS.get(name);
+    }
+
+    /**
+     * @return 所有已创建的请求指标
+     */
+    public static Collection<RequestMetrics> all() {
+        return Collections.unmodifiableCollection(METRICS.values());
+    }
+
+    /**
+     * 将所有已创建与之后创建的请求指标注册到平台MBeanServer，
+     * ObjectName为 com.pluschuh.restclient:type=RequestMetrics,client=接口类全名,name="接口类全名#方法名(参数类型...)"
+     */
+    public static synchronized void enableJmx() {
+        jmxEnabled = true;
+        METRICS.values().forEach(RequestMetrics::registerMBean);
+    }
+
+    private static void registerMBean(RequestMetrics requestMetrics) {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=RequestMetrics,client=" + requestMetrics.clientName
+                    + ",name=" + ObjectName.quote(requestMetrics.name));
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(requestMetrics, objectName);
+        } catch (JMException ex) {
+            LOGGER.warn("fail to register request metrics {} to jmx", requestMetrics.name, ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{name=" + name + ", inFlight=" + getInFlight() + ", request=" + getRequestCount() + ", error=" + getErrorCount()
+                + ", timeout=" + getTimeoutCount() + ", latency=" + latency + "}";
+    }
+
+    /**
+     * 某个host的耗时直方图，按状态码分类，第一次出现时创建
+     */
+    private static final class HostMetrics {
+
+        private final String host;
+
+        private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(STATUS_CLASS_COUNT);
+
+        HostMetrics(String host) {
+            this.host = host;
+        }
+
+        LatencyHistogram histogram(int statusClass) {
+            LatencyHistogram histogram = histograms.get(statusClass);
+            if (Objects.isNull(histogram)) {
+                histograms.compareAndSet(statusClass, null, new LatencyHistogram());
+                histogram = histograms.get(statusClass);
+            }
+            return histogram;
+        }
+    }
+}
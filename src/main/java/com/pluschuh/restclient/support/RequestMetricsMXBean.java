@@ -0,0 +1,32 @@
+package com.pluschuh.restclient.support;
+
+/**
+ * 请求指标的JMX接口，耗时单位均为毫秒（保留3位小数）
+ *
+ * @author pluschuh
+ * @see RequestMetrics#enableJmx()
+ */
+public interface RequestMetricsMXBean {
+
+    String getClientName();
+
+    String getName();
+
+    long getInFlight();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    long getTimeoutCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
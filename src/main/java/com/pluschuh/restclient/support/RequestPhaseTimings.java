@@ -0,0 +1,82 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.enums.RequestPhase;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 一次请求各阶段的开始与结束时间，取自System.nanoTime，通过RestClientRequestContext获取，仅在ConfigOfDefaultRT启用了phaseTiming时存在。
+ * 各阶段可能在调用线程与OkHttp的线程中记录，读取时不保证各阶段之间一致；重试与对冲时后一次尝试会覆盖前一次尝试记录的阶段
+ *
+ * @author pluschuh
+ * @see RequestPhase
+ */
+public final class RequestPhaseTimings {
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    /**
+     * 未记录的时间
+     */
+    private static final long NOT_RECORDED = 0;
+
+    private final AtomicLongArray startNanos = new AtomicLongArray(PHASES.length);
+
+    private final AtomicLongArray endNanos = new AtomicLongArray(PHASES.length);
+
+    RequestPhaseTimings() {
+    }
+
+    /**
+     * 记录阶段开始，同时清除之前记录的结束时间
+     */
+    void start(RequestPhase phase) {
+        startNanos.set(phase.ordinal(), System.nanoTime());
+        endNanos.set(phase.ordinal(), NOT_RECORDED);
+    }
+
+    void end(RequestPhase phase) {
+        endNanos.set(phase.ordinal(), System.nanoTime());
+    }
+
+    /**
+     * @return 阶段的开始时间，单位为纳秒，未记录时返回0
+     */
+    public long getStartNanos(RequestPhase phase) {
+        return startNanos.get(phase.ordinal());
+    }
+
+    /**
+     * @return 阶段的结束时间，单位为纳秒，未记录或未结束时返回0
+     */
+    public long getEndNanos(RequestPhase phase) {
+        return endNanos.get(phase.ordinal());
+    }
+
+    /**
+     * @return 阶段的耗时，单位为纳秒，未记录或未结束时返回-1
+     */
+    public long getDurationNanos(RequestPhase phase) {
+        long start = getStartNanos(phase);
+        long end = getEndNanos(phase);
+        return start == NOT_RECORDED || end == NOT_RECORDED ? -1 : end - start;
+    }
+
+    /**
+     * @return 已结束的各阶段耗时，单位为毫秒
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RequestPhaseTimings{");
+        boolean first = true;
+        for (RequestPhase phase : PHASES) {
+            long durationNanos = getDurationNanos(phase);
+            if (durationNanos < 0) {
+                continue;
+            }
+            builder.append(first ? "" : ", ").append(phase.name()).append('=').append(LatencyHistogram.toMillis(durationNanos)).append("ms");
+            first = false;
+        }
+        return builder.append('}').toString();
+    }
+}
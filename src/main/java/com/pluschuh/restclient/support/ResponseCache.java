@@ -0,0 +1,179 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientCache;
+import com.pluschuh.restclient.spi.ResponseCacheStore;
+import org.springframework.http.HttpHeaders;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 某个被@RestClientCache注解的方法的响应缓存，包含命中、未命中与淘汰次数的统计，
+ * 所有缓存均可通过名称（接口类全名#方法名(参数类型...)）查找，用于监控或手动清空
+ *
+ * @author pluschuh
+ * @see RestClientCache
+ */
+public final class ResponseCache {
+
+    private static final Map<String, ResponseCache> CACHES = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final ResponseCacheStore.Region region;
+
+    /**
+     * 参与缓存key计算的请求头名称
+     */
+    private final String[] keyHeaders;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private ResponseCache(String name, ResponseCacheStore.Region region, String[] keyHeaders) {
+        this.name = name;
+        this.region = region;
+        this.keyHeaders = keyHeaders;
+    }
+
+    /**
+     * 创建方法的响应缓存并注册，同名的缓存会被替换
+     */
+    static ResponseCache create(Method method, RestClientCache restClientCache, ResponseCacheStore responseCacheStore) {
+        String name = nameOf(method);
+        long ttlMillis = restClientCache.ttlUnit().toMillis(restClientCache.ttl());
+        ResponseCacheStore.Region region = responseCacheStore.createRegion(name, ttlMillis, restClientCache.maxEntries());
+        ResponseCache responseCache = new ResponseCache(name, region, keyHeadersOf(restClientCache));
+        CACHES.put(name, responseCache);
+        return responseCache;
+    }
+
+    /**
+     * 参与缓存key计算的请求头，除非指定了ignoreAuthorization，否则第一个为Authorization，与SingleFlight及HttpResponseCache一致
+     */
+    private static String[] keyHeadersOf(RestClientCache restClientCache) {
+        String[] keyHeaders = restClientCache.keyHeaders();
+        if (restClientCache.ignoreAuthorization()
+                || Arrays.stream(keyHeaders).anyMatch(keyHeader -> HttpHeaders.AUTHORIZATION.equalsIgnoreCase(keyHeader))) {
+            return keyHeaders.clone();
+        }
+        String[] withAuthorization = new String[keyHeaders.length + 1];
+        withAuthorization[0] = HttpHeaders.AUTHORIZATION;
+        System.arraycopy(keyHeaders, 0, withAuthorization, 1, keyHeaders.length);
+        return withAuthorization;
+    }
+
+    /**
+     * 缓存名称，格式为 接口类全名#方法名(参数类型简称,...)
+     */
+    static String nameOf(Method method) {
+        StringBuilder name = new StringBuilder(method.getDeclaringClass().getName()).append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(parameterTypes[i].getSimpleName());
+        }
+        return name.append(')').toString();
+    }
+
+    /**
+     * 计算缓存key：完整请求路径，以及指定的请求头
+     */
+    String keyOf(String fullUrl, HttpHeaders httpHeaders) {
+        return buildKey(fullUrl, httpHeaders, keyHeaders);
+    }
+
+    /**
+     * 由完整请求路径与指定的请求头组成key
+     */
+    static String buildKey(String fullUrl, HttpHeaders httpHeaders, String... keyHeaders) {
+        if (keyHeaders.length == 0) {
+            return fullUrl;
+        }
+        StringBuilder key = new StringBuilder(fullUrl);
+        for (String keyHeader : keyHeaders) {
+            List<String> values = httpHeaders.get(keyHeader);
+            key.append('\n').append(keyHeader).append(':');
+            if (Objects.nonNull(values)) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    Object get(String key) {
+        Object value = region.get(key);
+        if (Objects.isNull(value)) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    void put(String key, Object value) {
+        if (Objects.nonNull(value)) {
+            region.put(key, value);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return region.evictionCount();
+    }
+
+    public long getSize() {
+        return region.size();
+    }
+
+    /**
+     * 清空缓存，不影响统计数据
+     */
+    public void invalidateAll() {
+        region.invalidateAll();
+    }
+
+    /**
+     * 根据名称查找缓存
+     *
+     * @param name 缓存名称，格式为 接口类全名#方法名(参数类型简称,...)
+     * @return 缓存，不存在时返回null
+     */
+    public static ResponseCache find(String name) {
+        return CACHES.get(name);
+    }
+
+    /**
+     * @return 所有已创建的缓存
+     */
+    public static Collection<ResponseCache> all() {
+        return Collections.unmodifiableCollection(CACHES.values());
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{name=" + name + ", size=" + getSize() + ", hit=" + getHitCount() + ", miss=" + getMissCount()
+                + ", eviction=" + getEvictionCount() + "}";
+    }
+}
@@ -2,9 +2,14 @@ package com.pluschuh.restclient.support;
 
 import com.pluschuh.restclient.annotation.RequestField;
 import com.pluschuh.restclient.annotation.RestClient;
+import com.pluschuh.restclient.annotation.RestClientOutlierDetection;
 import com.pluschuh.restclient.annotation.RestClientRequest;
 import com.pluschuh.restclient.annotation.RestClientSpiProvider;
 import com.pluschuh.restclient.enums.RequestFieldType;
+import com.pluschuh.restclient.enums.ReturnValueType;
+import com.pluschuh.restclient.spi.HostHealthListener;
+import com.pluschuh.restclient.spi.RequestLifecycleListener;
+import com.pluschuh.restclient.spi.provide.LoggingHostHealthListener;
 import com.pluschuh.restclient.utils.EnvironmentPropUtils;
 import com.pluschuh.restclient.valueobject.RequestFieldValueObject;
 import com.pluschuh.restclient.valueobject.RestClientSpiProviderValueObject;
@@ -12,6 +17,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.aop.*;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
@@ -19,15 +25,22 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.Nonnull;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * rest客户端工厂类
@@ -35,12 +48,17 @@ import java.util.*;
  * @param <T> 泛型
  * @author pluschuh
  */
-public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, ApplicationContextAware, EnvironmentAware {
+public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, DisposableBean, ApplicationContextAware, EnvironmentAware {
 
     private final Class<?> restClientInterface;
 
     private T restClient;
 
+    /**
+     * 默认的域名解析器，配置了主动健康检查时需要在销毁时停止
+     */
+    private RestClientHostResolver defaultHostResolver;
+
     private final RestClient restClientAnnotation;
 
     private static final RequestInterceptor defaultRequestInterceptor = new DefaultRequestInterceptor();
@@ -55,6 +73,13 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
 
     private static final String URL_PATH_SEPARATOR = "/";
 
+    /**
+     * reactor相关类名，为可选依赖，故不直接引用
+     */
+    private static final String MONO_CLASS_NAME = "reactor.core.publisher.Mono";
+    private static final String FLUX_CLASS_NAME = "reactor.core.publisher.Flux";
+    private static final String WEB_CLIENT_CLASS_NAME = "org.springframework.web.reactive.function.client.WebClient";
+
     public RestClientFactory(Class<T> restClientInterface, RestClient restClientAnnotation) {
         if (Objects.isNull(restClientInterface) || !Modifier.isInterface(restClientInterface.getModifiers()) || Objects.isNull(restClientAnnotation)) {
             throw new RuntimeException("not valid rest client definition");
@@ -90,8 +115,8 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
         // proxyFactory.setOptimize(true);
         proxyFactory.setInterfaces(getObjectType(), SpringProxy.class);
         String host = restClientAnnotation.host();
-        RestClientHostResolver defaultHostResolver = new DefaultRestClientHostResolver(EnvironmentPropUtils.tryFindRealVal(host, environment));
         RestClientSpiProviderValueObject restClientSpiProvider = buildSpiProvider();
+        defaultHostResolver = buildDefaultHostResolver(EnvironmentPropUtils.tryFindRealVal(host, environment), restClientSpiProvider);
         RestTemplate restTemplate = findRestTemplate(restClientSpiProvider);
         Map<Method, RestClientRequestMetaInfo> methodRestClientRequestMetaInfoMap = buildRequestMetaInfoMap(restClientInterface, restClientAnnotation);
         List<SimpleRestClient.OriginalRestClientMethodInfo> originalRestClientMethodInfos = new ArrayList<>();
@@ -99,16 +124,48 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
             RestClientRequestMetaInfo restClientRequestMetaInfo = methodRestClientRequestMetaInfoMap.get(method);
             RequestInterceptor requestInterceptorInstance = findInstanceFromIoc(restClientRequestMetaInfo.getRequestInterceptor(), defaultRequestInterceptor);
             RestClientHostResolver restClientHostResolverInstance = findInstanceFromIoc(restClientRequestMetaInfo.getHostResolver(), defaultHostResolver);
+            //请求计划由SimpleRestClient使用其请求体序列化器编译
             SimpleRestClient.OriginalRestClientMethodInfo originalRestClientMethodInfo =
-                    new SimpleRestClient.OriginalRestClientMethodInfo(method, restClientRequestMetaInfo, requestInterceptorInstance, restClientHostResolverInstance);
+                    new SimpleRestClient.OriginalRestClientMethodInfo(method, restClientRequestMetaInfo, requestInterceptorInstance,
+                            restClientHostResolverInstance);
             originalRestClientMethodInfos.add(originalRestClientMethodInfo);
         }
         SimpleRestClient simpleRestClient = new SimpleRestClient(restClientInterface, originalRestClientMethodInfos,
-                restTemplate, restClientSpiProvider);
+                restTemplate, restClientSpiProvider, findReactiveRequestExecutor(methodRestClientRequestMetaInfoMap.values(), restTemplate, restClientSpiProvider),
+                findRequestLifecycleListeners());
         proxyFactory.addAdvice(new RestClientMethodInterceptor(simpleRestClient));
         restClient = (T) proxyFactory.getProxy();
     }
 
+    @Override
+    public void destroy() {
+        if (defaultHostResolver instanceof LoadBalancingRestClientHostResolver) {
+            ((LoadBalancingRestClientHostResolver) defaultHostResolver).close();
+        }
+    }
+
+    /**
+     * 配置了多个域名时使用负载均衡的域名解析器
+     */
+    private RestClientHostResolver buildDefaultHostResolver(String host, RestClientSpiProviderValueObject restClientSpiProvider) {
+        List<String> hosts = LoadBalancingRestClientHostResolver.splitHosts(host);
+        if (hosts.size() > 1) {
+            RestClientOutlierDetection outlierDetection = restClientInterface.getAnnotation(RestClientOutlierDetection.class);
+            HostHealthListener hostHealthListener = Objects.isNull(outlierDetection) ? null
+                    : SpiProviderHelper.obtainProvider(HostHealthListener.class, restClientSpiProvider.hostHealthListener(), LoggingHostHealthListener::new);
+            return new LoadBalancingRestClientHostResolver(restClientInterface.getName(), hosts, restClientAnnotation.loadBalanceStrategy(),
+                    outlierDetection, hostHealthListener);
+        }
+        return new DefaultRestClientHostResolver(host);
+    }
+
+    /**
+     * spring容器中所有的请求生命周期监听器，按Order排序
+     */
+    private List<RequestLifecycleListener> findRequestLifecycleListeners() {
+        return applicationContext.getBeanProvider(RequestLifecycleListener.class).orderedStream().collect(Collectors.toList());
+    }
+
     private <C extends R, R> R findInstanceFromIoc(Class<C> clz, R defaultInstance) {
         //如果没有设置具体的实现类作为interceptor，则不去spring容器中查找
         if (Modifier.isInterface(clz.getModifiers()) || Modifier.isAbstract(clz.getModifiers())) {
@@ -128,7 +185,7 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
         Class<? extends RequestInterceptor> requestInterceptorOfClz = restClientAnnotation.requestInterceptor();
         for (Method declaredMethod : declaredMethods) {
             RestClientRequestMetaInfo requestMetaInfo = new RestClientRequestMetaInfo();
-            requestMetaInfo.setResponseType(declaredMethod.getGenericReturnType());    //TODO 是否需要将基本数据类型转换成包装类型
+            setResponseType(requestMetaInfo, declaredMethod);
             RestClientRequest restClientRequest = declaredMethod.getAnnotation(RestClientRequest.class);
 
             HttpMethod httpMethod;
@@ -173,6 +230,40 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
         return result;
     }
 
+    private void setResponseType(@Nonnull RestClientRequestMetaInfo requestMetaInfo, Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (Objects.equals(returnType, CompletableFuture.class)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.COMPLETABLE_FUTURE);
+            requestMetaInfo.setResponseType(findGenericReturnType(method));
+        } else if (Objects.equals(returnType.getName(), MONO_CLASS_NAME)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.MONO);
+            requestMetaInfo.setResponseType(findGenericReturnType(method));
+        } else if (Objects.equals(returnType.getName(), FLUX_CLASS_NAME)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.FLUX);
+            requestMetaInfo.setResponseType(findGenericReturnType(method));
+        } else if (Objects.equals(returnType, InputStream.class)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.INPUT_STREAM);
+            requestMetaInfo.setResponseType(InputStream.class);
+        } else if (Objects.equals(returnType, Stream.class)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.STREAM);
+            requestMetaInfo.setResponseType(findGenericReturnType(method));
+        } else if (Objects.equals(returnType, Iterator.class) || Objects.equals(returnType, CloseableIterator.class)) {
+            requestMetaInfo.setReturnValueType(ReturnValueType.ITERATOR);
+            requestMetaInfo.setResponseType(findGenericReturnType(method));
+        } else {
+            requestMetaInfo.setReturnValueType(ReturnValueType.SYNC);
+            requestMetaInfo.setResponseType(method.getGenericReturnType());    //TODO 是否需要将基本数据类型转换成包装类型
+        }
+    }
+
+    /**
+     * 获取返回值的第一个泛型参数类型，如CompletableFuture&lt;List&lt;Product&gt;&gt;返回List&lt;Product&gt;，未声明泛型时返回Object
+     */
+    private Type findGenericReturnType(Method method) {
+        ResolvableType generic = ResolvableType.forMethodReturnType(method).getGeneric(0);
+        return Objects.equals(generic, ResolvableType.NONE) ? Object.class : generic.getType();
+    }
+
     private RestClientSpiProviderValueObject buildSpiProvider() {
         RestClientSpiProvider spiProviderFromAnnotation = this.restClientAnnotation.spiProvider();
         RestClientSpiProvider spiProviderFromClz = this.restClientInterface.getAnnotation(RestClientSpiProvider.class);
@@ -254,6 +345,31 @@ public class RestClientFactory<T> implements FactoryBean<T>, InitializingBean, A
         return StringUtils.isBlank(realRestTemplateBeanName) ? new DefaultRestTemplate(restClientSpiProvider, restClientInterface) : (RestTemplate) applicationContext.getBean(realRestTemplateBeanName);
     }
 
+    /**
+     * 仅当存在返回值为Mono或Flux的方法时才创建响应式请求执行器
+     */
+    private ReactiveRequestExecutor findReactiveRequestExecutor(Collection<RestClientRequestMetaInfo> requestMetaInfos, RestTemplate restTemplate,
+                                                                RestClientSpiProviderValueObject restClientSpiProvider) {
+        boolean reactive = requestMetaInfos.stream()
+                .anyMatch(requestMetaInfo -> Objects.equals(requestMetaInfo.getReturnValueType(), ReturnValueType.MONO)
+                        || Objects.equals(requestMetaInfo.getReturnValueType(), ReturnValueType.FLUX));
+        if (!reactive) {
+            return null;
+        }
+        if (!ClassUtils.isPresent(WEB_CLIENT_CLASS_NAME, restClientInterface.getClassLoader())) {
+            throw new RuntimeException("spring-webflux is required when methods of " + restClientInterface.getName() + " return Mono or Flux");
+        }
+        String webClientBeanName = EnvironmentPropUtils.tryFindRealVal(restClientAnnotation.webClientBeanName(), environment);
+        return StringUtils.isBlank(webClientBeanName)
+                ? WebClientRequestExecutor.createDefault(restClientSpiProvider, restTemplate)
+                : WebClientRequestExecutor.create(applicationContext.getBean(webClientBeanName), restTemplate);
+    }
+
     private static class DefaultRequestInterceptor extends RemoveNullQueryRequestInterceptor implements RequestInterceptor {
+
+        @Override
+        public boolean accessRequestBody() {
+            return false;
+        }
     }
 }
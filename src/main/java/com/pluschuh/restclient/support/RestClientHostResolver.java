@@ -4,7 +4,7 @@ import com.pluschuh.restclient.valueobject.RestClientRequestTemplate;
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * REST客户端域名解析器     TODO 后续可考虑load balance实现
+ * REST客户端域名解析器，配置了多个域名时默认使用LoadBalancingRestClientHostResolver
  *
  * @author pluschuh
  */
@@ -33,4 +33,23 @@ public interface RestClientHostResolver {
         }
         return url;
     }
+
+    /**
+     * 请求开始发送时回调，可用于负载均衡时统计各host的未完成请求数，默认不做任何处理。
+     * 对返回值为Mono或Flux的方法无效，每次重试与对冲请求分别回调，命中缓存时不回调
+     *
+     * @param url appendPath返回的url（可能已拼接请求参数）
+     */
+    default void onRequestStart(String url) {
+    }
+
+    /**
+     * 请求完成时回调，与onRequestStart成对出现，默认不做任何处理
+     *
+     * @param url          appendPath返回的url（可能已拼接请求参数）
+     * @param latencyNanos 请求耗时，单位为纳秒
+     * @param throwable    请求成功时为null，被取消时为CancellationException
+     */
+    default void onRequestComplete(String url, long latencyNanos, Throwable throwable) {
+    }
 }
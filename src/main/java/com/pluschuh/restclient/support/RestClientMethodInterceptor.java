@@ -14,8 +14,12 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * REST客户端方法拦截器
@@ -30,6 +34,11 @@ public class RestClientMethodInterceptor implements MethodInterceptor {
 
     private static final Constructor<MethodHandles.Lookup> lookupConstructor = initLookup();
 
+    /**
+     * java9及以上版本的MethodHandles.privateLookupIn方法，java8环境下为null
+     */
+    private static final Method privateLookupIn = initPrivateLookupIn();
+
     @Nonnull
     private final SimpleRestClient simpleRestClient;
 
@@ -49,14 +58,18 @@ public class RestClientMethodInterceptor implements MethodInterceptor {
 
             //被@IgnoreDefalt注释了的default方法
             if (originalRestClientMethodInfo.isIgnoreDefault()) {
-                if (Objects.isNull(lookupConstructor)) {
-                    LOGGER.warn("construct of MethodHandles.Lookup is null, which means @IgnoreDefault will not be effective, please make sure the program is running with Java8");
+                if (Objects.isNull(lookupConstructor) && Objects.isNull(privateLookupIn)) {
+                    LOGGER.warn("construct of MethodHandles.Lookup is null, which means @IgnoreDefault will not be effective");
                 } else {
                     Object proxy = ((ProxyMethodInvocation) invocation).getProxy();
-                    return findMethodHandle(method, lookupConstructor).bindTo(proxy).invokeWithArguments(arguments);
+                    return findMethodHandle(method).bindTo(proxy).invokeWithArguments(arguments);
                 }
             }
-            return simpleRestClient.sendRequest(originalRestClientMethodInfo, arguments);
+            Method fallbackMethod = simpleRestClient.findFallbackMethod(method);
+            if (Objects.isNull(fallbackMethod)) {
+                return simpleRestClient.sendRequest(originalRestClientMethodInfo, arguments);
+            }
+            return sendRequestWithFallback(originalRestClientMethodInfo, arguments, ((ProxyMethodInvocation) invocation).getProxy(), fallbackMethod);
         } catch (Throwable throwable) {
             LOGGER.error("exception when invoke");
             //TODO 定义error handler
@@ -64,6 +77,53 @@ public class RestClientMethodInterceptor implements MethodInterceptor {
         }
     }
 
+    /**
+     * 发送请求，失败时调用降级方法，返回值为CompletableFuture时在其失败后调用
+     */
+    @SuppressWarnings("unchecked")
+    private Object sendRequestWithFallback(SimpleRestClient.OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] arguments,
+                                           Object proxy, Method fallbackMethod) throws Throwable {
+        Object result;
+        try {
+            result = simpleRestClient.sendRequest(originalRestClientMethodInfo, arguments);
+        } catch (Throwable throwable) {
+            return invokeFallback(proxy, fallbackMethod, arguments, throwable);
+        }
+        if (!(result instanceof CompletableFuture)) {
+            return result;
+        }
+        return ((CompletableFuture<Object>) result).handle((value, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                return CompletableFuture.completedFuture(value);
+            }
+            try {
+                return (CompletableFuture<Object>) invokeFallback(proxy, fallbackMethod, arguments, throwable);
+            } catch (Throwable fallbackThrowable) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(fallbackThrowable);
+                return failed;
+            }
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * 调用降级方法，降级方法的最后一个参数为Throwable时传入异常
+     */
+    private Object invokeFallback(Object proxy, Method fallbackMethod, Object[] arguments, Throwable throwable) throws Throwable {
+        if (Objects.isNull(lookupConstructor) && Objects.isNull(privateLookupIn)) {
+            LOGGER.warn("construct of MethodHandles.Lookup is null, which means fallback method will not be effective");
+            throw throwable;
+        }
+        Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+        LOGGER.debug("call fallback method {} :: {}", fallbackMethod.getName(), cause.toString());
+        Object[] fallbackArguments = arguments;
+        if (fallbackMethod.getParameterCount() > arguments.length) {
+            fallbackArguments = Arrays.copyOf(arguments, arguments.length + 1);
+            fallbackArguments[arguments.length] = cause;
+        }
+        return findMethodHandle(fallbackMethod).bindTo(proxy).invokeWithArguments(fallbackArguments);
+    }
+
     /**
      * 查找方法处理器
      *
@@ -71,12 +131,20 @@ public class RestClientMethodInterceptor implements MethodInterceptor {
      * @return 方法处理器
      * @throws Exception 任何可能的异常
      */
-    private MethodHandle findMethodHandle(Method method, @Nonnull Constructor<MethodHandles.Lookup> constructor) throws Exception {
+    private MethodHandle findMethodHandle(Method method) throws Exception {
 
         MethodHandle handle = methodHandleCache.get(method);
         if (handle == null) {
-            // 仅java8环境有效
-            handle = constructor.newInstance(method.getDeclaringClass()).unreflectSpecial(method, method.getDeclaringClass());
+            Class<?> declaringClass = method.getDeclaringClass();
+            MethodHandles.Lookup lookup;
+            if (Objects.nonNull(lookupConstructor)) {
+                // java8环境
+                lookup = lookupConstructor.newInstance(declaringClass);
+            } else {
+                // java9及以上环境
+                lookup = (MethodHandles.Lookup) privateLookupIn.invoke(null, declaringClass, MethodHandles.lookup());
+            }
+            handle = lookup.unreflectSpecial(method, declaringClass);
             methodHandleCache.put(method, handle);
         }
 
@@ -87,11 +155,24 @@ public class RestClientMethodInterceptor implements MethodInterceptor {
         Constructor<MethodHandles.Lookup> constructor;
         try {
             constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+            //java9及以上版本在强封装下会抛出InaccessibleObjectException
+            ReflectionUtils.makeAccessible(constructor);
         } catch (Exception e) {
-            LOGGER.debug("hit exception when try to init construct of MethodHandles.Lookup, which means @IgnoreDefault will not be effective");
+            LOGGER.debug("hit exception when try to init construct of MethodHandles.Lookup, will try MethodHandles.privateLookupIn");
             return null;
         }
-        ReflectionUtils.makeAccessible(constructor);
         return constructor;
     }
+
+    private static Method initPrivateLookupIn() {
+        if (Objects.nonNull(lookupConstructor)) {
+            return null;
+        }
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (Exception e) {
+            LOGGER.debug("hit exception when try to find MethodHandles.privateLookupIn, which means @IgnoreDefault will not be effective");
+            return null;
+        }
+    }
 }
@@ -15,16 +15,22 @@ public class RestClientRequestContext {
     private final RestClientRequestTemplate requestTemplateBeforeInterceptor;
     private RestClientRequestTemplate requestTemplateAfterInterceptor;
     private final long startTimeMillis;
+    /**
+     * 各阶段的耗时，仅在ConfigOfDefaultRT启用了phaseTiming时存在，否则为null
+     */
+    private final RequestPhaseTimings phaseTimings;
 
     private static final RestClientRequestTemplate PENDING = RestClientRequestTemplate.copy(RestClientRequestTemplate.NULL);
 
     RestClientRequestContext(SimpleRestClient.OriginalRestClientMethodInfo originalRestClientMethodInfo,
                              RestClientRequestTemplate requestTemplateBeforeInterceptor,
-                             long startTimeMillis) {
+                             long startTimeMillis,
+                             RequestPhaseTimings phaseTimings) {
         this.originalRestClientMethodInfo = originalRestClientMethodInfo;
         this.requestTemplateBeforeInterceptor = RestClientRequestTemplate.copy(requestTemplateBeforeInterceptor);
         this.requestTemplateAfterInterceptor = PENDING;
         this.startTimeMillis = startTimeMillis;
+        this.phaseTimings = phaseTimings;
     }
 
     void refreshRequestTemplateAfterInterceptor(RestClientRequestTemplate requestTemplateAfterInterceptor) {
@@ -33,10 +39,12 @@ public class RestClientRequestContext {
 
     static RestClientRequestContext of(SimpleRestClient.OriginalRestClientMethodInfo originalRestClientMethodInfo,
                                        RestClientRequestTemplate requestTemplateBeforeInterceptor,
-                                       long startTimeMillis) {
+                                       long startTimeMillis,
+                                       RequestPhaseTimings phaseTimings) {
         return new RestClientRequestContext(originalRestClientMethodInfo,
                 requestTemplateBeforeInterceptor,
-                startTimeMillis);
+                startTimeMillis,
+                phaseTimings);
     }
 
 
@@ -1,6 +1,7 @@
 package com.pluschuh.restclient.support;
 
 import com.pluschuh.restclient.enums.RequestFieldType;
+import com.pluschuh.restclient.enums.ReturnValueType;
 import com.pluschuh.restclient.valueobject.RequestFieldValueObject;
 import org.springframework.http.HttpMethod;
 
@@ -29,6 +30,11 @@ public class RestClientRequestMetaInfo {
 
     private Type responseType;
 
+    /**
+     * 方法返回值类型，当为异步等类型时，responseType为其泛型参数的类型
+     */
+    private ReturnValueType returnValueType = ReturnValueType.SYNC;
+
     @SuppressWarnings("rawtypes")
     private Class<? extends ResponseTemplate> responseTemplateType;
 
@@ -91,6 +97,10 @@ public class RestClientRequestMetaInfo {
         return responseType;
     }
 
+    public ReturnValueType getReturnValueType() {
+        return returnValueType;
+    }
+
     @SuppressWarnings("rawtypes")
     public Class<? extends ResponseTemplate> getResponseTemplateType() {
         return responseTemplateType;
@@ -136,6 +146,10 @@ public class RestClientRequestMetaInfo {
         this.responseType = responseType;
     }
 
+    void setReturnValueType(@Nonnull ReturnValueType returnValueType) {
+        this.returnValueType = returnValueType;
+    }
+
     @SuppressWarnings("rawtypes")
     void setResponseTemplateType(Class<? extends ResponseTemplate> responseTemplateType) {
         this.responseTemplateType = responseTemplateType;
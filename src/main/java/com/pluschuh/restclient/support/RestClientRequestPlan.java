@@ -0,0 +1,270 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pluschuh.restclient.enums.RequestFieldType;
+import com.pluschuh.restclient.enums.ReturnValueType;
+import com.pluschuh.restclient.spi.RequestBodySerializer;
+import com.pluschuh.restclient.spi.RequestObjectConverter;
+import com.pluschuh.restclient.spi.provide.DefaultRequestBodySerializer;
+import com.pluschuh.restclient.valueobject.RequestFieldValueObject;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * REST客户端方法的请求计划，在RestClientFactory初始化时根据RestClientRequestMetaInfo为每个方法编译一次，之后不可变。
+ * 每次调用时只需按参数下标直接取值绑定，无需再遍历元数据信息重新划分参数
+ *
+ * @author pluschuh
+ */
+@Getter
+public final class RestClientRequestPlan {
+
+    /**
+     * 原始请求路径，如 /api/task，/api/product/{productId}/detail等
+     */
+    private final String path;
+
+    private final HttpMethod httpMethod;
+
+    /**
+     * 最终使用的请求内容类型，为空时已预先替换为JSON
+     */
+    private final String contentType;
+
+    /**
+     * 是否需要序列化请求体，GET与DELETE请求不需要
+     */
+    private final boolean bodyRequired;
+
+    /**
+     * 按方法参数下标排列的参数绑定器
+     */
+    private final ArgumentBinder[] argumentBinders;
+
+    /**
+     * 预编译的请求路径模板
+     */
+    private final CompiledPathTemplate pathTemplate;
+
+    private final int queryFieldCount;
+
+    private final int bodyFieldCount;
+
+    private final int headerFieldCount;
+
+    /**
+     * 根据contentType预先选定的请求体序列化器，可能为null，为null时使用客户端的请求体序列化器
+     */
+    private final RequestBodySerializer bodySerializer;
+
+    /**
+     * 唯一的请求体对象参数的绑定器，仅当请求体为JSON、方法只有一个可转json的请求体参数且路径参数不依赖请求体时存在
+     */
+    private final ArgumentBinder singleBodyBinder;
+
+    /**
+     * 直接序列化唯一请求体对象的ObjectWriter，按参数的声明类型预先创建，不存在时为null
+     */
+    private final ObjectWriter singleBodyWriter;
+
+    /**
+     * 方法返回值类型
+     */
+    private final ReturnValueType returnValueType;
+
+    /**
+     * 是否使用响应模板解析响应，响应模板类型为接口或抽象类时不使用
+     */
+    private final boolean responseTemplateUsed;
+
+    /**
+     * 实际反序列化的响应类型，使用响应模板时为响应模板类型与方法返回类型组合而成的泛型类型，如 Result&lt;List&lt;Product&gt;&gt;，
+     * 返回值为Flux&lt;Product&gt;时同样为 Result&lt;List&lt;Product&gt;&gt;，不使用响应模板时则为Product；
+     * 返回值为Stream&lt;Product&gt;或Iterator&lt;Product&gt;时为元素类型Product
+     */
+    private final Type resolvedResponseType;
+
+    private final ParameterizedTypeReference<?> responseTypeReference;
+
+    /**
+     * 预先构建的响应提取器，restTemplate为空时为null；流式返回值时为StreamingResponseExtractor，会接管响应的关闭
+     */
+    private final ResponseExtractor<Object> responseExtractor;
+
+    private RestClientRequestPlan(RestClientRequestMetaInfo requestMetaInfo, RequestBodySerializer requestBodySerializer, RestTemplate restTemplate) {
+        this.path = requestMetaInfo.getPath();
+        this.httpMethod = requestMetaInfo.getHttpMethod();
+        this.contentType = StringUtils.isBlank(requestMetaInfo.getContentType()) ? MediaType.APPLICATION_JSON_VALUE : requestMetaInfo.getContentType();
+        this.bodyRequired = !Objects.equals(httpMethod, HttpMethod.GET) && !Objects.equals(httpMethod, HttpMethod.DELETE);
+
+        List<RequestFieldValueObject> orderedRequestFields = requestMetaInfo.getOrderedRequestFields();
+        this.argumentBinders = new ArgumentBinder[orderedRequestFields.size()];
+        int pathVariableCount = 0, queryCount = 0, bodyCount = 0, headerCount = 0;
+        int index = 0;
+        for (RequestFieldValueObject requestField : orderedRequestFields) {
+            ArgumentBinder binder = new ArgumentBinder(index, requestField);
+            argumentBinders[index++] = binder;
+            if (Objects.equals(binder.getType(), RequestFieldType.PATH_VARIABLE)) {
+                pathVariableCount++;
+            } else if (Objects.equals(binder.getType(), RequestFieldType.QUERY)) {
+                queryCount++;
+            } else if (Objects.equals(binder.getType(), RequestFieldType.BODY)) {
+                bodyCount++;
+            } else if (Objects.equals(binder.getType(), RequestFieldType.HEADER)) {
+                headerCount++;
+            }
+        }
+        ArgumentBinder[] pathVariableBinders = new ArgumentBinder[pathVariableCount];
+        int pathVariableIndex = 0;
+        for (ArgumentBinder binder : argumentBinders) {
+            if (Objects.equals(binder.getType(), RequestFieldType.PATH_VARIABLE)) {
+                pathVariableBinders[pathVariableIndex++] = binder;
+            }
+        }
+        this.pathTemplate = CompiledPathTemplate.compile(this.path, pathVariableBinders,
+                Objects.nonNull(restTemplate) && CompiledPathTemplate.isEncodingRequired(restTemplate.getUriTemplateHandler()));
+        this.queryFieldCount = queryCount;
+        this.bodyFieldCount = bodyCount;
+        this.headerFieldCount = headerCount;
+        this.bodySerializer = Objects.isNull(requestBodySerializer) ? null : requestBodySerializer.select(this.contentType);
+        this.singleBodyBinder = findSingleBodyBinder(requestBodySerializer);
+        this.singleBodyWriter = Objects.isNull(singleBodyBinder) ? null
+                : ((DefaultRequestBodySerializer) requestBodySerializer).findObjectWriter(contentType, singleBodyBinder.getJavaType());
+
+        this.returnValueType = requestMetaInfo.getReturnValueType();
+        @SuppressWarnings("rawtypes")
+        Class<? extends ResponseTemplate> responseTemplateType = requestMetaInfo.getResponseTemplateType();
+        //流式返回值直接解析响应体，不使用响应模板
+        this.responseTemplateUsed = !StreamingResponseExtractor.isStreaming(returnValueType)
+                && !Modifier.isAbstract(responseTemplateType.getModifiers()) && !Modifier.isInterface(responseTemplateType.getModifiers());
+        if (responseTemplateUsed) {
+            ResolvableType dataType = ResolvableType.forType(requestMetaInfo.getResponseType());
+            //Flux的响应模板中的数据为元素的列表
+            if (Objects.equals(returnValueType, ReturnValueType.FLUX)) {
+                dataType = ResolvableType.forClassWithGenerics(List.class, dataType);
+            }
+            this.resolvedResponseType = ResolvableType.forClassWithGenerics(responseTemplateType, dataType).getType();
+        } else {
+            this.resolvedResponseType = requestMetaInfo.getResponseType();
+        }
+        this.responseTypeReference = ParameterizedTypeReference.forType(resolvedResponseType);
+        if (StreamingResponseExtractor.isStreaming(returnValueType)) {
+            this.responseExtractor = new StreamingResponseExtractor(returnValueType, resolvedResponseType, restTemplate);
+        } else {
+            this.responseExtractor = Objects.isNull(restTemplate) ? null : new PlannedResponseExtractor(resolvedResponseType, restTemplate);
+        }
+    }
+
+    private ArgumentBinder findSingleBodyBinder(RequestBodySerializer requestBodySerializer) {
+        //子类可能重写了序列化方式，仅默认的序列化器本身可以直接序列化
+        if (!bodyRequired || bodyFieldCount != 1 || Objects.isNull(requestBodySerializer)
+                || !Objects.equals(requestBodySerializer.getClass(), DefaultRequestBodySerializer.class)
+                || !Objects.equals(contentType, MediaType.APPLICATION_JSON_VALUE) || pathTemplate.hasUnboundSlot()) {
+            return null;
+        }
+        for (ArgumentBinder binder : argumentBinders) {
+            if (Objects.equals(binder.getType(), RequestFieldType.BODY)) {
+                return binder.isJsonFormatAble() && isPojo(binder.getJavaType()) ? binder : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 是否为可以直接序列化的普通java对象，Map、集合、数组、枚举及自定义了asMap的对象等均不是
+     */
+    private static boolean isPojo(Class<?> javaType) {
+        return !Objects.equals(javaType, Object.class)
+                && !javaType.isArray()
+                && !javaType.isEnum()
+                && !javaType.isInterface()
+                && !Modifier.isAbstract(javaType.getModifiers())
+                && !Map.class.isAssignableFrom(javaType)
+                && !Iterable.class.isAssignableFrom(javaType)
+                && !CharSequence.class.isAssignableFrom(javaType)
+                && !Number.class.isAssignableFrom(javaType)
+                && !RequestFieldJsonFormatAble.class.isAssignableFrom(javaType)
+                && !javaType.getName().startsWith("java.");
+    }
+
+    /**
+     * 编译请求计划
+     *
+     * @param requestMetaInfo       请求原始信息
+     * @param requestBodySerializer 客户端使用的请求体序列化器，可为null
+     * @param restTemplate          客户端使用的restTemplate，用于预先构建响应提取器，可为null
+     * @return 请求计划
+     */
+    static RestClientRequestPlan compile(@Nonnull RestClientRequestMetaInfo requestMetaInfo, RequestBodySerializer requestBodySerializer,
+                                         RestTemplate restTemplate) {
+        return new RestClientRequestPlan(requestMetaInfo, requestBodySerializer, restTemplate);
+    }
+
+    /**
+     * 根据预估的元素个数创建HashMap，避免扩容
+     */
+    static Map<String, Object> newMap(int expectedSize) {
+        return new HashMap<>(Math.max((int) (expectedSize / .75f) + 1, 4));
+    }
+
+    /**
+     * 创建请求头Map，已包含预先计算好的contentType
+     */
+    Map<String, Object> newRequestHeader() {
+        Map<String, Object> requestHeader = newMap(headerFieldCount + 1);
+        requestHeader.put(HttpHeaders.CONTENT_TYPE, contentType);
+        return requestHeader;
+    }
+
+    /**
+     * 参数绑定器，负责将某个下标的方法参数值放入对应的请求参数、请求体或请求头中
+     */
+    @Getter
+    public static final class ArgumentBinder {
+
+        private final int index;
+        private final String name;
+        private final RequestFieldType type;
+        private final Class<?> javaType;
+        private final boolean jsonFormatAble;
+
+        ArgumentBinder(int index, RequestFieldValueObject requestField) {
+            this.index = index;
+            this.name = requestField.getName();
+            this.type = requestField.getType();
+            this.javaType = requestField.getJavaType();
+            this.jsonFormatAble = requestField.isJsonFormatAble();
+        }
+
+        void bind(Object value, Map<String, Object> target, RequestObjectConverter requestObjectConverter) {
+            if (!jsonFormatAble) {
+                target.put(name, value);
+                return;
+            }
+            Map<String, Object> params;
+            if (value instanceof RequestFieldJsonFormatAble) {
+                params = ((RequestFieldJsonFormatAble) value).asMap(requestObjectConverter);
+            } else {
+                params = requestObjectConverter.convert(value);
+            }
+            if (Objects.nonNull(params)) {
+                target.putAll(params);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientRetry;
+
+import java.util.Objects;
+
+/**
+ * 重试预算，每个客户端一个的令牌桶：每次请求存入ratio个令牌，每秒补充minRetriesPerSecond个令牌，每次重试消耗一个令牌。
+ * 令牌数有上限，避免长时间的正常流量积累过多令牌后在故障时集中重试
+ *
+ * @author pluschuh
+ * @see RestClientRetry#budgetRatio()
+ */
+final class RetryBudget {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double ratio;
+
+    private final double minRetriesPerSecond;
+
+    /**
+     * 令牌数上限：10秒的补充量与100次请求的存入量中的较大者
+     */
+    private final double maxBalance;
+
+    private double balance;
+
+    private long lastRefillNanos;
+
+    RetryBudget(double ratio, int minRetriesPerSecond) {
+        this.ratio = Math.max(0, ratio);
+        this.minRetriesPerSecond = Math.max(0, minRetriesPerSecond);
+        this.maxBalance = Math.max(1, Math.max(this.minRetriesPerSecond * 10, this.ratio * 100));
+        this.balance = maxBalance;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 根据接口类上的注解创建，没有注解时使用注解的默认值
+     */
+    static RetryBudget of(RestClientRetry restClientRetry) {
+        if (Objects.isNull(restClientRetry)) {
+            restClientRetry = DefaultInfo.class.getAnnotation(RestClientRetry.class);
+        }
+        return new RetryBudget(restClientRetry.budgetRatio(), restClientRetry.minRetriesPerSecond());
+    }
+
+    /**
+     * 一次请求（不包括重试）存入令牌
+     */
+    synchronized void deposit() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * 尝试为一次重试取出令牌
+     *
+     * @return 令牌是否足够
+     */
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            balance = Math.min(maxBalance, balance + minRetriesPerSecond * elapsed / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+        }
+    }
+
+    @RestClientRetry
+    private static class DefaultInfo {
+
+    }
+}
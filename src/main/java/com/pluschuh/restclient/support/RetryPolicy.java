@@ -0,0 +1,117 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.annotation.RestClientRetry;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 某个方法的重试策略，由@RestClientRetry编译而来
+ *
+ * @author pluschuh
+ * @see RestClientRetry
+ */
+final class RetryPolicy {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    /**
+     * 异步重试使用的定时器，仅用于触发下一次尝试，请求本身仍以非阻塞的方式发送
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("rest-client-retry-timer-"));
+
+    private final int maxAttempts;
+
+    private final long backoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final double multiplier;
+
+    private final double jitter;
+
+    private final int[] retryOnStatus;
+
+    private final Class<? extends Throwable>[] retryOn;
+
+    private RetryPolicy(RestClientRetry restClientRetry) {
+        this.maxAttempts = Math.max(1, restClientRetry.maxAttempts());
+        this.backoffMillis = Math.max(0, restClientRetry.backoffUnit().toMillis(restClientRetry.backoff()));
+        this.maxBackoffMillis = Math.max(backoffMillis, restClientRetry.backoffUnit().toMillis(restClientRetry.maxBackoff()));
+        this.multiplier = Math.max(1, restClientRetry.multiplier());
+        this.jitter = Math.min(1, Math.max(0, restClientRetry.jitter()));
+        this.retryOnStatus = restClientRetry.retryOnStatus().clone();
+        Arrays.sort(this.retryOnStatus);
+        this.retryOn = restClientRetry.retryOn().clone();
+    }
+
+    /**
+     * 编译重试策略
+     *
+     * @param restClientRetry 注解，可为null
+     * @param httpMethod      请求方式
+     * @return 重试策略，不需要重试（没有注解、非幂等请求或最大尝试次数不大于1）时返回null
+     */
+    static RetryPolicy of(RestClientRetry restClientRetry, HttpMethod httpMethod) {
+        if (Objects.isNull(restClientRetry) || restClientRetry.maxAttempts() <= 1
+                || (!restClientRetry.retryNonIdempotent() && !isIdempotent(httpMethod))) {
+            return null;
+        }
+        return new RetryPolicy(restClientRetry);
+    }
+
+    /**
+     * 是否为幂等的请求方式
+     */
+    static boolean isIdempotent(HttpMethod httpMethod) {
+        return IDEMPOTENT_METHODS.contains(httpMethod);
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 异常是否可以重试：响应状态码在retryOnStatus中，或异常本身及其cause为retryOn中的类型
+     */
+    boolean isRetryable(Throwable throwable) {
+        if (throwable instanceof RestClientResponseException
+                && Arrays.binarySearch(retryOnStatus, ((RestClientResponseException) throwable).getRawStatusCode()) >= 0) {
+            return true;
+        }
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause() == cause ? null : cause.getCause()) {
+            for (Class<? extends Throwable> retryableType : retryOn) {
+                if (retryableType.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 第retry次重试前的等待时长，单位为毫秒
+     *
+     * @param retry 重试次数，从1开始
+     */
+    long backoffMillis(int retry) {
+        double backoff = Math.min(maxBackoffMillis, backoffMillis * Math.pow(multiplier, retry - 1));
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * 延迟执行下一次异步尝试
+     */
+    static void schedule(Runnable attempt, long delayMillis) {
+        TIMER.schedule(attempt, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
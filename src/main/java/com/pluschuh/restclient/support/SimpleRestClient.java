@@ -1,31 +1,61 @@
 package com.pluschuh.restclient.support;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pluschuh.restclient.annotation.RestClientCache;
+import com.pluschuh.restclient.annotation.RestClientCircuitBreaker;
+import com.pluschuh.restclient.annotation.RestClientConcurrencyLimit;
+import com.pluschuh.restclient.annotation.RestClientCollapser;
+import com.pluschuh.restclient.annotation.RestClientHedge;
 import com.pluschuh.restclient.annotation.RestClientRequest;
+import com.pluschuh.restclient.annotation.RestClientRetry;
+import com.pluschuh.restclient.annotation.RestClientSingleFlight;
+import com.pluschuh.restclient.enums.CircuitBreakerScope;
+import com.pluschuh.restclient.enums.ConcurrencyLimitScope;
+import com.pluschuh.restclient.enums.RequestPhase;
+import com.pluschuh.restclient.enums.ReturnValueType;
+import com.pluschuh.restclient.spi.CircuitBreakerListener;
 import com.pluschuh.restclient.spi.RequestBodySerializer;
+import com.pluschuh.restclient.spi.RequestLifecycleListener;
 import com.pluschuh.restclient.spi.RequestObjectConverter;
 import com.pluschuh.restclient.spi.RequestParamPathBuilder;
+import com.pluschuh.restclient.spi.ResponseCacheStore;
 import com.pluschuh.restclient.spi.provide.DefaultRequestBodySerializer;
 import com.pluschuh.restclient.spi.provide.DefaultRequestObjectConverter;
 import com.pluschuh.restclient.spi.provide.DefaultRequestParamPathBuilder;
-import com.pluschuh.restclient.utils.PathVariableUtils;
-import com.pluschuh.restclient.valueobject.PathVariableValueObject;
-import com.pluschuh.restclient.valueobject.RequestFieldValueObject;
+import com.pluschuh.restclient.spi.provide.LoggingCircuitBreakerListener;
+import com.pluschuh.restclient.spi.provide.NoOpRequestLifecycleListener;
+import com.pluschuh.restclient.spi.provide.SimpleResponseCacheStore;
 import com.pluschuh.restclient.valueobject.RestClientRequestTemplate;
 import com.pluschuh.restclient.valueobject.RestClientSpiProviderValueObject;
 import lombok.Data;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.util.Assert;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
-import sun.reflect.generics.reflectiveObjects.ParameterizedTypeImpl;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.pluschuh.restclient.spi.ResponseErrorHandlerOfDefaultRT.ERROR_HANDLED_FLAG;
 
@@ -49,8 +79,117 @@ public class SimpleRestClient {
 
     private final RequestParamPathBuilder requestParamPathBuilder;
 
+    private final ResponseCacheStore responseCacheStore;
+
+    private final CircuitBreakerListener circuitBreakerListener;
+
+    /**
+     * 是否允许直接序列化唯一的请求体对象，仅当使用默认的请求对象转换器时允许，保证与转换为Map后再序列化的结果一致
+     */
+    private final boolean singleBodyFastPathSupported;
+
+    /**
+     * 请求生命周期监听器，没有任何监听器时为null
+     */
+    private final RequestLifecycleListeners lifecycleListeners;
+
+    /**
+     * 是否记录请求各阶段的耗时，仅当使用默认的restTemplate且启用了phaseTiming时为true
+     */
+    private final boolean phaseTimingEnabled;
+
+    /**
+     * 非阻塞请求执行器，仅当使用默认的restTemplate时存在
+     */
+    private final OkHttpAsyncRequestExecutor asyncRequestExecutor;
+
+    /**
+     * 响应式请求执行器，仅当存在返回值为Mono或Flux的方法时存在
+     */
+    private final ReactiveRequestExecutor reactiveRequestExecutor;
+
     protected final Map<Method, OriginalRestClientMethodInfo> originalMethodInfos = new HashMap<>();
 
+    /**
+     * 被@RestClientCache注解的方法的响应缓存
+     */
+    private final Map<Method, ResponseCache> responseCaches = new HashMap<>();
+
+    /**
+     * 遵循HTTP缓存语义的响应缓存，仅当使用默认的restTemplate且启用了httpCacheMaxEntries时存在
+     */
+    private final Map<Method, HttpResponseCache> httpResponseCaches = new HashMap<>();
+
+    /**
+     * 被@RestClientSingleFlight作用的方法的并发请求合并器
+     */
+    private final Map<Method, SingleFlight> singleFlights = new HashMap<>();
+
+    /**
+     * 以流式的方式发送请求体的方法，不包括需要重试或对冲的方法；restTemplate不支持流式请求体时为空
+     */
+    private final Set<Method> streamingBodyMethods = new HashSet<>();
+
+    /**
+     * restTemplate是否注册了StreamingBodyHttpMessageConverter，为false时所有方法都不发送流式请求体
+     */
+    private final boolean streamingBodySupported;
+
+    /**
+     * 被@RestClientCollapser注解的方法的请求合并器
+     */
+    private final Map<Method, RequestCollapser> requestCollapsers = new HashMap<>();
+
+    /**
+     * 需要重试的方法的重试策略
+     */
+    private final Map<Method, RetryPolicy> retryPolicies = new HashMap<>();
+
+    /**
+     * 需要对冲的方法的对冲请求执行器
+     */
+    private final Map<Method, RequestHedger> requestHedgers = new HashMap<>();
+
+    /**
+     * 需要熔断的方法根据完整请求路径查找熔断器
+     */
+    private final Map<Method, Function<String, CircuitBreaker>> circuitBreakers = new HashMap<>();
+
+    /**
+     * 按host共享的熔断器，key为host:port
+     */
+    private final Map<String, CircuitBreaker> hostCircuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * 熔断的方法对应的降级方法
+     */
+    private final Map<Method, Method> fallbackMethods = new HashMap<>();
+
+    /**
+     * 方法的请求指标
+     */
+    private final Map<Method, RequestMetrics> requestMetrics = new HashMap<>();
+
+    /**
+     * 需要限制并发的方法根据完整请求路径查找并发限制器
+     */
+    private final Map<Method, Function<String, ConcurrencyLimiter>> concurrencyLimiters = new HashMap<>();
+
+    /**
+     * 按host共享的并发限制器，key为host:port
+     */
+    private final Map<String, ConcurrencyLimiter> hostConcurrencyLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * 接口类被@RestClientConcurrencyLimit注解时所有方法共用的并发限制器查找函数，否则为null
+     */
+    private final Function<String, ConcurrencyLimiter> concurrencyLimiter;
+
+    /**
+     * 客户端所有方法共享的重试预算
+     */
+    private final RetryBudget retryBudget;
+
     static final ThreadLocal<RestClientRequestContext> CURRENT_REQUEST_CONTEXT = new ThreadLocal<>();
 
     protected void addOriginalMethodInfo(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
@@ -58,11 +197,217 @@ public class SimpleRestClient {
         if (Objects.isNull(method) || !Objects.equals(method.getDeclaringClass(), metaDataClz)) {
             throw new RuntimeException("not valid method");
         }
+        if (Objects.isNull(originalRestClientMethodInfo.getRequestPlan())) {
+            RestClientRequestPlan requestPlan = RestClientRequestPlan.compile(originalRestClientMethodInfo.getRestClientRequestMetaInfo(),
+                    requestBodySerializer, restTemplate);
+            originalRestClientMethodInfo = new OriginalRestClientMethodInfo(method, originalRestClientMethodInfo.getRestClientRequestMetaInfo(),
+                    originalRestClientMethodInfo.getRequestInterceptor(), originalRestClientMethodInfo.getHostResolver(), requestPlan);
+        }
+        if (Objects.equals(originalRestClientMethodInfo.getRequestPlan().getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE)
+                && Objects.isNull(asyncRequestExecutor)) {
+            LOGGER.warn("{} returns CompletableFuture but restTemplate {} is not a DefaultRestTemplate, it will be executed synchronously",
+                    method.getName(), restTemplate.getClass().getName());
+        }
+        if (isReactive(originalRestClientMethodInfo.getRequestPlan()) && Objects.isNull(reactiveRequestExecutor)) {
+            throw new RuntimeException(method.getName() + " returns Mono or Flux but no reactive request executor is configured");
+        }
+        RestClientCache restClientCache = method.getAnnotation(RestClientCache.class);
+        if (Objects.nonNull(restClientCache)) {
+            if (!isCacheable(originalRestClientMethodInfo.getRequestPlan())) {
+                throw new RuntimeException(method.getName() + " is annotated with @RestClientCache but is not a GET method returning an object or CompletableFuture");
+            }
+            responseCaches.put(method, ResponseCache.create(method, restClientCache, responseCacheStore));
+        }
+        int httpCacheMaxEntries = restTemplate instanceof DefaultRestTemplate
+                ? ((DefaultRestTemplate) restTemplate).getConfigOfDefaultRT().httpCacheMaxEntries() : 0;
+        if (httpCacheMaxEntries > 0 && isCacheable(originalRestClientMethodInfo.getRequestPlan())) {
+            httpResponseCaches.put(method, HttpResponseCache.create(method, httpCacheMaxEntries, responseCacheStore));
+        }
+        RestClientSingleFlight restClientSingleFlight = method.getAnnotation(RestClientSingleFlight.class);
+        if (Objects.nonNull(restClientSingleFlight) && !isCacheable(originalRestClientMethodInfo.getRequestPlan())) {
+            throw new RuntimeException(method.getName() + " is annotated with @RestClientSingleFlight but is not a GET method returning an object or CompletableFuture");
+        }
+        if (Objects.isNull(restClientSingleFlight)) {
+            restClientSingleFlight = metaDataClz.getAnnotation(RestClientSingleFlight.class);
+        }
+        if (Objects.nonNull(restClientSingleFlight) && isCacheable(originalRestClientMethodInfo.getRequestPlan())) {
+            singleFlights.put(method, SingleFlight.create(restClientSingleFlight,
+                    originalRestClientMethodInfo.getRestClientRequestMetaInfo().getResponseType(), restTemplate));
+        }
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        RestClientRetry restClientRetry = method.getAnnotation(RestClientRetry.class);
+        if (Objects.isNull(restClientRetry)) {
+            restClientRetry = metaDataClz.getAnnotation(RestClientRetry.class);
+        }
+        if (isRetryable(requestPlan)) {
+            RetryPolicy retryPolicy = RetryPolicy.of(restClientRetry, requestPlan.getHttpMethod());
+            if (Objects.nonNull(retryPolicy)) {
+                retryPolicies.put(method, retryPolicy);
+            }
+        }
+        RestClientHedge restClientHedge = method.getAnnotation(RestClientHedge.class);
+        if (Objects.nonNull(restClientHedge) && !isHedgeable(requestPlan)) {
+            throw new RuntimeException(method.getName() + " is annotated with @RestClientHedge but is not an idempotent method returning an object or CompletableFuture");
+        }
+        if (Objects.isNull(restClientHedge)) {
+            restClientHedge = metaDataClz.getAnnotation(RestClientHedge.class);
+        }
+        if (Objects.nonNull(restClientHedge) && isHedgeable(requestPlan)) {
+            if (Objects.isNull(asyncRequestExecutor)) {
+                LOGGER.warn("{} is annotated with @RestClientHedge but restTemplate {} is not a DefaultRestTemplate, requests will not be hedged",
+                        method.getName(), restTemplate.getClass().getName());
+            } else {
+                requestHedgers.put(method, RequestHedger.create(method, restClientHedge));
+            }
+        }
+        RestClientCircuitBreaker restClientCircuitBreaker = method.getAnnotation(RestClientCircuitBreaker.class);
+        if (Objects.nonNull(restClientCircuitBreaker) && !isRetryable(requestPlan)) {
+            throw new RuntimeException(method.getName() + " is annotated with @RestClientCircuitBreaker but does not return an object or CompletableFuture");
+        }
+        if (Objects.nonNull(restClientCircuitBreaker) && StringUtils.isNotBlank(restClientCircuitBreaker.fallback())) {
+            fallbackMethods.put(method, findFallbackMethod(method, restClientCircuitBreaker.fallback()));
+        }
+        if (Objects.isNull(restClientCircuitBreaker)) {
+            restClientCircuitBreaker = metaDataClz.getAnnotation(RestClientCircuitBreaker.class);
+        }
+        if (Objects.nonNull(restClientCircuitBreaker) && isRetryable(requestPlan)) {
+            circuitBreakers.put(method, createCircuitBreaker(method, restClientCircuitBreaker));
+        }
+        requestMetrics.put(method, RequestMetrics.create(method));
+        if (Objects.nonNull(concurrencyLimiter) && isRetryable(requestPlan)) {
+            concurrencyLimiters.put(method, concurrencyLimiter);
+        }
+        RestClientRequest restClientRequest = method.getAnnotation(RestClientRequest.class);
+        if (Objects.nonNull(restClientRequest) && restClientRequest.streamingBody()) {
+            //重试与对冲的各次尝试复用同一个请求体，仍在发送前序列化一次
+            if (!streamingBodySupported) {
+                LOGGER.warn("{} requests a streaming body but the rest template has no StreamingBodyHttpMessageConverter, "
+                        + "the body will be serialized before sending", method.getName());
+            } else if (retryPolicies.containsKey(method) || requestHedgers.containsKey(method)) {
+                LOGGER.warn("{} requests a streaming body but is retried or hedged, the body will be serialized once and reused by every attempt",
+                        method.getName());
+            } else {
+                streamingBodyMethods.add(method);
+            }
+        }
+        RestClientCollapser restClientCollapser = method.getAnnotation(RestClientCollapser.class);
+        if (Objects.nonNull(restClientCollapser)) {
+            requestCollapsers.put(method, createRequestCollapser(method, restClientCollapser, originalRestClientMethodInfo.getRequestPlan()));
+        }
         originalMethodInfos.put(method, originalRestClientMethodInfo);
     }
 
+    private RequestCollapser createRequestCollapser(Method method, RestClientCollapser restClientCollapser, RestClientRequestPlan requestPlan) {
+        if (method.getParameterCount() != 1 || (!Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.SYNC)
+                && !Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE))) {
+            throw new RuntimeException(method.getName() + " is annotated with @RestClientCollapser but does not have exactly one parameter "
+                    + "or does not return an object or CompletableFuture");
+        }
+        Method batchMethod = findBatchMethod(restClientCollapser.batchMethod());
+        return new RequestCollapser(restClientCollapser, keys -> {
+            OriginalRestClientMethodInfo batchMethodInfo = findOriginalMethodInfo(batchMethod);
+            Assert.state(Objects.nonNull(batchMethodInfo), "batch method " + batchMethod.getName() + " is not a rest client method");
+            //默认的restTemplate以非阻塞的方式发送批量请求，不占用线程等待响应
+            return Objects.isNull(asyncRequestExecutor) ? sendRequest(batchMethodInfo, new Object[]{keys})
+                    : sendRequestAsync(batchMethodInfo, new Object[]{keys});
+        }, Objects.nonNull(asyncRequestExecutor));
+    }
+
+    private Function<String, CircuitBreaker> createCircuitBreaker(Method method, RestClientCircuitBreaker restClientCircuitBreaker) {
+        if (Objects.equals(restClientCircuitBreaker.scope(), CircuitBreakerScope.HOST)) {
+            return fullUrl -> hostCircuitBreakers.computeIfAbsent(hostOf(fullUrl),
+                    host -> CircuitBreaker.create(metaDataClz.getName() + "@" + host, restClientCircuitBreaker, circuitBreakerListener));
+        }
+        CircuitBreaker circuitBreaker = CircuitBreaker.create(ResponseCache.nameOf(method), restClientCircuitBreaker, circuitBreakerListener);
+        return fullUrl -> circuitBreaker;
+    }
+
+    private Function<String, ConcurrencyLimiter> createConcurrencyLimiter(RestClientConcurrencyLimit restClientConcurrencyLimit) {
+        if (Objects.isNull(restClientConcurrencyLimit)) {
+            return null;
+        }
+        if (Objects.equals(restClientConcurrencyLimit.scope(), ConcurrencyLimitScope.HOST)) {
+            return fullUrl -> hostConcurrencyLimiters.computeIfAbsent(hostOf(fullUrl),
+                    host -> ConcurrencyLimiter.create(metaDataClz.getName() + "@" + host, restClientConcurrencyLimit));
+        }
+        ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.create(metaDataClz.getName(), restClientConcurrencyLimit);
+        return fullUrl -> concurrencyLimiter;
+    }
+
+    /**
+     * 完整请求路径中的host:port
+     */
+    private static String hostOf(String fullUrl) {
+        int start = fullUrl.indexOf("://");
+        return fullUrl.substring(start < 0 ? 0 : start + 3, authorityEnd(fullUrl));
+    }
+
+    /**
+     * 完整请求路径中host:port之后的位置
+     */
+    private static int authorityEnd(String fullUrl) {
+        int start = fullUrl.indexOf("://");
+        int end = start < 0 ? 0 : start + 3;
+        while (end < fullUrl.length() && "/?#".indexOf(fullUrl.charAt(end)) < 0) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 查找降级方法：未被@RestClientRequest注解的default方法，参数类型与原方法相同或多一个Throwable类型的参数，返回值类型与原方法相同
+     */
+    private Method findFallbackMethod(Method method, String name) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (Method candidate : metaDataClz.getDeclaredMethods()) {
+            if (!Objects.equals(candidate.getName(), name) || !candidate.isDefault() || Objects.nonNull(candidate.getAnnotation(RestClientRequest.class))
+                    || !Objects.equals(candidate.getGenericReturnType(), method.getGenericReturnType())) {
+                continue;
+            }
+            Class<?>[] candidateParameterTypes = candidate.getParameterTypes();
+            if (Arrays.equals(candidateParameterTypes, parameterTypes) || (candidateParameterTypes.length == parameterTypes.length + 1
+                    && Objects.equals(candidateParameterTypes[parameterTypes.length], Throwable.class)
+                    && Arrays.equals(Arrays.copyOf(candidateParameterTypes, parameterTypes.length), parameterTypes))) {
+                return candidate;
+            }
+        }
+        throw new RuntimeException("can not find fallback method " + name + " for " + method.getName() + " in " + metaDataClz.getName()
+                + ", it should be a default method without @RestClientRequest, with the same parameters (optionally followed by a Throwable) and return type");
+    }
+
+    /**
+     * 查找批量方法：只有一个List类型的参数，返回值为Collection、Map或对应的CompletableFuture
+     */
+    private Method findBatchMethod(String name) {
+        for (Method candidate : metaDataClz.getDeclaredMethods()) {
+            if (!Objects.equals(candidate.getName(), name) || candidate.getParameterCount() != 1
+                    || !candidate.getParameterTypes()[0].isAssignableFrom(ArrayList.class)) {
+                continue;
+            }
+            ResolvableType returnType = ResolvableType.forMethodReturnType(candidate);
+            if (Objects.equals(returnType.resolve(), CompletableFuture.class)) {
+                returnType = returnType.getGeneric(0);
+            }
+            Class<?> resolvedReturnType = returnType.resolve(Object.class);
+            if (Collection.class.isAssignableFrom(resolvedReturnType) || Map.class.isAssignableFrom(resolvedReturnType)) {
+                return candidate;
+            }
+        }
+        throw new RuntimeException("can not find batch method " + name + " with a single List parameter returning a Collection or a Map in "
+                + metaDataClz.getName());
+    }
+
     public SimpleRestClient(Class<?> metaDataClz, List<OriginalRestClientMethodInfo> originalMethodInfos,
                             RestTemplate restTemplate, RestClientSpiProviderValueObject spiProvider) {
+        this(metaDataClz, originalMethodInfos, restTemplate, spiProvider, null, Collections.emptyList());
+    }
+
+    /**
+     * @param lifecycleListenerBeans spring容器中的请求生命周期监听器，与spi指定的监听器一起回调
+     */
+    SimpleRestClient(Class<?> metaDataClz, List<OriginalRestClientMethodInfo> originalMethodInfos,
+                     RestTemplate restTemplate, RestClientSpiProviderValueObject spiProvider, ReactiveRequestExecutor reactiveRequestExecutor,
+                     List<RequestLifecycleListener> lifecycleListenerBeans) {
         Assert.notNull(metaDataClz, "metaDataClz must not be null");
         Assert.notNull(originalMethodInfos, "originalMethodInfos must not be null");
         Assert.notNull(restTemplate, "restTemplate must not be null");
@@ -70,12 +415,34 @@ public class SimpleRestClient {
         this.metaDataClz = metaDataClz;
         LOGGER = LoggerFactory.getLogger(metaDataClz);
         this.restTemplate = restTemplate;
+        //不修改外部传入的restTemplate，没有流式请求体的消息转换器时不发送流式请求体
+        this.streamingBodySupported = StreamingBodyHttpMessageConverter.isRegistered(restTemplate);
         this.requestObjectConverter =
                 SpiProviderHelper.obtainProvider(RequestObjectConverter.class, spiProvider.requestObjectConvert(), DefaultRequestObjectConverter::new);
         this.requestBodySerializer =
                 SpiProviderHelper.obtainProvider(RequestBodySerializer.class, spiProvider.requestBodySerializer(), DefaultRequestBodySerializer::new);
         this.requestParamPathBuilder =
                 SpiProviderHelper.obtainProvider(RequestParamPathBuilder.class, spiProvider.requestParamPathBuilder(), DefaultRequestParamPathBuilder::new);
+        this.responseCacheStore =
+                SpiProviderHelper.obtainProvider(ResponseCacheStore.class, spiProvider.responseCacheStore(), SimpleResponseCacheStore::new);
+        this.circuitBreakerListener = SpiProviderHelper.obtainProvider(CircuitBreakerListener.class, spiProvider.circuitBreakerListener(),
+                LoggingCircuitBreakerListener::new);
+        this.singleBodyFastPathSupported = Objects.equals(requestObjectConverter.getClass(), DefaultRequestObjectConverter.class);
+        RequestLifecycleListener lifecycleListener = SpiProviderHelper.obtainProvider(RequestLifecycleListener.class,
+                spiProvider.requestLifecycleListener(), NoOpRequestLifecycleListener::new);
+        List<RequestLifecycleListener> lifecycleListenerList = new ArrayList<>();
+        if (!Objects.equals(lifecycleListener.getClass(), NoOpRequestLifecycleListener.class)) {
+            lifecycleListenerList.add(lifecycleListener);
+        }
+        lifecycleListenerList.addAll(lifecycleListenerBeans);
+        this.lifecycleListeners = RequestLifecycleListeners.of(lifecycleListenerList);
+        this.phaseTimingEnabled = restTemplate instanceof DefaultRestTemplate
+                && ((DefaultRestTemplate) restTemplate).getConfigOfDefaultRT().phaseTimingEnabled();
+        this.asyncRequestExecutor = restTemplate instanceof DefaultRestTemplate
+                ? new OkHttpAsyncRequestExecutor(((DefaultRestTemplate) restTemplate).getOkHttpClient(), restTemplate) : null;
+        this.reactiveRequestExecutor = reactiveRequestExecutor;
+        this.retryBudget = RetryBudget.of(metaDataClz.getAnnotation(RestClientRetry.class));
+        this.concurrencyLimiter = createConcurrencyLimiter(metaDataClz.getAnnotation(RestClientConcurrencyLimit.class));
         originalMethodInfos.forEach(this::addOriginalMethodInfo);
     }
 
@@ -83,60 +450,105 @@ public class SimpleRestClient {
      * 发送请求并获取响应，核心逻辑
      */
     public Object sendRequest(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
-        RequestInterceptor requestInterceptor = originalRestClientMethodInfo.getRequestInterceptor();
-        RestClientHostResolver hostResolver = originalRestClientMethodInfo.getHostResolver();
-        RestClientRequestMetaInfo restClientRequestMetaInfo = originalRestClientMethodInfo.getRestClientRequestMetaInfo();
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        RequestCollapser requestCollapser = requestCollapsers.isEmpty() ? null : requestCollapsers.get(originalRestClientMethodInfo.getJavaMethod());
+        if (Objects.nonNull(requestCollapser)) {
+            CompletableFuture<Object> future = requestCollapser.submit(paramValues[0]);
+            return Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE) ? future : RequestCollapser.join(future);
+        }
+        if (Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE)) {
+            return sendRequestAsync(originalRestClientMethodInfo, paramValues);
+        }
+        //对冲请求依赖可取消的非阻塞请求执行器，返回值为普通对象时发送后等待结果
+        if (Objects.nonNull(findRequestHedger(originalRestClientMethodInfo))) {
+            return RequestCollapser.join(sendRequestAsync(originalRestClientMethodInfo, paramValues));
+        }
+        if (isReactive(requestPlan)) {
+            return sendRequestReactive(originalRestClientMethodInfo, paramValues);
+        }
+        if (StreamingResponseExtractor.isStreaming(requestPlan.getReturnValueType())) {
+            return sendRequestStreaming(originalRestClientMethodInfo, paramValues);
+        }
+        return sendRequestSync(originalRestClientMethodInfo, paramValues);
+    }
+
+    /**
+     * 是否可以缓存返回数据，仅限返回值为普通对象或CompletableFuture的GET请求
+     */
+    private static boolean isCacheable(RestClientRequestPlan requestPlan) {
+        return Objects.equals(requestPlan.getHttpMethod(), HttpMethod.GET)
+                && (Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.SYNC)
+                || Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE));
+    }
+
+    /**
+     * 是否可以重试，仅限返回值为普通对象或CompletableFuture的请求
+     */
+    private static boolean isRetryable(RestClientRequestPlan requestPlan) {
+        return Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.SYNC)
+                || Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.COMPLETABLE_FUTURE);
+    }
+
+    /**
+     * 是否可以对冲，仅限返回值为普通对象或CompletableFuture的幂等请求
+     */
+    private static boolean isHedgeable(RestClientRequestPlan requestPlan) {
+        return isRetryable(requestPlan) && RetryPolicy.isIdempotent(requestPlan.getHttpMethod());
+    }
+
+    private static boolean isReactive(RestClientRequestPlan requestPlan) {
+        return Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.MONO)
+                || Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.FLUX);
+    }
+
+    private Object sendRequestSync(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
         long start = System.currentTimeMillis();
         LOGGER.debug("start to parse and sending request ...");
+        RequestLifecycleListeners listeners = lifecycleListeners;
+        long startNanos = Objects.isNull(listeners) ? 0 : System.nanoTime();
+        if (Objects.nonNull(listeners)) {
+            listeners.onStart(originalRestClientMethodInfo.getJavaMethod(), paramValues);
+        }
+        Object result = null;
+        Throwable failure = null;
         try {
-            RestClientRequestTemplate requestTemplate = buildRequestTemplate(hostResolver, restClientRequestMetaInfo, paramValues);
-            RestClientRequestContext restClientRequestContext = RestClientRequestContext.of(originalRestClientMethodInfo, requestTemplate, start);
-            CURRENT_REQUEST_CONTEXT.set(restClientRequestContext);
-            LOGGER.debug("requestTemplate before interceptor :: {}", requestTemplate);
-            LOGGER.debug("withing requestInterceptor :: {}", requestInterceptor.getClass().getName());
-            requestInterceptor.apply(requestTemplate, restClientRequestMetaInfo);
-            LOGGER.debug("requestTemplate after interceptor :: {}", requestTemplate);
-            restClientRequestContext.refreshRequestTemplateAfterInterceptor(requestTemplate);
-            //拼装请求
-            String fullUrl = buildFullUrl(requestTemplate, hostResolver);
-            HttpEntity<?> httpEntity = buildHttpEntity(requestTemplate, restClientRequestMetaInfo);
-            @SuppressWarnings("rawtypes")
-            Class<? extends ResponseTemplate> responseTemplateType = restClientRequestMetaInfo.getResponseTemplateType();
-            Type responseType = restClientRequestMetaInfo.getResponseType();
-            LOGGER.debug("trying to {} unexpanded {} with {}", requestTemplate.getHttpMethod(), fullUrl, httpEntity);
-            LOGGER.debug("let restTemplate {} to handle it", restTemplate.getClass().getSimpleName());
-            if (Modifier.isAbstract(responseTemplateType.getModifiers()) || Modifier.isInterface(responseTemplateType.getModifiers())) {    //TODO 抽象类是否需要排除？
-                LOGGER.debug("response templateType {} is an interface or abstract class, will not use it", responseTemplateType.getName());
-                LOGGER.debug("will directly use response type {}", responseType);
-                ResponseEntity<?> response;
-                if ((responseType instanceof Class)) {
-                    Class<?> clz = (Class<?>) responseType;
-                    response = restTemplate.exchange(fullUrl, restClientRequestMetaInfo.getHttpMethod(), httpEntity, clz);
-                } else if (responseType instanceof ParameterizedTypeImpl) {
-                    response = restTemplate.exchange(fullUrl, restClientRequestMetaInfo.getHttpMethod(), httpEntity, ParameterizedTypeReference.forType(responseType));
-                } else {
-                    // 不会走到这里, 因为responseType要么为class要么为ParameterizedTypeImpl
-                    response = restTemplate.exchange(fullUrl, restClientRequestMetaInfo.getHttpMethod(), httpEntity, ParameterizedTypeReference.forType(responseType));
+            PreparedRequest preparedRequest = prepareRequest(originalRestClientMethodInfo, paramValues, start);
+            if (Objects.nonNull(listeners)) {
+                listeners.onRequestBuilt(originalRestClientMethodInfo.getJavaMethod(), preparedRequest.getRequestContext(), preparedRequest.getFullUrl());
+            }
+            ResponseCache responseCache = findResponseCache(originalRestClientMethodInfo);
+            String cacheKey = Objects.isNull(responseCache) ? null
+                    : responseCache.keyOf(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders());
+            if (Objects.nonNull(responseCache)) {
+                Object cached = responseCache.get(cacheKey);
+                if (Objects.nonNull(cached)) {
+                    LOGGER.debug("response cache {} hit", responseCache.getName());
+                    result = cached;
+                    return result;
                 }
-                Object body = response.getBody();
-                LOGGER.debug("response body is {}", body);
-                return body;
+            }
+            LOGGER.debug("let restTemplate {} to handle it", restTemplate.getClass().getSimpleName());
+            SingleFlight singleFlight = findSingleFlight(originalRestClientMethodInfo);
+            if (Objects.isNull(singleFlight)) {
+                result = execute(preparedRequest, originalRestClientMethodInfo);
             } else {
-                LOGGER.debug("response type is {} with templateType {}", responseType, responseTemplateType.getName());
-                ParameterizedTypeReference<ResponseTemplate<?>> typeReference = ParameterizedTypeReference.forType(makeType(responseTemplateType, responseType));
-                ResponseEntity<ResponseTemplate<?>> response =
-                        restTemplate.exchange(fullUrl, restClientRequestMetaInfo.getHttpMethod(), httpEntity, typeReference);
-                ResponseTemplate<?> responseTemplate = response.getBody();
-                LOGGER.debug("response body is {}", responseTemplate);
-                if (Objects.isNull(responseTemplate)) {
-                    LOGGER.warn("responseTemplate is null, will return null");
-                    return null;
-                }
-                LOGGER.debug("start to callback responseTemplate");
-                responseTemplate.callBack(restClientRequestContext);
-                LOGGER.debug("callback done, will return data in responseTemplate");
-                return responseTemplate.data();
+                String singleFlightKey = singleFlight.keyOf(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders());
+                result = singleFlight.execute(singleFlightKey, () -> {
+                    try {
+                        return execute(preparedRequest, originalRestClientMethodInfo);
+                    } catch (RuntimeException ex) {
+                        //错误已被处理时，等待的调用同样得到null
+                        if (isErrorHandled()) {
+                            return null;
+                        }
+                        throw ex;
+                    }
+                });
             }
+            if (Objects.nonNull(responseCache) && !isErrorHandled()) {
+                responseCache.put(cacheKey, result);
+            }
+            return result;
         } catch (Throwable ex) {
             Boolean errorHandledFlag = ERROR_HANDLED_FLAG.get();
             //如果在http的响应中有错误，则一般在extractData时也会有异常，此处只要处理过异常，则不再抛出
@@ -145,44 +557,724 @@ public class SimpleRestClient {
                 return null;
             } else {
                 LOGGER.error("exception when call api with rest client {}", metaDataClz.getSimpleName(), ex);
+                failure = ex;
                 throw ex;
             }
         } finally {
+            RestClientRequestContext restClientRequestContext = CURRENT_REQUEST_CONTEXT.get();
+            if (Objects.nonNull(listeners)) {
+                listeners.onFinish(originalRestClientMethodInfo.getJavaMethod(), restClientRequestContext, result, failure, System.nanoTime() - startNanos);
+            }
             CURRENT_REQUEST_CONTEXT.remove();
             ERROR_HANDLED_FLAG.remove();
             long end = System.currentTimeMillis();
             LOGGER.debug("end of send request, cost {} ms ...", end - start);
+            if (Objects.nonNull(restClientRequestContext) && Objects.nonNull(restClientRequestContext.getPhaseTimings())) {
+                LOGGER.debug("phase timings of request :: {}", restClientRequestContext.getPhaseTimings());
+            }
         }
 
     }
 
+    /**
+     * 发送请求并提取返回数据，存在重试策略时按策略重试，每次尝试复用同一个已组装好的请求
+     */
+    private Object execute(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        RetryPolicy retryPolicy = findRetryPolicy(originalRestClientMethodInfo);
+        if (Objects.isNull(retryPolicy)) {
+            return exchangeGuarded(preparedRequest, originalRestClientMethodInfo);
+        }
+        retryBudget.deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return exchangeGuarded(attempt == 1 ? preparedRequest : reselectHost(preparedRequest, originalRestClientMethodInfo),
+                        originalRestClientMethodInfo);
+            } catch (RuntimeException ex) {
+                if (!shouldRetry(retryPolicy, attempt, ex)) {
+                    throw ex;
+                }
+                long backoffMillis = retryPolicy.backoffMillis(attempt);
+                LOGGER.warn("attempt {} of {} failed, will retry in {} ms :: {}", attempt, retryPolicy.getMaxAttempts(), backoffMillis, ex.toString());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * 发送一次请求，存在并发限制器时先获取名额，存在熔断器时经过熔断器
+     */
+    private Object exchangeGuarded(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        CircuitBreaker circuitBreaker = findCircuitBreaker(originalRestClientMethodInfo, preparedRequest.getFullUrl());
+        Supplier<Object> exchange = Objects.isNull(circuitBreaker) ? () -> exchange(preparedRequest, originalRestClientMethodInfo)
+                : () -> circuitBreaker.execute(() -> exchange(preparedRequest, originalRestClientMethodInfo));
+        ConcurrencyLimiter concurrencyLimiter = findConcurrencyLimiter(originalRestClientMethodInfo, preparedRequest.getFullUrl());
+        return Objects.isNull(concurrencyLimiter) ? exchange.get() : concurrencyLimiter.execute(exchange);
+    }
+
+    /**
+     * 以非阻塞的方式按重试策略重试，每次尝试由attempt发起，重试前的等待不占用线程；取消返回的CompletableFuture会同时取消正在进行的尝试
+     */
+    private CompletableFuture<Object> executeAsync(Supplier<CompletableFuture<Object>> attempt, RetryPolicy retryPolicy) {
+        retryBudget.deposit();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        attemptAsync(attempt, retryPolicy, 1, result);
+        return result;
+    }
+
+    private void attemptAsync(Supplier<CompletableFuture<Object>> attempt, RetryPolicy retryPolicy, int attemptNumber, CompletableFuture<Object> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<Object> current = attempt.get();
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                current.cancel(true);
+            }
+        });
+        current.whenComplete((value, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                result.complete(value);
+                return;
+            }
+            //错误已被处理时不重试，原样传递以便在最外层转换为null
+            if (Objects.nonNull(ErrorHandledException.find(throwable))) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            Throwable cause = throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+            if (result.isDone() || !shouldRetry(retryPolicy, attemptNumber, cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            long backoffMillis = retryPolicy.backoffMillis(attemptNumber);
+            LOGGER.warn("attempt {} of {} failed, will retry in {} ms :: {}", attemptNumber, retryPolicy.getMaxAttempts(), backoffMillis, cause.toString());
+            RetryPolicy.schedule(() -> attemptAsync(attempt, retryPolicy, attemptNumber + 1, result), backoffMillis);
+        });
+    }
+
+    /**
+     * 是否重试：错误未被处理、未达到最大尝试次数、异常可重试且重试预算充足
+     */
+    private boolean shouldRetry(RetryPolicy retryPolicy, int attempt, Throwable throwable) {
+        return !isErrorHandled() && attempt < retryPolicy.getMaxAttempts() && retryPolicy.isRetryable(throwable) && retryBudget.tryWithdraw();
+    }
+
+    /**
+     * 通过restTemplate发送一次请求并提取返回数据，启用了遵循HTTP缓存语义的响应缓存时使用该缓存
+     */
+    private Object exchange(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        HttpResponseCache httpResponseCache = findHttpResponseCache(originalRestClientMethodInfo);
+        if (Objects.nonNull(httpResponseCache)) {
+            return executeWithHttpCache(preparedRequest, originalRestClientMethodInfo, httpResponseCache);
+        }
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        ResponseExtractor<Object> responseExtractor = timed(requestPlan.getResponseExtractor(), preparedRequest.getRequestContext());
+        Object body = track(preparedRequest.getFullUrl(), originalRestClientMethodInfo,
+                () -> restTemplate.execute(preparedRequest.getFullUrl(), requestPlan.getHttpMethod(),
+                        preparedRequest.getRequestCallback(), responseExtractor));
+        return extractResult(body, originalRestClientMethodInfo, preparedRequest.getRequestContext());
+    }
+
+    /**
+     * 实际发送请求前后回调域名解析器并记录请求指标，用于负载均衡的统计与监控
+     */
+    private <T> T track(String url, OriginalRestClientMethodInfo originalRestClientMethodInfo, Supplier<T> exchange) {
+        RestClientHostResolver hostResolver = originalRestClientMethodInfo.getHostResolver();
+        RequestMetrics metrics = findRequestMetrics(originalRestClientMethodInfo);
+        hostResolver.onRequestStart(url);
+        if (Objects.nonNull(metrics)) {
+            metrics.onStart();
+        }
+        long startNanos = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return exchange.get();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            long latencyNanos = System.nanoTime() - startNanos;
+            hostResolver.onRequestComplete(url, latencyNanos, failure);
+            if (Objects.nonNull(metrics)) {
+                metrics.onComplete(url, latencyNanos, failure);
+            }
+        }
+    }
+
+    private CompletableFuture<Object> trackAsync(String url, OriginalRestClientMethodInfo originalRestClientMethodInfo,
+                                                 Supplier<CompletableFuture<Object>> exchange) {
+        RestClientHostResolver hostResolver = originalRestClientMethodInfo.getHostResolver();
+        RequestMetrics metrics = findRequestMetrics(originalRestClientMethodInfo);
+        hostResolver.onRequestStart(url);
+        if (Objects.nonNull(metrics)) {
+            metrics.onStart();
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<Object> future;
+        try {
+            future = exchange.get();
+        } catch (Throwable ex) {
+            long latencyNanos = System.nanoTime() - startNanos;
+            hostResolver.onRequestComplete(url, latencyNanos, ex);
+            if (Objects.nonNull(metrics)) {
+                metrics.onComplete(url, latencyNanos, ex);
+            }
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        future.whenComplete((result, throwable) -> {
+            long latencyNanos = System.nanoTime() - startNanos;
+            hostResolver.onRequestComplete(url, latencyNanos, throwable);
+            if (Objects.nonNull(metrics)) {
+                metrics.onComplete(url, latencyNanos, throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 负载均衡时为重试或对冲的请求重新选择host，其余情况直接复用已组装好的请求
+     */
+    private PreparedRequest reselectHost(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        RestClientHostResolver hostResolver = originalRestClientMethodInfo.getHostResolver();
+        if (!(hostResolver instanceof LoadBalancingRestClientHostResolver)) {
+            return preparedRequest;
+        }
+        return new PreparedRequest(preparedRequest.getRequestTemplate(), preparedRequest.getRequestContext(),
+                buildFullUrl(preparedRequest.getRequestTemplate(), hostResolver), preparedRequest.getKeyUrl(),
+                preparedRequest.getHttpEntity(), preparedRequest.getRequestCallback());
+    }
+
+    /**
+     * 使用遵循HTTP缓存语义的响应缓存发送请求：存在新鲜的缓存时直接返回，存在过期的缓存时附加验证请求头，响应为304时返回已缓存的数据
+     */
+    private Object executeWithHttpCache(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo,
+                                        HttpResponseCache httpResponseCache) {
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        HttpResponseCache.Lookup lookup = httpResponseCache.lookup(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders());
+        if (lookup.isFresh()) {
+            LOGGER.debug("fresh http cache found, will not send request");
+            return lookup.getEntry().getResult();
+        }
+        RequestCallback requestCallback = Objects.isNull(lookup.getEntry()) ? preparedRequest.getRequestCallback()
+                : restTemplate.httpEntityCallback(httpResponseCache.withValidators(preparedRequest.getHttpEntity(), lookup),
+                requestPlan.getResolvedResponseType());
+        ResponseExtractor<Object> responseExtractor = timed(requestPlan.getResponseExtractor(), preparedRequest.getRequestContext());
+        HttpResponseCache.Exchange exchange = track(preparedRequest.getFullUrl(), originalRestClientMethodInfo,
+                () -> restTemplate.execute(preparedRequest.getFullUrl(), requestPlan.getHttpMethod(), requestCallback,
+                        response -> HttpResponseCache.exchange(response, responseExtractor)));
+        Assert.state(Objects.nonNull(exchange), "no response exchange");
+        return httpResponseCache.complete(lookup, exchange,
+                body -> extractResult(body, originalRestClientMethodInfo, preparedRequest.getRequestContext()));
+    }
+
+    /**
+     * 以流式的方式发送请求，返回前不会读取响应体，返回的InputStream、Stream或Iterator被关闭时才会关闭响应并释放连接
+     */
+    private Object sendRequestStreaming(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
+        long start = System.currentTimeMillis();
+        LOGGER.debug("start to parse and sending streaming request ...");
+        RequestLifecycleListeners listeners = lifecycleListeners;
+        long startNanos = Objects.isNull(listeners) ? 0 : System.nanoTime();
+        if (Objects.nonNull(listeners)) {
+            listeners.onStart(originalRestClientMethodInfo.getJavaMethod(), paramValues);
+        }
+        Object result = null;
+        Throwable failure = null;
+        try {
+            PreparedRequest preparedRequest = prepareRequest(originalRestClientMethodInfo, paramValues, start);
+            if (Objects.nonNull(listeners)) {
+                listeners.onRequestBuilt(originalRestClientMethodInfo.getJavaMethod(), preparedRequest.getRequestContext(), preparedRequest.getFullUrl());
+            }
+            result = track(preparedRequest.getFullUrl(), originalRestClientMethodInfo,
+                    () -> executeStreaming(preparedRequest, originalRestClientMethodInfo.getRequestPlan()));
+            return result;
+        } catch (Throwable ex) {
+            Boolean errorHandledFlag = ERROR_HANDLED_FLAG.get();
+            if (Objects.nonNull(errorHandledFlag) && errorHandledFlag) {
+                LOGGER.error("response error already caught, will directly return null");
+                return null;
+            } else {
+                LOGGER.error("exception when call api with rest client {}", metaDataClz.getSimpleName(), ex);
+                failure = ex;
+                throw ex;
+            }
+        } finally {
+            if (Objects.nonNull(listeners)) {
+                listeners.onFinish(originalRestClientMethodInfo.getJavaMethod(), CURRENT_REQUEST_CONTEXT.get(), result, failure,
+                        System.nanoTime() - startNanos);
+            }
+            CURRENT_REQUEST_CONTEXT.remove();
+            ERROR_HANDLED_FLAG.remove();
+            LOGGER.debug("end of send streaming request, cost {} ms ...", System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 与RestTemplate.doExecute一致的方式发送请求，但成功时不关闭响应，响应交由流式响应提取器接管
+     */
+    private Object executeStreaming(PreparedRequest preparedRequest, RestClientRequestPlan requestPlan) {
+        URI uri = restTemplate.getUriTemplateHandler().expand(preparedRequest.getFullUrl());
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, requestPlan.getHttpMethod());
+            preparedRequest.getRequestCallback().doWithRequest(request);
+            response = request.execute();
+            ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+            if (errorHandler.hasError(response)) {
+                errorHandler.handleError(uri, requestPlan.getHttpMethod(), response);
+            }
+            Boolean errorHandledFlag = ERROR_HANDLED_FLAG.get();
+            if (Objects.nonNull(errorHandledFlag) && errorHandledFlag) {
+                return null;
+            }
+            Object result = requestPlan.getResponseExtractor().extractData(response);
+            response = null;
+            return result;
+        } catch (IOException ex) {
+            throw new ResourceAccessException("I/O error on " + requestPlan.getHttpMethod().name() +
+                    " request for \"" + uri + "\": " + ex.getMessage(), ex);
+        } finally {
+            if (Objects.nonNull(response)) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 以非阻塞的方式发送请求，请求的组装在调用线程中完成，响应的错误处理与解析在http客户端的回调线程中完成，
+     * 期间当前请求上下文同样可以通过RestClientRequestContextHolder获取
+     */
+    private CompletableFuture<Object> sendRequestAsync(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
+        if (Objects.isNull(asyncRequestExecutor)) {
+            //非默认的restTemplate无法获取底层的http客户端，此时在调用线程中同步执行
+            try {
+                return CompletableFuture.completedFuture(sendRequestSync(originalRestClientMethodInfo, paramValues));
+            } catch (Throwable ex) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(ex);
+                return failed;
+            }
+        }
+        long start = System.currentTimeMillis();
+        LOGGER.debug("start to parse and sending async request ...");
+        RequestLifecycleListeners listeners = lifecycleListeners;
+        long startNanos = Objects.isNull(listeners) ? 0 : System.nanoTime();
+        if (Objects.nonNull(listeners)) {
+            listeners.onStart(originalRestClientMethodInfo.getJavaMethod(), paramValues);
+        }
+        PreparedRequest preparedRequest;
+        try {
+            preparedRequest = prepareRequest(originalRestClientMethodInfo, paramValues, start);
+        } catch (Throwable ex) {
+            LOGGER.error("exception when call api with rest client {}", metaDataClz.getSimpleName(), ex);
+            if (Objects.nonNull(listeners)) {
+                listeners.onFinish(originalRestClientMethodInfo.getJavaMethod(), CURRENT_REQUEST_CONTEXT.get(), null, ex, System.nanoTime() - startNanos);
+            }
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        } finally {
+            CURRENT_REQUEST_CONTEXT.remove();
+        }
+        if (Objects.isNull(listeners)) {
+            return exchangeAsync(preparedRequest, originalRestClientMethodInfo, start);
+        }
+        listeners.onRequestBuilt(originalRestClientMethodInfo.getJavaMethod(), preparedRequest.getRequestContext(), preparedRequest.getFullUrl());
+        CompletableFuture<Object> future = exchangeAsync(preparedRequest, originalRestClientMethodInfo, start);
+        future.whenComplete((result, throwable) -> listeners.onFinish(originalRestClientMethodInfo.getJavaMethod(),
+                preparedRequest.getRequestContext(), result, throwable, System.nanoTime() - startNanos));
+        return future;
+    }
+
+    /**
+     * 以非阻塞的方式发送已组装好的请求，依次经过响应缓存、遵循HTTP缓存语义的响应缓存、合并、重试、对冲、并发限制与熔断
+     */
+    private CompletableFuture<Object> exchangeAsync(PreparedRequest preparedRequest, OriginalRestClientMethodInfo originalRestClientMethodInfo, long start) {
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        ResponseCache responseCache = findResponseCache(originalRestClientMethodInfo);
+        String cacheKey = Objects.isNull(responseCache) ? null
+                : responseCache.keyOf(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders());
+        if (Objects.nonNull(responseCache)) {
+            Object cached = responseCache.get(cacheKey);
+            if (Objects.nonNull(cached)) {
+                LOGGER.debug("response cache {} hit", responseCache.getName());
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        HttpResponseCache httpResponseCache = findHttpResponseCache(originalRestClientMethodInfo);
+        HttpResponseCache.Lookup httpCacheLookup = Objects.isNull(httpResponseCache) ? null
+                : httpResponseCache.lookup(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders());
+        RequestCallback httpEntityCallback = preparedRequest.getRequestCallback();
+        if (Objects.nonNull(httpCacheLookup)) {
+            if (httpCacheLookup.isFresh()) {
+                LOGGER.debug("fresh http cache found, will not send request");
+                return CompletableFuture.completedFuture(httpCacheLookup.getEntry().getResult());
+            }
+            if (Objects.nonNull(httpCacheLookup.getEntry())) {
+                httpEntityCallback = restTemplate.httpEntityCallback(httpResponseCache.withValidators(preparedRequest.getHttpEntity(), httpCacheLookup),
+                        requestPlan.getResolvedResponseType());
+            }
+        }
+        RestClientRequestContext restClientRequestContext = preparedRequest.getRequestContext();
+        RequestCallback requestCallback = httpEntityCallback;
+        ResponseExtractor<Object> responseExtractor = timed(requestPlan.getResponseExtractor(), restClientRequestContext);
+        Function<String, CompletableFuture<Object>> exchange = url -> asyncRequestExecutor.execute(url, requestPlan.getHttpMethod(),
+                requestCallback, restClientRequestContext.getPhaseTimings(), (uri, response, errorHandler) -> {
+                    CURRENT_REQUEST_CONTEXT.set(restClientRequestContext);
+                    try {
+                        if (errorHandler.hasError(response)) {
+                            errorHandler.handleError(uri, requestPlan.getHttpMethod(), response);
+                        }
+                        Object result;
+                        if (Objects.isNull(httpCacheLookup)) {
+                            Object body = responseExtractor.extractData(response);
+                            result = extractResult(body, originalRestClientMethodInfo, restClientRequestContext);
+                        } else {
+                            result = httpResponseCache.complete(httpCacheLookup, HttpResponseCache.exchange(response, responseExtractor),
+                                    body -> extractResult(body, originalRestClientMethodInfo, restClientRequestContext));
+                        }
+                        if (isErrorHandled()) {
+                            //错误已被处理但仍解析出结果时，同样按失败传递，在最外层再返回该结果
+                            throw new ErrorHandledException(new RestClientResponseException("response error already handled by "
+                                    + errorHandler.getClass().getSimpleName(), response.getRawStatusCode(), response.getStatusText(),
+                                    response.getHeaders(), null, null), result);
+                        }
+                        if (Objects.nonNull(responseCache)) {
+                            responseCache.put(cacheKey, result);
+                        }
+                        return result;
+                    } catch (ErrorHandledException ex) {
+                        throw ex;
+                    } catch (Throwable ex) {
+                        //错误已被处理时仍按失败传递给熔断器、并发限制器、请求指标与负载均衡，在最外层再转换为null
+                        if (isErrorHandled()) {
+                            throw new ErrorHandledException(ex);
+                        }
+                        throw ex;
+                    } finally {
+                        CURRENT_REQUEST_CONTEXT.remove();
+                        ERROR_HANDLED_FLAG.remove();
+                    }
+                });
+        //重试与对冲的每次尝试均经过并发限制器与熔断器，负载均衡时重新选择host
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        Supplier<CompletableFuture<Object>> call = () -> {
+            String url = firstAttempt.getAndSet(false) ? preparedRequest.getFullUrl()
+                    : reselectHost(preparedRequest, originalRestClientMethodInfo).getFullUrl();
+            Supplier<CompletableFuture<Object>> attempt = () -> trackAsync(url, originalRestClientMethodInfo, () -> exchange.apply(url));
+            CircuitBreaker circuitBreaker = findCircuitBreaker(originalRestClientMethodInfo, url);
+            Supplier<CompletableFuture<Object>> guarded = Objects.isNull(circuitBreaker) ? attempt : () -> circuitBreaker.executeAsync(attempt);
+            ConcurrencyLimiter concurrencyLimiter = findConcurrencyLimiter(originalRestClientMethodInfo, url);
+            return Objects.isNull(concurrencyLimiter) ? guarded.get() : concurrencyLimiter.executeAsync(guarded);
+        };
+        RequestHedger requestHedger = findRequestHedger(originalRestClientMethodInfo);
+        if (Objects.nonNull(requestHedger)) {
+            Supplier<CompletableFuture<Object>> hedged = call;
+            call = () -> requestHedger.execute(hedged);
+        }
+        RetryPolicy retryPolicy = findRetryPolicy(originalRestClientMethodInfo);
+        if (Objects.nonNull(retryPolicy)) {
+            Supplier<CompletableFuture<Object>> attempt = call;
+            call = () -> executeAsync(attempt, retryPolicy);
+        }
+        SingleFlight singleFlight = findSingleFlight(originalRestClientMethodInfo);
+        CompletableFuture<Object> future = Objects.isNull(singleFlight) ? call.get()
+                : singleFlight.executeAsync(singleFlight.keyOf(preparedRequest.getKeyUrl(), preparedRequest.getHttpEntity().getHeaders()), call);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            ErrorHandledException errorHandled = ErrorHandledException.find(throwable);
+            if (Objects.isNull(throwable)) {
+                result.complete(value);
+            } else if (Objects.nonNull(errorHandled)) {
+                LOGGER.error("response error already caught, will directly return null");
+                result.complete(errorHandled.getResult());
+            } else {
+                if (!future.isCancelled()) {
+                    LOGGER.error("exception when call api with rest client {}", metaDataClz.getSimpleName(), throwable);
+                }
+                result.completeExceptionally(throwable);
+            }
+            LOGGER.debug("end of send async request, cost {} ms ...", System.currentTimeMillis() - start);
+            if (Objects.nonNull(restClientRequestContext.getPhaseTimings())) {
+                LOGGER.debug("phase timings of async request :: {}", restClientRequestContext.getPhaseTimings());
+            }
+        });
+        //取消返回的CompletableFuture时同时取消正在进行的请求
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 以响应式的方式发送请求，返回Mono或Flux，请求的组装（包括请求拦截器）与发送均在订阅时才执行，
+     * 每次订阅都会重新发送请求
+     */
+    private Object sendRequestReactive(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
+        LOGGER.debug("start to build reactive request ...");
+        return reactiveRequestExecutor.execute(originalRestClientMethodInfo.getRequestPlan(),
+                () -> prepareRequest(originalRestClientMethodInfo, paramValues, System.currentTimeMillis()),
+                (body, restClientRequestContext) -> extractResult(body, originalRestClientMethodInfo, restClientRequestContext),
+                () -> new ReactiveRequestObserver(originalRestClientMethodInfo, paramValues));
+    }
+
+    /**
+     * 观察一次响应式请求：记录请求指标，回调请求生命周期监听器，请求失败时记录日志。每次订阅创建一个，创建时即回调onStart
+     */
+    private class ReactiveRequestObserver implements ReactiveRequestExecutor.RequestObserver {
+
+        private final Method method;
+
+        private final RequestMetrics metrics;
+
+        private final RequestLifecycleListeners listeners;
+
+        private final long startNanos;
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private PreparedRequest preparedRequest;
+
+        private long requestStartNanos;
+
+        private ReactiveRequestObserver(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues) {
+            this.method = originalRestClientMethodInfo.getJavaMethod();
+            this.metrics = findRequestMetrics(originalRestClientMethodInfo);
+            this.listeners = lifecycleListeners;
+            this.startNanos = Objects.isNull(listeners) ? 0 : System.nanoTime();
+            if (Objects.nonNull(listeners)) {
+                listeners.onStart(method, paramValues);
+            }
+        }
+
+        @Override
+        public void onRequestBuilt(PreparedRequest preparedRequest) {
+            this.preparedRequest = preparedRequest;
+            if (Objects.nonNull(listeners)) {
+                listeners.onRequestBuilt(method, preparedRequest.getRequestContext(), preparedRequest.getFullUrl());
+            }
+            requestStartNanos = System.nanoTime();
+            if (Objects.nonNull(metrics)) {
+                metrics.onStart();
+            }
+        }
+
+        @Override
+        public void onFinish(Object result, Throwable throwable) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            if (Objects.nonNull(preparedRequest) && Objects.nonNull(metrics)) {
+                metrics.onComplete(preparedRequest.getFullUrl(), System.nanoTime() - requestStartNanos, throwable);
+            }
+            if (Objects.nonNull(throwable) && !(throwable instanceof CancellationException)) {
+                LOGGER.error("exception when call api with rest client {}", metaDataClz.getSimpleName(), throwable);
+            }
+            if (Objects.nonNull(listeners)) {
+                listeners.onFinish(method, Objects.isNull(preparedRequest) ? null : preparedRequest.getRequestContext(), result, throwable,
+                        System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * 组装请求：构造请求模板、执行请求拦截器、拼装完整请求路径与请求实体，并设置当前请求上下文
+     */
+    private PreparedRequest prepareRequest(OriginalRestClientMethodInfo originalRestClientMethodInfo, Object[] paramValues, long start) {
+        RequestInterceptor requestInterceptor = originalRestClientMethodInfo.getRequestInterceptor();
+        RestClientHostResolver hostResolver = originalRestClientMethodInfo.getHostResolver();
+        RestClientRequestMetaInfo restClientRequestMetaInfo = originalRestClientMethodInfo.getRestClientRequestMetaInfo();
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        RequestPhaseTimings phaseTimings = phaseTimingEnabled ? new RequestPhaseTimings() : null;
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.start(RequestPhase.BUILD_REQUEST_TEMPLATE);
+        }
+        Object singleBody = findSingleBody(requestInterceptor, requestPlan, paramValues);
+        RestClientRequestTemplate requestTemplate = buildRequestTemplate(hostResolver, requestPlan, paramValues, singleBody);
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.end(RequestPhase.BUILD_REQUEST_TEMPLATE);
+        }
+        RestClientRequestContext restClientRequestContext = RestClientRequestContext.of(originalRestClientMethodInfo, requestTemplate, start, phaseTimings);
+        CURRENT_REQUEST_CONTEXT.set(restClientRequestContext);
+        LOGGER.debug("requestTemplate before interceptor :: {}", requestTemplate);
+        LOGGER.debug("withing requestInterceptor :: {}", requestInterceptor.getClass().getName());
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.start(RequestPhase.REQUEST_INTERCEPTOR);
+        }
+        requestInterceptor.apply(requestTemplate, restClientRequestMetaInfo);
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.end(RequestPhase.REQUEST_INTERCEPTOR);
+        }
+        LOGGER.debug("requestTemplate after interceptor :: {}", requestTemplate);
+        restClientRequestContext.refreshRequestTemplateAfterInterceptor(requestTemplate);
+        //拼装请求
+        String fullUrl = buildFullUrl(requestTemplate, hostResolver);
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.start(RequestPhase.SERIALIZE_BODY);
+        }
+        HttpEntity<?> httpEntity = buildHttpEntity(requestTemplate, requestPlan, singleBody,
+                !streamingBodyMethods.isEmpty() && streamingBodyMethods.contains(originalRestClientMethodInfo.getJavaMethod()));
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.end(RequestPhase.SERIALIZE_BODY);
+        }
+        LOGGER.debug("trying to {} unexpanded {} with {}", requestTemplate.getHttpMethod(), fullUrl, httpEntity);
+        RequestCallback requestCallback = restTemplate.httpEntityCallback(httpEntity, requestPlan.getResolvedResponseType());
+        if (Objects.nonNull(phaseTimings)) {
+            requestCallback = timed(requestCallback, phaseTimings);
+        }
+        //负载均衡时各host为同一服务的多个实例，缓存等使用的key不包括host
+        String keyUrl = hostResolver instanceof LoadBalancingRestClientHostResolver ? fullUrl.substring(authorityEnd(fullUrl)) : fullUrl;
+        return new PreparedRequest(requestTemplate, restClientRequestContext, fullUrl, keyUrl, httpEntity, requestCallback);
+    }
+
+    /**
+     * 从响应体中获取最终的返回数据，使用响应模板时会执行响应模板的回调
+     */
+    private Object extractResult(Object body, OriginalRestClientMethodInfo originalRestClientMethodInfo, RestClientRequestContext restClientRequestContext) {
+        RestClientRequestPlan requestPlan = originalRestClientMethodInfo.getRequestPlan();
+        if (!requestPlan.isResponseTemplateUsed()) {
+            LOGGER.debug("response templateType {} is an interface or abstract class, will not use it",
+                    originalRestClientMethodInfo.getRestClientRequestMetaInfo().getResponseTemplateType().getName());
+            LOGGER.debug("response body is {}", body);
+            return body;
+        }
+        LOGGER.debug("response type is {}", requestPlan.getResolvedResponseType());
+        ResponseTemplate<?> responseTemplate = (ResponseTemplate<?>) body;
+        LOGGER.debug("response body is {}", responseTemplate);
+        if (Objects.isNull(responseTemplate)) {
+            LOGGER.warn("responseTemplate is null, will return null");
+            return null;
+        }
+        LOGGER.debug("start to callback responseTemplate");
+        RequestPhaseTimings phaseTimings = restClientRequestContext.getPhaseTimings();
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.start(RequestPhase.RESPONSE_CALLBACK);
+        }
+        responseTemplate.callBack(restClientRequestContext);
+        if (Objects.nonNull(phaseTimings)) {
+            phaseTimings.end(RequestPhase.RESPONSE_CALLBACK);
+        }
+        LOGGER.debug("callback done, will return data in responseTemplate");
+        return responseTemplate.data();
+    }
+
+    /**
+     * 启用了阶段耗时时记录响应提取器解析响应体的耗时，否则直接返回响应提取器
+     */
+    private static ResponseExtractor<Object> timed(ResponseExtractor<Object> responseExtractor, RestClientRequestContext restClientRequestContext) {
+        RequestPhaseTimings phaseTimings = restClientRequestContext.getPhaseTimings();
+        if (Objects.isNull(phaseTimings)) {
+            return responseExtractor;
+        }
+        return response -> {
+            phaseTimings.start(RequestPhase.DECODE_RESPONSE);
+            try {
+                return responseExtractor.extractData(response);
+            } finally {
+                phaseTimings.end(RequestPhase.DECODE_RESPONSE);
+            }
+        };
+    }
+
+    /**
+     * 记录请求回调写入请求头与请求体的耗时
+     */
+    private static RequestCallback timed(RequestCallback requestCallback, RequestPhaseTimings phaseTimings) {
+        return request -> {
+            phaseTimings.start(RequestPhase.WRITE_REQUEST);
+            try {
+                requestCallback.doWithRequest(request);
+            } finally {
+                phaseTimings.end(RequestPhase.WRITE_REQUEST);
+            }
+        };
+    }
+
+    private ResponseCache findResponseCache(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return responseCaches.isEmpty() ? null : responseCaches.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private HttpResponseCache findHttpResponseCache(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return httpResponseCaches.isEmpty() ? null : httpResponseCaches.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private SingleFlight findSingleFlight(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return singleFlights.isEmpty() ? null : singleFlights.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private RetryPolicy findRetryPolicy(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return retryPolicies.isEmpty() ? null : retryPolicies.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private RequestHedger findRequestHedger(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return requestHedgers.isEmpty() ? null : requestHedgers.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private CircuitBreaker findCircuitBreaker(OriginalRestClientMethodInfo originalRestClientMethodInfo, String fullUrl) {
+        Function<String, CircuitBreaker> circuitBreaker = circuitBreakers.isEmpty() ? null : circuitBreakers.get(originalRestClientMethodInfo.getJavaMethod());
+        return Objects.isNull(circuitBreaker) ? null : circuitBreaker.apply(fullUrl);
+    }
+
+    private RequestMetrics findRequestMetrics(OriginalRestClientMethodInfo originalRestClientMethodInfo) {
+        return requestMetrics.get(originalRestClientMethodInfo.getJavaMethod());
+    }
+
+    private ConcurrencyLimiter findConcurrencyLimiter(OriginalRestClientMethodInfo originalRestClientMethodInfo, String fullUrl) {
+        Function<String, ConcurrencyLimiter> limiter = concurrencyLimiters.isEmpty() ? null : concurrencyLimiters.get(originalRestClientMethodInfo.getJavaMethod());
+        return Objects.isNull(limiter) ? null : limiter.apply(fullUrl);
+    }
+
+    private static boolean isErrorHandled() {
+        Boolean errorHandledFlag = ERROR_HANDLED_FLAG.get();
+        return Objects.nonNull(errorHandledFlag) && errorHandledFlag;
+    }
+
     public OriginalRestClientMethodInfo findOriginalMethodInfo(Method method) {
         return originalMethodInfos.get(method);
     }
 
     /**
-     * 构造用于ParameterizedTypeReference的Type对象
+     * 查找降级方法
      *
-     * @param rawType 原始类型
-     * @param dtoType DTO类型
-     * @return Type对象
+     * @param method 被@RestClientCircuitBreaker注解的方法
+     * @return 降级方法，未指定时返回null
+     */
+    public Method findFallbackMethod(Method method) {
+        return fallbackMethods.isEmpty() ? null : fallbackMethods.get(method);
+    }
+
+    /**
+     * 查找可以直接序列化的唯一请求体对象，要求运行时类型与参数声明类型一致且请求拦截器不访问请求体，不满足时返回null
      */
-    private Type makeType(Class<?> rawType, Type dtoType) {
-        Type[] actualTypeArguments = new Type[1];
-        actualTypeArguments[0] = dtoType;
-        return ParameterizedTypeImpl.make(rawType, actualTypeArguments, null);
+    private Object findSingleBody(RequestInterceptor requestInterceptor, RestClientRequestPlan requestPlan, Object[] paramValues) {
+        RestClientRequestPlan.ArgumentBinder singleBodyBinder = requestPlan.getSingleBodyBinder();
+        if (!singleBodyFastPathSupported || Objects.isNull(requestPlan.getSingleBodyWriter()) || Objects.isNull(paramValues)
+                || requestInterceptor.accessRequestBody()) {
+            return null;
+        }
+        Object value = paramValues[singleBodyBinder.getIndex()];
+        return Objects.nonNull(value) && Objects.equals(value.getClass(), singleBodyBinder.getJavaType()) ? value : null;
     }
 
-    private HttpEntity<?> buildHttpEntity(RestClientRequestTemplate requestTemplate, RestClientRequestMetaInfo restClientRequestMetaInfo) {
+    private HttpEntity<?> buildHttpEntity(RestClientRequestTemplate requestTemplate, RestClientRequestPlan requestPlan, Object singleBody,
+                                          boolean streamingBody) {
         Object body = null;
-        if (!Objects.equals(requestTemplate.getHttpMethod(), HttpMethod.GET)
-                && !Objects.equals(requestTemplate.getHttpMethod(), HttpMethod.DELETE)) {
-            body = serializeBody(requestTemplate);
+        if (requestPlan.isBodyRequired()) {
+            body = serializeBody(requestTemplate, requestPlan, singleBody, streamingBody);
         }
-        return new HttpEntity<>(body, buildHeaders(requestTemplate, restClientRequestMetaInfo));
+        return new HttpEntity<>(body, buildHeaders(requestTemplate, requestPlan));
     }
 
-    private HttpHeaders buildHeaders(RestClientRequestTemplate requestTemplate, RestClientRequestMetaInfo restClientRequestMetaInfo) {
+    private HttpHeaders buildHeaders(RestClientRequestTemplate requestTemplate, RestClientRequestPlan requestPlan) {
         HttpHeaders httpHeaders = new HttpHeaders();
         Map<String, Object> requestHeaderValueMap = requestTemplate.getRequestHeader();
 
@@ -194,17 +1286,38 @@ public class SimpleRestClient {
         }
 
         if (!httpHeaders.containsKey(HttpHeaders.CONTENT_TYPE)) {
-            String contentType = restClientRequestMetaInfo.getContentType();
-            if (StringUtils.isBlank(contentType)) {
-                contentType = MediaType.APPLICATION_JSON_VALUE;
-            }
-            httpHeaders.add(HttpHeaders.CONTENT_TYPE, contentType);
+            httpHeaders.add(HttpHeaders.CONTENT_TYPE, requestPlan.getContentType());
         }
         return httpHeaders;
     }
 
-    private Object serializeBody(RestClientRequestTemplate requestTemplate) {
-        return requestBodySerializer.serialize(requestTemplate);
+    private Object serializeBody(RestClientRequestTemplate requestTemplate, RestClientRequestPlan requestPlan, Object singleBody,
+                                 boolean streamingBody) {
+        RequestBodySerializer bodySerializer = requestPlan.getBodySerializer();
+        //拦截器可能修改了contentType，此时不能使用预先选定的序列化器
+        boolean contentTypeChanged = !Objects.equals(requestPlan.getContentType(), requestTemplate.getRequestHeader().get(HttpHeaders.CONTENT_TYPE));
+        if (Objects.nonNull(singleBody)) {
+            if (!contentTypeChanged) {
+                return streamingBody ? new StreamingJsonBody(singleBody, requestPlan.getSingleBodyWriter())
+                        : writeJson(requestPlan.getSingleBodyWriter(), singleBody);
+            }
+            //退回到转换为Map后再序列化的方式，请求模板中的请求体在序列化器读取时转换得到
+        }
+        if (Objects.isNull(bodySerializer) || contentTypeChanged) {
+            bodySerializer = this.requestBodySerializer;
+        }
+        return bodySerializer.serialize(requestTemplate);
+    }
+
+    /**
+     * 将请求体对象序列化为JSON字节数组，与spring的Jackson消息转换器一致，序列化失败时抛出HttpMessageNotWritableException
+     */
+    private static byte[] writeJson(ObjectWriter objectWriter, Object body) {
+        try {
+            return objectWriter.writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+        }
     }
 
     private static final String QUESTION_MARK = "?";
@@ -223,83 +1336,99 @@ public class SimpleRestClient {
         return url + paramPath;
     }
 
-    private RestClientRequestTemplate buildRequestTemplate(RestClientHostResolver hostResolver, RestClientRequestMetaInfo restClientRequestMetaInfo, Object[] paramValues) {
-        // String originalUrl = hostResolver.host() + restClientRequestMetaInfo.getPath();
-        String contentType = restClientRequestMetaInfo.getContentType();
-        Map<String, Object> requestHeader = new HashMap<>();
-        requestHeader.put(HttpHeaders.CONTENT_TYPE, contentType);
-        List<RequestFieldValueObject> requestFieldEntities = restClientRequestMetaInfo.getOrderedRequestFields();
-        if (Objects.isNull(requestFieldEntities) || requestFieldEntities.isEmpty()) {
-            return new RestClientRequestTemplate(hostResolver.host(), restClientRequestMetaInfo.getPath(), restClientRequestMetaInfo.getHttpMethod(),
+    /**
+     * 根据方法参数构造请求模板，包内可见以便基准测试单独测量
+     */
+    RestClientRequestTemplate buildRequestTemplate(RestClientHostResolver hostResolver, RestClientRequestPlan requestPlan, Object[] paramValues,
+                                                   Object singleBody) {
+        Map<String, Object> requestHeader = requestPlan.newRequestHeader();
+        RestClientRequestPlan.ArgumentBinder[] argumentBinders = requestPlan.getArgumentBinders();
+        if (argumentBinders.length == 0) {
+            return new RestClientRequestTemplate(hostResolver.host(), requestPlan.getPath(), requestPlan.getHttpMethod(),
                     null, null, requestHeader);
         }
 
-        if (requestFieldEntities.size() != paramValues.length) {
+        if (Objects.isNull(paramValues) || argumentBinders.length != paramValues.length) {
             throw new RuntimeException("not valid params"); //TODO
         }
-        Map<RequestFieldValueObject, Object> requestParamValueMap = new HashMap<>();
-        for (int i = 0; i < requestFieldEntities.size(); i++) {
-            requestParamValueMap.put(requestFieldEntities.get(i), paramValues[i]);
-        }
-
-        //find url
-        List<RequestFieldValueObject> pathVariableParams = Optional.ofNullable(restClientRequestMetaInfo.getPathVariableRequestFields()).orElse(new ArrayList<>());
-        List<PathVariableValueObject> pathVariableValues = new ArrayList<>();
-        for (RequestFieldValueObject pathVariableParam : pathVariableParams) {
-            Object pathVariableValue = requestParamValueMap.get(pathVariableParam);
-            if (Objects.isNull(pathVariableValue)) {
-                continue;
-            }
-            pathVariableValues.add(new PathVariableValueObject(pathVariableParam.getName(), String.valueOf(pathVariableValue)));
-        }
-        String finalPath = PathVariableUtils.replacePathVariables(restClientRequestMetaInfo.getPath(), pathVariableValues);
 
         //find request param and request body
-        Map<String, Object> requestParam = transferRequestFieldEntity2Map(restClientRequestMetaInfo.getQueryRequestFields(), requestParamValueMap);
-        Map<String, Object> requestBody = transferRequestFieldEntity2Map(restClientRequestMetaInfo.getBodyRequestFields(), requestParamValueMap);
-        Map<String, Object> requestHeaderValueMap = transferRequestFieldEntity2Map(restClientRequestMetaInfo.getHeaderRequestFields(), requestParamValueMap);
-        requestHeader.putAll(requestHeaderValueMap);
-
-        //检查路径中是否仍存在尚未替换的参数
-        List<String> pathVariableUnReplacedList = PathVariableUtils.tryFindPathVariableNames(finalPath);
-        //如果仍存在则从requestParam或requestBody中查找是否有相应的值
-        if (!pathVariableUnReplacedList.isEmpty()) {
-            List<PathVariableValueObject> unReplacedPathVariableValues = new ArrayList<>();
-            for (String pathVariableUnReplaced : pathVariableUnReplacedList) {
-                Object unReplacedPathVariableValue = requestParam.get(pathVariableUnReplaced);
-                if (Objects.isNull(unReplacedPathVariableValue) || StringUtils.equals(unReplacedPathVariableValue.toString(), "null")) {
-                    unReplacedPathVariableValue = requestBody.get(pathVariableUnReplaced);
-                }
-                unReplacedPathVariableValues.add(new PathVariableValueObject(pathVariableUnReplaced, String.valueOf(unReplacedPathVariableValue)));
+        Map<String, Object> requestParam = RestClientRequestPlan.newMap(requestPlan.getQueryFieldCount());
+        Map<String, Object> requestBody = RestClientRequestPlan.newMap(requestPlan.getBodyFieldCount());
+        for (RestClientRequestPlan.ArgumentBinder argumentBinder : argumentBinders) {
+            Object value = paramValues[argumentBinder.getIndex()];
+            switch (argumentBinder.getType()) {
+                case QUERY:
+                    argumentBinder.bind(value, requestParam, requestObjectConverter);
+                    break;
+                case BODY:
+                    //可以直接序列化的唯一请求体对象在读取请求体时才转换为Map
+                    if (Objects.isNull(singleBody)) {
+                        argumentBinder.bind(value, requestBody, requestObjectConverter);
+                    }
+                    break;
+                case HEADER:
+                    argumentBinder.bind(value, requestHeader, requestObjectConverter);
+                    break;
+                default:
+                    break;
             }
-            finalPath = PathVariableUtils.replacePathVariables(finalPath, unReplacedPathVariableValues);
         }
 
-        return new RestClientRequestTemplate(hostResolver.host(), finalPath, restClientRequestMetaInfo.getHttpMethod(),
-                requestParam, requestBody, requestHeader);
+        //find url, 路径参数为null时可能需要从唯一请求体对象中取值
+        SingleBodyMap singleBodyMap = Objects.isNull(singleBody) ? null : new SingleBodyMap(requestPlan, singleBody, requestObjectConverter);
+        String finalPath = requestPlan.getPathTemplate().expand(paramValues, requestParam,
+                Objects.isNull(singleBodyMap) ? () -> requestBody : singleBodyMap);
+
+        return new RestClientRequestTemplate(hostResolver.host(), finalPath, requestPlan.getHttpMethod(),
+                requestParam, requestBody, requestHeader, singleBodyMap);
     }
 
-    private Map<String, Object> transferRequestFieldEntity2Map(List<RequestFieldValueObject> requestFieldEntities, Map<RequestFieldValueObject, Object> requestParamValueMap) {
-        Map<String, Object> result = new HashMap<>();
-        if (Objects.nonNull(requestFieldEntities) && !requestFieldEntities.isEmpty()) {
-            for (RequestFieldValueObject paramField : requestFieldEntities) {
-                Object value = requestParamValueMap.get(paramField);
-                if (paramField.isJsonFormatAble()) {
-                    Map<String, Object> params;
-                    if (value instanceof RequestFieldJsonFormatAble) {
-                        params = ((RequestFieldJsonFormatAble) value).asMap(this.requestObjectConverter);
-                    } else {
-                        params = this.requestObjectConverter.convert(value);
-                    }
+    /**
+     * 直接序列化的唯一请求体对象转换得到的请求体，请求上下文、响应错误处理器或响应模板等首次读取请求模板中的请求体时才转换，
+     * 且只转换一次，请求模板与其副本共用转换结果
+     */
+    private static final class SingleBodyMap implements Supplier<Map<String, Object>> {
 
-                    params = Optional.ofNullable(params).orElse(new HashMap<>());
-                    result.putAll(params);
-                } else {
-                    result.put(paramField.getName(), value);
-                }
+        private final RestClientRequestPlan requestPlan;
+
+        private final Object singleBody;
+
+        private final RequestObjectConverter requestObjectConverter;
+
+        private Map<String, Object> requestBody;
+
+        private SingleBodyMap(RestClientRequestPlan requestPlan, Object singleBody, RequestObjectConverter requestObjectConverter) {
+            this.requestPlan = requestPlan;
+            this.singleBody = singleBody;
+            this.requestObjectConverter = requestObjectConverter;
+        }
+
+        @Override
+        public synchronized Map<String, Object> get() {
+            if (Objects.isNull(requestBody)) {
+                Map<String, Object> converted = RestClientRequestPlan.newMap(requestPlan.getBodyFieldCount());
+                requestPlan.getSingleBodyBinder().bind(singleBody, converted, requestObjectConverter);
+                requestBody = Collections.unmodifiableMap(converted);
             }
+            return requestBody;
         }
-        return result;
+    }
+
+    /**
+     * 已组装完毕、等待发送的请求
+     */
+    @Data
+    static class PreparedRequest {
+        private final RestClientRequestTemplate requestTemplate;
+        private final RestClientRequestContext requestContext;
+        private final String fullUrl;
+        /**
+         * 响应缓存、HTTP缓存与合并请求使用的url，负载均衡时不包括scheme与host
+         */
+        private final String keyUrl;
+        private final HttpEntity<?> httpEntity;
+        private final RequestCallback requestCallback;
     }
 
     @Data
@@ -308,10 +1437,20 @@ public class SimpleRestClient {
         private final RestClientRequestMetaInfo restClientRequestMetaInfo;
         private final RequestInterceptor requestInterceptor;
         private final RestClientHostResolver hostResolver;
+        private final RestClientRequestPlan requestPlan;
         private final boolean ignoreDefault;
 
+        /**
+         * 未指定请求计划时，由SimpleRestClient在添加该方法信息时编译
+         */
         public OriginalRestClientMethodInfo(Method javaMethod, RestClientRequestMetaInfo restClientRequestMetaInfo,
                                             RequestInterceptor requestInterceptor, RestClientHostResolver hostResolver) {
+            this(javaMethod, restClientRequestMetaInfo, requestInterceptor, hostResolver, null);
+        }
+
+        public OriginalRestClientMethodInfo(Method javaMethod, RestClientRequestMetaInfo restClientRequestMetaInfo,
+                                            RequestInterceptor requestInterceptor, RestClientHostResolver hostResolver,
+                                            RestClientRequestPlan requestPlan) {
             Assert.notNull(javaMethod, "javaMethod must not be null");
             Assert.notNull(restClientRequestMetaInfo, "restClientRequestMetaInfo must not be null");
             Assert.notNull(requestInterceptor, "requestInterceptor must not be null");
@@ -320,6 +1459,7 @@ public class SimpleRestClient {
             this.restClientRequestMetaInfo = restClientRequestMetaInfo;
             this.requestInterceptor = requestInterceptor;
             this.hostResolver = hostResolver;
+            this.requestPlan = requestPlan;
             RestClientRequest restClientRequest = javaMethod.getAnnotation(RestClientRequest.class);
             ignoreDefault = Objects.isNull(restClientRequest) && javaMethod.isDefault();
         }
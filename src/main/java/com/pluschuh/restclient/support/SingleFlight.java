@@ -0,0 +1,209 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.pluschuh.restclient.annotation.RestClientSingleFlight;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 合并某个方法的并发相同请求，每个被@RestClientSingleFlight作用的方法一个。
+ * 第一个调用负责发送请求，其余key相同的调用等待其完成，请求完成后立即移除，之后的调用会重新发送请求
+ *
+ * @author pluschuh
+ * @see RestClientSingleFlight
+ */
+final class SingleFlight {
+
+    private final Map<String, Flight> inFlightCalls = new ConcurrentHashMap<>();
+
+    /**
+     * 参与key计算的请求头名称，已包含Authorization
+     */
+    private final String[] keyHeaders;
+
+    /**
+     * 复制返回数据使用的ObjectWriter与ObjectReader，不复制时为null
+     */
+    private final ObjectWriter resultWriter;
+
+    private final ObjectReader resultReader;
+
+    private SingleFlight(String[] keyHeaders, ObjectWriter resultWriter, ObjectReader resultReader) {
+        this.keyHeaders = keyHeaders;
+        this.resultWriter = resultWriter;
+        this.resultReader = resultReader;
+    }
+
+    /**
+     * @param restClientSingleFlight 注解
+     * @param resultType             方法返回数据的类型，返回值为CompletableFuture时为其中的数据类型
+     * @param restTemplate           客户端使用的restTemplate，使用其中的Jackson配置复制返回数据
+     */
+    static SingleFlight create(RestClientSingleFlight restClientSingleFlight, Type resultType, RestTemplate restTemplate) {
+        String[] keyHeaders = new String[restClientSingleFlight.keyHeaders().length + 1];
+        keyHeaders[0] = HttpHeaders.AUTHORIZATION;
+        System.arraycopy(restClientSingleFlight.keyHeaders(), 0, keyHeaders, 1, restClientSingleFlight.keyHeaders().length);
+        if (!restClientSingleFlight.copyResult()) {
+            return new SingleFlight(keyHeaders, null, null);
+        }
+        ObjectMapper objectMapper = StreamingResponseExtractor.findObjectMapper(restTemplate);
+        JavaType javaType = objectMapper.getTypeFactory().constructType(resultType);
+        return new SingleFlight(keyHeaders, objectMapper.writerFor(javaType), objectMapper.readerFor(javaType));
+    }
+
+    String keyOf(String fullUrl, HttpHeaders httpHeaders) {
+        return ResponseCache.buildKey(fullUrl, httpHeaders, keyHeaders);
+    }
+
+    /**
+     * 同步执行，已存在相同的请求时阻塞等待其结果
+     *
+     * @param key  请求合并key
+     * @param call 实际的调用
+     * @return 返回数据，等待的调用得到的是副本
+     */
+    Object execute(String key, Supplier<Object> call) {
+        Flight leader = new Flight();
+        Flight inFlight = inFlightCalls.putIfAbsent(key, leader);
+        if (Objects.nonNull(inFlight)) {
+            try {
+                return copy(inFlight.shared.join());
+            } catch (CompletionException ex) {
+                throw propagate(ex.getCause());
+            }
+        }
+        try {
+            Object result = call.get();
+            leader.shared.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            leader.shared.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightCalls.remove(key, leader);
+        }
+    }
+
+    /**
+     * 异步执行，已存在相同的请求时返回依赖于其结果的CompletableFuture。
+     * 发起请求的调用与等待的调用得到的都是依赖于请求结果的CompletableFuture，取消其中一个不会影响其他调用，
+     * 所有调用均已取消时才取消正在执行的请求
+     *
+     * @param key  请求合并key
+     * @param call 实际的调用
+     * @return 返回数据的CompletableFuture
+     */
+    CompletableFuture<Object> executeAsync(String key, Supplier<CompletableFuture<Object>> call) {
+        Flight leader = new Flight();
+        Flight inFlight = inFlightCalls.putIfAbsent(key, leader);
+        while (Objects.nonNull(inFlight)) {
+            if (inFlight.join()) {
+                return inFlight.newCaller(key, this::copy);
+            }
+            //所有调用均已取消的请求不再合并
+            inFlightCalls.remove(key, inFlight);
+            inFlight = inFlightCalls.putIfAbsent(key, leader);
+        }
+        CompletableFuture<Object> future;
+        try {
+            future = call.get();
+        } catch (Throwable ex) {
+            inFlightCalls.remove(key, leader);
+            leader.shared.completeExceptionally(ex);
+            throw ex;
+        }
+        leader.call = future;
+        future.whenComplete((result, throwable) -> {
+            inFlightCalls.remove(key, leader);
+            if (Objects.nonNull(throwable)) {
+                leader.shared.completeExceptionally(throwable);
+            } else {
+                leader.shared.complete(result);
+            }
+        });
+        return leader.newCaller(key, Function.identity());
+    }
+
+    private Object copy(Object result) {
+        if (Objects.isNull(resultWriter) || Objects.isNull(result) || isImmutable(result)) {
+            return result;
+        }
+        try {
+            TokenBuffer tokenBuffer = new TokenBuffer(resultReader, false);
+            resultWriter.writeValue(tokenBuffer, result);
+            return resultReader.readValue(tokenBuffer.asParser(resultReader));
+        } catch (IOException ex) {
+            throw new IllegalStateException("failed to copy result of type " + result.getClass().getName(), ex);
+        }
+    }
+
+    private static boolean isImmutable(Object result) {
+        return result instanceof String || result instanceof Number || result instanceof Boolean
+                || result instanceof Character || result instanceof Enum;
+    }
+
+    private static RuntimeException propagate(Throwable throwable) {
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        return new IllegalStateException(throwable);
+    }
+
+    /**
+     * 一次正在执行的请求，记录仍在等待其结果的调用数
+     */
+    private final class Flight {
+
+        private final CompletableFuture<Object> shared = new CompletableFuture<>();
+
+        /**
+         * 未取消的调用数，包括发起请求的调用，归零后不再接受新的调用
+         */
+        private final AtomicInteger callers = new AtomicInteger(1);
+
+        private volatile CompletableFuture<Object> call;
+
+        private boolean join() {
+            int count;
+            do {
+                count = callers.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!callers.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        private CompletableFuture<Object> newCaller(String key, Function<Object, Object> mapper) {
+            CompletableFuture<Object> caller = shared.thenApply(mapper);
+            caller.whenComplete((result, throwable) -> {
+                if (caller.isCancelled() && callers.decrementAndGet() == 0) {
+                    inFlightCalls.remove(key, this);
+                    CompletableFuture<Object> inFlightCall = call;
+                    if (Objects.nonNull(inFlightCall)) {
+                        inFlightCall.cancel(true);
+                    }
+                }
+            });
+            return caller;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pluschuh.restclient.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 写入流式请求体的消息转换器。
+ * 当请求支持流式写入（StreamingHttpOutputMessage）时，请求体会在http客户端发送请求时才直接写入连接的输出流，否则写入请求的缓冲区中
+ *
+ * @author pluschuh
+ * @see StreamingJsonBody
+ */
+public class StreamingBodyHttpMessageConverter implements HttpMessageConverter<StreamingHttpOutputMessage.Body> {
+
+    /**
+     * 如果restTemplate中还没有该转换器，则将其添加为第一个消息转换器
+     */
+    public static void registerIfAbsent(@Nonnull RestTemplate restTemplate) {
+        if (!isRegistered(restTemplate)) {
+            restTemplate.getMessageConverters().add(0, new StreamingBodyHttpMessageConverter());
+        }
+    }
+
+    /**
+     * @return restTemplate中是否已有该转换器，没有时无法发送流式请求体
+     */
+    public static boolean isRegistered(@Nonnull RestTemplate restTemplate) {
+        return restTemplate.getMessageConverters().stream().anyMatch(messageConverter -> messageConverter instanceof StreamingBodyHttpMessageConverter);
+    }
+
+    @Override
+    public boolean canRead(@Nonnull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nonnull Class<?> clazz, MediaType mediaType) {
+        return StreamingHttpOutputMessage.Body.class.isAssignableFrom(clazz);
+    }
+
+    @Nonnull
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return Collections.singletonList(MediaType.ALL);
+    }
+
+    @Nonnull
+    @Override
+    public StreamingHttpOutputMessage.Body read(@Nonnull Class<? extends StreamingHttpOutputMessage.Body> clazz, @Nonnull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("StreamingBodyHttpMessageConverter can not read", inputMessage);
+    }
+
+    @Override
+    public void write(@Nonnull StreamingHttpOutputMessage.Body body, MediaType contentType, @Nonnull HttpOutputMessage outputMessage) throws IOException {
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (Objects.isNull(headers.getContentType()) && Objects.nonNull(contentType) && contentType.isConcrete()) {
+            headers.setContentType(contentType);
+        }
+        if (outputMessage instanceof StreamingHttpOutputMessage) {
+            ((StreamingHttpOutputMessage) outputMessage).setBody(body);
+        } else {
+            try {
+                body.writeTo(outputMessage.getBody());
+            } catch (IOException ex) {
+                BodyNotWritableException.throwIfPresent(ex);
+                throw ex;
+            }
+        }
+    }
+}
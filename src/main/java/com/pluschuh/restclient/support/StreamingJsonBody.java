@@ -0,0 +1,54 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.StreamingHttpOutputMessage;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 流式的JSON请求体，发送请求时通过Jackson的JsonGenerator以UTF-8编码直接写入http客户端的输出流，
+ * 不会先生成完整的JSON字符串。每次写入都会重新序列化，故http客户端重试时可以重复写入。
+ * 序列化失败时抛出BodyNotWritableException，由发送请求处转换为HttpMessageNotWritableException
+ *
+ * @author pluschuh
+ * @see StreamingBodyHttpMessageConverter
+ */
+public final class StreamingJsonBody implements StreamingHttpOutputMessage.Body {
+
+    private final Object value;
+
+    private final ObjectWriter objectWriter;
+
+    public StreamingJsonBody(Object value, @Nonnull ObjectWriter objectWriter) {
+        this.value = value;
+        this.objectWriter = objectWriter;
+    }
+
+    /**
+     * 待序列化的原始对象
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public void writeTo(@Nonnull OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectWriter.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            //输出流由http客户端负责关闭
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectWriter.writeValue(generator, value);
+        } catch (JsonProcessingException ex) {
+            throw new BodyNotWritableException(ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,199 @@
+package com.pluschuh.restclient.support;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pluschuh.restclient.enums.ReturnValueType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Nonnull;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
+
+/**
+ * 流式响应提取器，供返回值为InputStream、Stream与Iterator的方法使用。
+ * 与其他响应提取器不同，该提取器会接管响应的生命周期：返回的对象被关闭（Stream与Iterator在迭代完毕时也会自动关闭）时才会关闭响应并释放连接。
+ * Stream与Iterator的元素通过Jackson的JsonParser从响应体中逐个解析，响应体可以是JSON数组，也可以是连续的多个JSON值
+ *
+ * @author pluschuh
+ */
+class StreamingResponseExtractor implements ResponseExtractor<Object> {
+
+    private static final ObjectMapper DEFAULT_OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ReturnValueType returnValueType;
+
+    private final Type elementType;
+
+    /**
+     * 元素的ObjectReader，返回值为InputStream时为null
+     */
+    private final ObjectReader objectReader;
+
+    StreamingResponseExtractor(@Nonnull ReturnValueType returnValueType, @Nonnull Type elementType, RestTemplate restTemplate) {
+        this.returnValueType = returnValueType;
+        this.elementType = elementType;
+        if (Objects.equals(returnValueType, ReturnValueType.INPUT_STREAM)) {
+            this.objectReader = null;
+        } else {
+            ObjectMapper objectMapper = findObjectMapper(restTemplate);
+            this.objectReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructType(elementType));
+        }
+    }
+
+    /**
+     * 优先使用restTemplate中的Jackson消息转换器的ObjectMapper，保证与其他返回值类型的解析配置一致
+     */
+    static ObjectMapper findObjectMapper(RestTemplate restTemplate) {
+        if (Objects.nonNull(restTemplate)) {
+            for (HttpMessageConverter<?> messageConverter : restTemplate.getMessageConverters()) {
+                if (messageConverter instanceof MappingJackson2HttpMessageConverter) {
+                    return ((MappingJackson2HttpMessageConverter) messageConverter).getObjectMapper();
+                }
+            }
+        }
+        return DEFAULT_OBJECT_MAPPER;
+    }
+
+    @Override
+    public Object extractData(@Nonnull ClientHttpResponse response) throws IOException {
+        if (Objects.equals(returnValueType, ReturnValueType.INPUT_STREAM)) {
+            return new ResponseInputStream(response);
+        }
+        CloseableIterator<Object> iterator;
+        if (hasNoContent(response)) {
+            response.close();
+            iterator = new ResponseIterator(response, null);
+        } else {
+            try {
+                MappingIterator<Object> mappingIterator = objectReader.readValues(response.getBody());
+                iterator = new ResponseIterator(response, mappingIterator);
+            } catch (IOException ex) {
+                response.close();
+                throw new RestClientException("Error while extracting response for type [" + elementType + "]", ex);
+            }
+        }
+        if (Objects.equals(returnValueType, ReturnValueType.ITERATOR)) {
+            return iterator;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    private static boolean hasNoContent(ClientHttpResponse response) throws IOException {
+        int rawStatusCode = response.getRawStatusCode();
+        return rawStatusCode < 200 || rawStatusCode == HttpStatus.NO_CONTENT.value() || rawStatusCode == HttpStatus.NOT_MODIFIED.value()
+                || response.getHeaders().getContentLength() == 0;
+    }
+
+    /**
+     * 关闭时同时关闭响应的输入流
+     */
+    private static class ResponseInputStream extends FilterInputStream {
+
+        private final ClientHttpResponse response;
+
+        private ResponseInputStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 逐个解析元素的迭代器，迭代完毕、解析出错或关闭时释放响应
+     */
+    private static class ResponseIterator implements CloseableIterator<Object> {
+
+        private final ClientHttpResponse response;
+
+        private final Iterator<Object> delegate;
+
+        private boolean closed;
+
+        private ResponseIterator(ClientHttpResponse response, MappingIterator<Object> mappingIterator) {
+            this.response = response;
+            this.delegate = Objects.isNull(mappingIterator) ? Collections.emptyIterator() : mappingIterator;
+            this.closed = Objects.isNull(mappingIterator);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                boolean hasNext = delegate.hasNext();
+                if (!hasNext) {
+                    close();
+                }
+                return hasNext;
+            } catch (RuntimeException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return delegate.next();
+            } catch (RuntimeException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                ((MappingIterator<?>) delegate).close();
+            } catch (IOException ignored) {
+                //响应关闭时会释放连接，此处忽略
+            } finally {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * 判断返回值类型是否为流式类型
+     */
+    static boolean isStreaming(ReturnValueType returnValueType) {
+        return Objects.equals(returnValueType, ReturnValueType.INPUT_STREAM)
+                || Objects.equals(returnValueType, ReturnValueType.STREAM)
+                || Objects.equals(returnValueType, ReturnValueType.ITERATOR);
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.pluschuh.restclient.support;
+
+import com.pluschuh.restclient.enums.HttpProtocolType;
+import com.pluschuh.restclient.enums.ReturnValueType;
+import com.pluschuh.restclient.spi.ConfigOfDefaultRT;
+import com.pluschuh.restclient.spi.provide.SimpleConfigOfDefaultRT;
+import com.pluschuh.restclient.valueobject.RestClientSpiProviderValueObject;
+import io.netty.channel.ChannelOption;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriTemplateHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+import static com.pluschuh.restclient.spi.ResponseErrorHandlerOfDefaultRT.ERROR_HANDLED_FLAG;
+
+/**
+ * 基于WebClient的响应式请求执行器。
+ * 请求的组装（请求拦截器、uri模板处理、请求体序列化）与同步调用一致，并在订阅时才执行；
+ * 响应为4xx或5xx时会先将响应体读取到内存中，再交由restTemplate的响应错误处理器处理，其余响应直接由WebClient的解码器解码
+ *
+ * @author pluschuh
+ */
+class WebClientRequestExecutor implements ReactiveRequestExecutor {
+
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+
+    private final WebClient webClient;
+
+    private final UriTemplateHandler uriTemplateHandler;
+
+    private final ResponseErrorHandler errorHandler;
+
+    private WebClientRequestExecutor(@Nonnull WebClient webClient, @Nonnull RestTemplate restTemplate) {
+        this.webClient = webClient;
+        this.uriTemplateHandler = restTemplate.getUriTemplateHandler();
+        this.errorHandler = restTemplate.getErrorHandler();
+    }
+
+    /**
+     * 创建使用默认WebClient的执行器，连接超时、读取超时与是否使用h2c使用ConfigOfDefaultRT中的配置
+     */
+    static ReactiveRequestExecutor createDefault(RestClientSpiProviderValueObject restClientSpiProvider, RestTemplate restTemplate) {
+        ConfigOfDefaultRT configOfDefaultRT
+                = SpiProviderHelper.obtainProvider(ConfigOfDefaultRT.class, restClientSpiProvider.configOfDefaultRT(), SimpleConfigOfDefaultRT::new);
+        long connectTimeoutMillis = configOfDefaultRT.connectTimeoutUnit().toMillis(configOfDefaultRT.connectTimeout());
+        long readTimeoutMillis = configOfDefaultRT.readTimeOutUnit().toMillis(configOfDefaultRT.readTimeOut());
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(connectTimeoutMillis, Integer.MAX_VALUE))
+                .responseTimeout(Duration.ofMillis(readTimeoutMillis))
+                .protocol(toHttpProtocols(configOfDefaultRT.protocol()));
+        WebClient webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        return new WebClientRequestExecutor(webClient, restTemplate);
+    }
+
+    private static HttpProtocol[] toHttpProtocols(HttpProtocolType protocol) {
+        if (Objects.equals(protocol, HttpProtocolType.H2C_PRIOR_KNOWLEDGE)) {
+            return new HttpProtocol[]{HttpProtocol.H2C};
+        }
+        //reactor-netty的HTTP/2需要额外的TLS配置，HTTP_2时仍使用HTTP/1.1
+        return new HttpProtocol[]{HttpProtocol.HTTP11};
+    }
+
+    /**
+     * 创建使用指定WebClient的执行器
+     *
+     * @param webClient    spring容器中的WebClient对象
+     * @param restTemplate 客户端使用的restTemplate，使用其中的uri模板处理器与响应错误处理器
+     */
+    static ReactiveRequestExecutor create(Object webClient, RestTemplate restTemplate) {
+        Assert.isInstanceOf(WebClient.class, webClient, "webClientBeanName must refer to a WebClient");
+        return new WebClientRequestExecutor((WebClient) webClient, restTemplate);
+    }
+
+    @Override
+    public Object execute(RestClientRequestPlan requestPlan, Supplier<SimpleRestClient.PreparedRequest> requestPreparer,
+                          ResultExtractor resultExtractor, Supplier<RequestObserver> requestObserver) {
+        if (Objects.equals(requestPlan.getReturnValueType(), ReturnValueType.FLUX)) {
+            return executeFlux(requestPlan, requestPreparer, resultExtractor, requestObserver);
+        }
+        return executeMono(requestPlan, requestPreparer, resultExtractor, requestObserver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Object> executeMono(RestClientRequestPlan requestPlan, Supplier<SimpleRestClient.PreparedRequest> requestPreparer,
+                                     ResultExtractor resultExtractor, Supplier<RequestObserver> requestObserver) {
+        ParameterizedTypeReference<Object> responseTypeReference = (ParameterizedTypeReference<Object>) requestPlan.getResponseTypeReference();
+        return Mono.defer(() -> {
+            RequestObserver observer = requestObserver.get();
+            SimpleRestClient.PreparedRequest preparedRequest;
+            try {
+                preparedRequest = prepare(requestPreparer);
+            } catch (Throwable ex) {
+                observer.onFinish(null, ex);
+                return Mono.error(ex);
+            }
+            observer.onRequestBuilt(preparedRequest);
+            RestClientRequestContext restClientRequestContext = preparedRequest.getRequestContext();
+            URI uri = uriTemplateHandler.expand(preparedRequest.getFullUrl());
+            return buildRequest(requestPlan.getHttpMethod(), uri, preparedRequest.getHttpEntity())
+                    .exchangeToMono(response -> checkError(response, uri, requestPlan.getHttpMethod(), restClientRequestContext)
+                            .flatMap(checkedResponse -> checkedResponse.bodyToMono(responseTypeReference))
+                            .flatMap(body -> Mono.justOrEmpty(extract(resultExtractor, body, restClientRequestContext))))
+                    .doOnSuccess(result -> observer.onFinish(result, null))
+                    .doOnError(ex -> observer.onFinish(null, ex))
+                    .doOnCancel(() -> observer.onFinish(null, new CancellationException()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Object> executeFlux(RestClientRequestPlan requestPlan, Supplier<SimpleRestClient.PreparedRequest> requestPreparer,
+                                     ResultExtractor resultExtractor, Supplier<RequestObserver> requestObserver) {
+        ParameterizedTypeReference<Object> responseTypeReference = (ParameterizedTypeReference<Object>) requestPlan.getResponseTypeReference();
+        return Flux.defer(() -> {
+            RequestObserver observer = requestObserver.get();
+            SimpleRestClient.PreparedRequest preparedRequest;
+            try {
+                preparedRequest = prepare(requestPreparer);
+            } catch (Throwable ex) {
+                observer.onFinish(null, ex);
+                return Flux.error(ex);
+            }
+            observer.onRequestBuilt(preparedRequest);
+            RestClientRequestContext restClientRequestContext = preparedRequest.getRequestContext();
+            URI uri = uriTemplateHandler.expand(preparedRequest.getFullUrl());
+            return buildRequest(requestPlan.getHttpMethod(), uri, preparedRequest.getHttpEntity())
+                    .exchangeToFlux(response -> checkError(response, uri, requestPlan.getHttpMethod(), restClientRequestContext)
+                            .flatMapMany(checkedResponse -> {
+                                if (!requestPlan.isResponseTemplateUsed()) {
+                                    //不使用响应模板时逐个解码元素，支持背压
+                                    return checkedResponse.bodyToFlux(responseTypeReference);
+                                }
+                                //使用响应模板时整体解码，再展开响应模板中的列表
+                                return checkedResponse.bodyToMono(responseTypeReference)
+                                        .flatMapIterable(body -> toIterable(extract(resultExtractor, body, restClientRequestContext)));
+                            }))
+                    .doOnComplete(() -> observer.onFinish(null, null))
+                    .doOnError(ex -> observer.onFinish(null, ex))
+                    .doOnCancel(() -> observer.onFinish(null, new CancellationException()));
+        });
+    }
+
+    private SimpleRestClient.PreparedRequest prepare(Supplier<SimpleRestClient.PreparedRequest> requestPreparer) {
+        try {
+            return requestPreparer.get();
+        } finally {
+            SimpleRestClient.CURRENT_REQUEST_CONTEXT.remove();
+        }
+    }
+
+    private WebClient.RequestHeadersSpec<?> buildRequest(HttpMethod httpMethod, URI uri, HttpEntity<?> httpEntity) {
+        WebClient.RequestBodySpec requestSpec = webClient.method(httpMethod).uri(uri)
+                .headers(headers -> headers.addAll(httpEntity.getHeaders()));
+        Object body = httpEntity.getBody();
+        if (body instanceof StreamingJsonBody) {
+            //交由WebClient的JSON编码器流式编码原始对象，不在内存中生成完整的JSON
+            body = ((StreamingJsonBody) body).getValue();
+        }
+        return Objects.isNull(body) ? requestSpec : requestSpec.bodyValue(body);
+    }
+
+    /**
+     * 检查响应是否有错误：没有错误时原样返回；有错误时交由响应错误处理器处理，
+     * 错误已被处理（ERROR_HANDLED_FLAG）时返回空，处理器认为没有错误时返回以已读取的响应体重建的响应
+     */
+    private Mono<ClientResponse> checkError(ClientResponse response, URI uri, HttpMethod httpMethod, RestClientRequestContext restClientRequestContext) {
+        if (!response.statusCode().isError()) {
+            return Mono.just(response);
+        }
+        return response.bodyToMono(byte[].class).defaultIfEmpty(EMPTY_CONTENT).flatMap(body -> {
+            BufferedClientHttpResponse bufferedResponse =
+                    new BufferedClientHttpResponse(response.rawStatusCode(), response.headers().asHttpHeaders(), body);
+            SimpleRestClient.CURRENT_REQUEST_CONTEXT.set(restClientRequestContext);
+            try {
+                if (errorHandler.hasError(bufferedResponse)) {
+                    errorHandler.handleError(uri, httpMethod, bufferedResponse);
+                }
+                if (isErrorHandled()) {
+                    return Mono.empty();
+                }
+                return Mono.just(response.mutate().body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))).build());
+            } catch (Throwable ex) {
+                return isErrorHandled() ? Mono.empty() : Mono.error(ex);
+            } finally {
+                SimpleRestClient.CURRENT_REQUEST_CONTEXT.remove();
+                ERROR_HANDLED_FLAG.remove();
+            }
+        });
+    }
+
+    private static boolean isErrorHandled() {
+        Boolean errorHandledFlag = ERROR_HANDLED_FLAG.get();
+        return Objects.nonNull(errorHandledFlag) && errorHandledFlag;
+    }
+
+    private static Object extract(ResultExtractor resultExtractor, Object body, RestClientRequestContext restClientRequestContext) {
+        SimpleRestClient.CURRENT_REQUEST_CONTEXT.set(restClientRequestContext);
+        try {
+            return resultExtractor.extract(body, restClientRequestContext);
+        } finally {
+            SimpleRestClient.CURRENT_REQUEST_CONTEXT.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterable<Object> toIterable(Object data) {
+        if (Objects.isNull(data)) {
+            return Collections.emptyList();
+        }
+        return (List<Object>) data;
+    }
+}
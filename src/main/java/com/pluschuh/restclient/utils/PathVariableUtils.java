@@ -3,6 +3,7 @@ package com.pluschuh.restclient.utils;
 import com.pluschuh.restclient.valueobject.PathVariableValueObject;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -24,6 +25,8 @@ public final class PathVariableUtils {
      */
     private static final char RIGHT = '}';
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
 
     public static String replacePathVariables(String path, List<PathVariableValueObject> pathVariables) {
         if (Objects.isNull(pathVariables) || pathVariables.isEmpty()) {
@@ -118,4 +121,49 @@ public final class PathVariableUtils {
         return ans;
     }
 
+    /**
+     * 对路径片段中的值进行百分号编码并追加到builder中，
+     * RFC 3986中允许出现在路径片段中的字符（unreserved、sub-delims、':'、'@'）保持原样，其余字符按UTF-8编码
+     *
+     * @param value   路径参数的值，如 "a b/c"
+     * @param builder 追加的目标，追加后为 "a%20b%2Fc"
+     */
+    public static void appendEncodedPathSegment(String value, StringBuilder builder) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && isPathSegmentChar(value.charAt(i))) {
+            i++;
+        }
+        //绝大多数情况下无需编码，直接追加
+        if (i == length) {
+            builder.append(value);
+            return;
+        }
+        builder.append(value, 0, i);
+        byte[] bytes = value.substring(i).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            char c = (char) (b & 0xFF);
+            if (c < 0x80 && isPathSegmentChar(c)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+            }
+        }
+    }
+
+    private static boolean isPathSegmentChar(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        switch (c) {
+            case '-': case '.': case '_': case '~':
+            case '!': case '$': case '&': case '\'': case '(': case ')':
+            case '*': case '+': case ',': case ';': case '=':
+            case ':': case '@':
+                return true;
+            default:
+                return false;
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.pluschuh.restclient.valueobject;
 
 import com.google.common.collect.Maps;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
@@ -13,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * REST客户端请求模板对象
@@ -43,10 +45,28 @@ public class RestClientRequestTemplate {
     @Nonnull
     private final Map<String, Object> requestHeader;
 
+    /**
+     * 尚未放入requestBody中的请求体，首次读取requestBody时放入，之后为null
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile Supplier<Map<String, Object>> pendingRequestBody;
+
     public RestClientRequestTemplate(String host, String path, HttpMethod httpMethod,
                                      Map<String, Object> requestParam,
                                      Map<String, Object> requestBody,
                                      Map<String, Object> requestHeader) {
+        this(host, path, httpMethod, requestParam, requestBody, requestHeader, null);
+    }
+
+    /**
+     * @param pendingRequestBody 延迟生成的请求体，首次读取请求体时才放入requestBody中，可为null
+     */
+    public RestClientRequestTemplate(String host, String path, HttpMethod httpMethod,
+                                     Map<String, Object> requestParam,
+                                     Map<String, Object> requestBody,
+                                     Map<String, Object> requestHeader,
+                                     Supplier<Map<String, Object>> pendingRequestBody) {
         this.host = host;
         this.path = path;
         this.httpMethod = httpMethod;
@@ -57,15 +77,40 @@ public class RestClientRequestTemplate {
             httpHeaders.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
             return httpHeaders;
         });
+        this.pendingRequestBody = pendingRequestBody;
+    }
+
+    @Nonnull
+    public Map<String, Object> getRequestBody() {
+        if (Objects.nonNull(pendingRequestBody)) {
+            synchronized (this) {
+                Supplier<Map<String, Object>> pending = pendingRequestBody;
+                if (Objects.nonNull(pending)) {
+                    requestBody.putAll(pending.get());
+                    pendingRequestBody = null;
+                }
+            }
+        }
+        return requestBody;
     }
 
+    /**
+     * 复制请求模板，尚未放入的请求体同样延迟到首次读取时才放入
+     */
     public static RestClientRequestTemplate copy(RestClientRequestTemplate source) {
         if (Objects.isNull(source)) return null;
+        Supplier<Map<String, Object>> pending;
+        Map<String, Object> requestBody;
+        synchronized (source) {
+            pending = source.pendingRequestBody;
+            requestBody = Maps.newHashMap(source.requestBody);
+        }
         return new RestClientRequestTemplate(source.getHost(),
                 source.getPath(),
                 source.getHttpMethod(),
                 Maps.newHashMap(source.getRequestParam()),
-                Maps.newHashMap(source.getRequestBody()),
-                Maps.newHashMap(source.getRequestHeader()));
+                requestBody,
+                Maps.newHashMap(source.getRequestHeader()),
+                pending);
     }
 }
@@ -30,6 +30,10 @@ public class RestClientSpiProviderValueObject {
     private final Class<? extends ConfigOfDefaultRT> configOfDefaultRT;
     private final Class<? extends ResponseErrorHandlerOfDefaultRT> responseErrorHandlerOfDefaultRT;
     private final Class<? extends UriTemplateHandlerOfDefaultRT> uriTemplateHandlerOfDefaultRT;
+    private final Class<? extends ResponseCacheStore> responseCacheStore;
+    private final Class<? extends CircuitBreakerListener> circuitBreakerListener;
+    private final Class<? extends HostHealthListener> hostHealthListener;
+    private final Class<? extends RequestLifecycleListener> requestLifecycleListener;
 
     public static RestClientSpiProviderValueObject of(RestClientSpiProvider restClientSpiProvider) {
         Assert.notNull(restClientSpiProvider, "restClientSpiProvider can not be null");
@@ -38,7 +42,11 @@ public class RestClientSpiProviderValueObject {
                 restClientSpiProvider.requestObjectConvert(),
                 restClientSpiProvider.configOfDefaultRT(),
                 restClientSpiProvider.responseErrorHandlerOfDefaultRT(),
-                restClientSpiProvider.uriTemplateHandlerOfDefaultRT());
+                restClientSpiProvider.uriTemplateHandlerOfDefaultRT(),
+                restClientSpiProvider.responseCacheStore(),
+                restClientSpiProvider.circuitBreakerListener(),
+                restClientSpiProvider.hostHealthListener(),
+                restClientSpiProvider.requestLifecycleListener());
     }
 
     public static RestClientSpiProviderValueObject preferFirst(@Nonnull RestClientSpiProvider first, @Nonnull RestClientSpiProvider second) {
@@ -62,7 +70,11 @@ public class RestClientSpiProviderValueObject {
                 preferFirstClz(first.requestObjectConvert(), defaultInfo().requestObjectConvert(), second.requestObjectConvert()),
                 preferFirstClz(first.configOfDefaultRT(), defaultInfo().configOfDefaultRT(), second.configOfDefaultRT()),
                 preferFirstClz(first.responseErrorHandlerOfDefaultRT(), defaultInfo().responseErrorHandlerOfDefaultRT(), second.responseErrorHandlerOfDefaultRT()),
-                preferFirstClz(first.uriTemplateHandlerOfDefaultRT(), defaultInfo().uriTemplateHandlerOfDefaultRT(), second.uriTemplateHandlerOfDefaultRT())
+                preferFirstClz(first.uriTemplateHandlerOfDefaultRT(), defaultInfo().uriTemplateHandlerOfDefaultRT(), second.uriTemplateHandlerOfDefaultRT()),
+                preferFirstClz(first.responseCacheStore(), defaultInfo().responseCacheStore(), second.responseCacheStore()),
+                preferFirstClz(first.circuitBreakerListener(), defaultInfo().circuitBreakerListener(), second.circuitBreakerListener()),
+                preferFirstClz(first.hostHealthListener(), defaultInfo().hostHealthListener(), second.hostHealthListener()),
+                preferFirstClz(first.requestLifecycleListener(), defaultInfo().requestLifecycleListener(), second.requestLifecycleListener())
         );
     }
 
@@ -94,6 +106,22 @@ public class RestClientSpiProviderValueObject {
         return Objects.isNull(this.uriTemplateHandlerOfDefaultRT) ? defaultInfo().uriTemplateHandlerOfDefaultRT() : this.uriTemplateHandlerOfDefaultRT;
     }
 
+    public Class<? extends ResponseCacheStore> responseCacheStore() {
+        return Objects.isNull(this.responseCacheStore) ? defaultInfo().responseCacheStore() : this.responseCacheStore;
+    }
+
+    public Class<? extends CircuitBreakerListener> circuitBreakerListener() {
+        return Objects.isNull(this.circuitBreakerListener) ? defaultInfo().circuitBreakerListener() : this.circuitBreakerListener;
+    }
+
+    public Class<? extends HostHealthListener> hostHealthListener() {
+        return Objects.isNull(this.hostHealthListener) ? defaultInfo().hostHealthListener() : this.hostHealthListener;
+    }
+
+    public Class<? extends RequestLifecycleListener> requestLifecycleListener() {
+        return Objects.isNull(this.requestLifecycleListener) ? defaultInfo().requestLifecycleListener() : this.requestLifecycleListener;
+    }
+
     public static RestClientSpiProvider defaultInfo() {
         return defaultRestClientSpiProvider;
     }